@@ -0,0 +1,174 @@
+package com.cobblemonbingo.bingo;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Allocation regression check for the steady-state event paths: catches that count for nothing
+ * new, moves that hit no target, inventory scans with nothing to absorb. These run for every
+ * online player on every catch or throttled tick, so they must not allocate at all.
+ *
+ * Each scenario is warmed up (JIT, state saturated), then measured over several rounds with
+ * ThreadMXBean.getThreadAllocatedBytes; the best round counts, so a stray GC or compilation
+ * can't fail the check. Exits non-zero if any scenario is above the threshold.
+ *
+ * Only {@link BingoEngine} is measured, driven by {@link SimPlayer}. The live adapter layer in
+ * BingoEvents is not: ServerBingoPlayer binding, its inventory, biome and light reads,
+ * extract() on a capture event, and the lastBlockPos move detection all need a running server
+ * and real Cobblemon objects. Changes there have to be checked by hand (e.g. a JFR allocation
+ * profile on a test server).
+ *
+ * Usage: ./gradlew allocationCheck. A manual gate, not part of ./gradlew check: it bootstraps
+ * Minecraft and needs the Cobblemon jar on the runtime classpath.
+ * Options (key=value): players, challenges, rounds, warmupRounds, passes, threshold (bytes/op), seed.
+ */
+public final class AllocationCheck {
+
+    private final Map<String, String> opts;
+    private final int players;
+    private final int challenges;
+    private final int rounds;
+    private final int warmupRounds;
+    private final int passes;
+    private final double threshold;
+    private final long seed;
+
+    private final com.sun.management.ThreadMXBean mx =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().threadId();
+
+    // Scenario data
+    private List<GameHandle> handles;
+    private BingoState state;
+    private SimPlayer[] online;
+    private CatchAttributes[] caught;
+    private final ItemCounts itemCounts = new ItemCounts();
+    private long effects;
+    private final BingoEngine.Effects fx = (game, st, owner, completedAny) -> effects++;
+
+    private AllocationCheck(Map<String, String> opts) {
+        this.opts = opts;
+        this.players = intOpt("players", 256);
+        this.challenges = intOpt("challenges", 100);
+        this.rounds = intOpt("rounds", 5);
+        this.warmupRounds = intOpt("warmupRounds", 30);
+        this.passes = intOpt("passes", 50);
+        this.threshold = Double.parseDouble(opts.getOrDefault("threshold", "0.5"));
+        this.seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got '" + a + "'");
+            opts.put(a.substring(0, eq).trim(), a.substring(eq + 1).trim());
+        }
+        BenchData.bootstrap();
+        boolean ok = new AllocationCheck(opts).run();
+        if (!ok) System.exit(1);
+    }
+
+    private int intOpt(String key, int def) {
+        String v = opts.get(key);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    // -----------------
+    // Run
+    // -----------------
+
+    private boolean run() {
+        setup();
+        System.out.printf(Locale.ROOT, "Allocation check: %d players, %d challenges, threshold %.2f B/op%n",
+                players, challenges, threshold);
+
+        boolean ok = true;
+        ok &= check("catch", this::catchPass);
+        ok &= check("move", this::movePass);
+        ok &= check("inventory", this::inventoryPass);
+
+        System.out.println(ok ? "Allocation check passed." : "Allocation check FAILED.");
+        return ok;
+    }
+
+    private void setup() {
+        Random rand = new Random(seed);
+        GameHandle game = BenchData.handle(BenchData.config(seed, challenges));
+        handles = List.of(game);
+        // Same UUIDs as the state, so every player already has a board.
+        state = BenchData.state(game, players, seed);
+        List<UUID> ids = BenchData.players(players, seed);
+
+        online = new SimPlayer[players];
+        caught = new CatchAttributes[players];
+        for (int k = 0; k < players; k++) {
+            SimPlayer p = new SimPlayer(ids.get(k), seed + k);
+            // y = 0 is below every generated enter-area target.
+            p.moveTo(rand.nextInt(2000) - 1000, 0, rand.nextInt(2000) - 1000);
+            BenchData.fillInventory(p, rand);
+            online[k] = p;
+            caught[k] = BenchData.randomCatch(rand);
+        }
+
+        // Saturate: repeat each player's catch and scan until nothing changes any more.
+        for (int i = 0; i < 100; i++) {
+            effects = 0;
+            catchPass();
+            inventoryPass();
+            if (effects == 0) break;
+        }
+        if (effects != 0) throw new IllegalStateException("State did not reach a steady state");
+    }
+
+    /** One catch per player, as BingoEvents.onCaptured (trace hook included). Returns ops. */
+    private int catchPass() {
+        for (int k = 0; k < online.length; k++) {
+            BingoTrace.capture(online[k], caught[k]);
+            BingoEngine.onCatch(state, handles, online[k], caught[k], fx);
+        }
+        return online.length;
+    }
+
+    /** One step per player (never onto a target), as BingoEvents.tickEnterArea. */
+    private int movePass() {
+        for (int k = 0; k < online.length; k++) {
+            SimPlayer p = online[k];
+            p.moveTo(p.x + ((k & 1) == 0 ? 1 : -1), p.y, p.z);
+            BingoTrace.move(p);
+            BingoEngine.onMove(state, handles, p, fx);
+        }
+        return online.length;
+    }
+
+    /** One scan per player, as BingoEvents.tickCollect. */
+    private int inventoryPass() {
+        for (int k = 0; k < online.length; k++) {
+            BingoTrace.inventory(online[k]);
+            BingoEngine.onInventory(state, handles, online[k], itemCounts, fx);
+        }
+        return online.length;
+    }
+
+    private boolean check(String name, java.util.function.IntSupplier pass) {
+        for (int r = 0; r < warmupRounds; r++) round(pass);
+
+        effects = 0;
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) best = Math.min(best, round(pass));
+
+        boolean ok = best <= threshold && effects == 0;
+        System.out.printf(Locale.ROOT, "  %-10s %8.2f B/op  %s%n", name, best,
+                effects != 0 ? "FAIL (state changed during measurement)" : ok ? "ok" : "FAIL");
+        return ok;
+    }
+
+    /** Bytes allocated per op over {@link #passes} passes. */
+    private double round(java.util.function.IntSupplier pass) {
+        long ops = 0;
+        long before = mx.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < passes; i++) ops += pass.getAsInt();
+        long bytes = mx.getThreadAllocatedBytes(threadId) - before;
+        return (double) bytes / ops;
+    }
+}
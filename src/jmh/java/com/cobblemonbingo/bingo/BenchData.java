@@ -0,0 +1,249 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+
+import java.util.*;
+
+/**
+ * Synthetic configs and state for the benchmarks. Everything is derived from a seed, so two runs
+ * (or two machines) measure the same data; nothing is read from config/ or the world.
+ */
+final class BenchData {
+    private BenchData() {}
+
+    static final String GAME_ID = "bench";
+
+    private static final String[] SPECIES = {
+            "pikachu", "bulbasaur", "charmander", "squirtle", "eevee", "gastly", "abra", "magikarp",
+            "geodude", "zubat", "oddish", "psyduck", "growlithe", "machop", "tentacool", "ponyta",
+            "slowpoke", "magnemite", "onix", "cubone", "rhyhorn", "horsea", "scyther", "lapras"
+    };
+
+    private static final String[] TYPES = {
+            "normal", "fire", "water", "grass", "electric", "ice", "fighting", "poison", "ground",
+            "flying", "psychic", "bug", "rock", "ghost", "dragon", "dark", "steel", "fairy"
+    };
+
+    private static final String[] ITEMS = {
+            "minecraft:diamond", "minecraft:iron_ingot", "minecraft:gold_ingot", "minecraft:emerald",
+            "minecraft:oak_log", "minecraft:cobblestone", "minecraft:wheat", "minecraft:bone",
+            "minecraft:string", "minecraft:feather", "minecraft:redstone", "minecraft:lapis_lazuli",
+            "minecraft:coal", "minecraft:apple", "minecraft:sugar_cane", "minecraft:clay_ball"
+    };
+
+    private static final String[] NATURES = {
+            "hardy", "adamant", "modest", "jolly", "timid", "bold", "calm", "careful", "brave", "quiet"
+    };
+
+    private static final String[] BALLS = {
+            "poke_ball", "poke_ball", "poke_ball", "great_ball", "great_ball", "ultra_ball", "quick_ball", "dusk_ball"
+    };
+
+    private static final String[] BIOMES = {
+            "minecraft:plains", "minecraft:forest", "minecraft:desert", "minecraft:taiga", "minecraft:swamp"
+    };
+
+    private static boolean bootstrapped;
+
+    /** Registries must exist before items, components or NBT are touched. */
+    static synchronized void bootstrap() {
+        if (bootstrapped) return;
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bootstrapped = true;
+    }
+
+    /**
+     * A randomized game with {@code challengeCount} challenges: 40% catch (half by species,
+     * half by type, a quarter of them with a shiny/level/ball/nature/form filter), 30% collect,
+     * 20% enterarea, 10% custom; a fifth of the non-custom ones have an environment filter.
+     * Every challenge has a name and lore like a hand-written config, so icon building does
+     * realistic work.
+     */
+    static BingoConfig config(long seed, int challengeCount) {
+        Random rand = new Random(seed);
+        BingoConfig cfg = new BingoConfig();
+        cfg.name = "Bench";
+        cfg.isRandomized = true;
+        cfg.completion = new ArrayList<>(List.of("horizontal", "vertical", "diagonal"));
+        cfg.challenges = new ArrayList<>();
+
+        for (int i = 0; i < challengeCount; i++) {
+            BingoConfig.BingoChallenge ch = new BingoConfig.BingoChallenge();
+            ch.id = "c" + i;
+            ch.name = "Challenge #" + i;
+            ch.weight = 1 + rand.nextInt(5);
+            ch.lore = new ArrayList<>(List.of("Synthetic challenge " + i, "Seed " + seed));
+            BingoConfig.BingoChallenge.Properties p = new BingoConfig.BingoChallenge.Properties();
+            ch.properties = p;
+
+            int kind = rand.nextInt(10);
+            if (kind < 4) {
+                ch.type = "catch";
+                ch.icon = "minecraft:ender_pearl";
+                if (rand.nextBoolean()) p.pokemon = List.of(pick(rand, SPECIES), pick(rand, SPECIES));
+                else p.pokemonType = List.of(pick(rand, TYPES));
+                p.number = 1 + rand.nextInt(5);
+                // A quarter also ask for something about the Pokémon itself.
+                if (rand.nextInt(4) == 0) catchFilter(p, rand);
+            } else if (kind < 7) {
+                ch.type = "collect";
+                p.item = pick(rand, ITEMS);
+                ch.icon = p.item;
+                p.number = 1 + rand.nextInt(64);
+            } else if (kind < 9) {
+                ch.type = "enterarea";
+                ch.icon = "minecraft:compass";
+                p.x = rand.nextInt(2000) - 1000;
+                p.y = 60 + rand.nextInt(40);
+                p.z = rand.nextInt(2000) - 1000;
+            } else {
+                ch.type = "custom";
+                ch.icon = "minecraft:paper";
+                p.number = 1 + rand.nextInt(10);
+            }
+            // About one in five squares has an environment filter.
+            if (kind < 9 && rand.nextInt(5) == 0) environmentFilter(p, rand);
+            cfg.challenges.add(ch);
+        }
+
+        cfg.buildIndexes();
+        return cfg;
+    }
+
+    /**
+     * {@link #config} plus layout constraints for the board generator: every challenge gets a
+     * difficulty of 0-3 and one of five categories; lines stay at difficulty 4-10 with at most
+     * two squares of a category.
+     */
+    static BingoConfig constrainedConfig(long seed, int challengeCount) {
+        BingoConfig cfg = config(seed, challengeCount);
+        Random rand = new Random(~seed);
+        for (BingoConfig.BingoChallenge ch : cfg.challenges) {
+            ch.difficulty = rand.nextInt(4);
+            ch.category = "cat" + rand.nextInt(5);
+        }
+        BingoConfig.BoardConstraints c = new BingoConfig.BoardConstraints();
+        c.minLineDifficulty = 4;
+        c.maxLineDifficulty = 10;
+        c.maxCategoryPerLine = 2;
+        cfg.constraints = c;
+        cfg.buildIndexes();
+        return cfg;
+    }
+
+    private static void catchFilter(BingoConfig.BingoChallenge.Properties p, Random rand) {
+        switch (rand.nextInt(5)) {
+            case 0 -> p.shiny = true;
+            case 1 -> p.minLevel = 10 * (1 + rand.nextInt(6));
+            case 2 -> p.ball = List.of(pick(rand, BALLS));
+            case 3 -> p.nature = List.of(pick(rand, NATURES));
+            default -> p.form = List.of("alolan");
+        }
+    }
+
+    private static void environmentFilter(BingoConfig.BingoChallenge.Properties p, Random rand) {
+        switch (rand.nextInt(5)) {
+            case 0 -> p.isRaining = rand.nextBoolean();
+            case 1 -> p.biome = List.of(pick(rand, BIOMES));
+            case 2 -> {
+                p.minTime = 13000;
+                p.maxTime = 23000;
+            }
+            case 3 -> p.minY = 40 + rand.nextInt(40);
+            default -> p.maxLight = 7;
+        }
+    }
+
+    static GameHandle handle(BingoConfig cfg) {
+        return handle(GAME_ID, cfg);
+    }
+
+    static GameHandle handle(String gameId, BingoConfig cfg) {
+        return new GameHandle(gameId, cfg, BingoConfigManager.compile(gameId, cfg));
+    }
+
+    /**
+     * State with {@code players} owners in one game: every owner has a board, about 40% of
+     * squares have progress and about 15% are completed.
+     */
+    static BingoState state(GameHandle game, int players, long seed) {
+        Random rand = new Random(seed);
+        BingoState state = new BingoState();
+        BingoState.GamePartition part = game.partition(state);
+        List<CompiledGame.Challenge> all = game.game.challenges;
+
+        for (UUID uuid : players(players, seed)) {
+            List<String> board = board(all, rand);
+            part.setBoard(uuid, board);
+            for (String id : board) {
+                int roll = rand.nextInt(100);
+                if (roll < 15) {
+                    part.setProgress(uuid, id, game.game.challenge(id).goal);
+                    part.markCompleted(uuid, id);
+                } else if (roll < 40) {
+                    part.setProgress(uuid, id, 1);
+                }
+            }
+        }
+        return state;
+    }
+
+    static List<UUID> players(int count, long seed) {
+        Random rand = new Random(seed ^ 0x5DEECE66DL);
+        List<UUID> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(new UUID(rand.nextLong(), rand.nextLong()));
+        return out;
+    }
+
+    /** 25 distinct challenge ids in random order. */
+    static List<String> board(List<CompiledGame.Challenge> all, Random rand) {
+        List<String> ids = new ArrayList<>(all.size());
+        for (CompiledGame.Challenge ch : all) ids.add(ch.id);
+        Collections.shuffle(ids, rand);
+        return new ArrayList<>(ids.subList(0, Math.min(25, ids.size())));
+    }
+
+    /** Roughly two thirds of the slots filled, mostly with items the game asks for. */
+    static void fillInventory(SimPlayer player, Random rand) {
+        for (int slot = 0; slot < SimPlayer.SLOTS; slot++) {
+            if (rand.nextInt(3) == 0) player.setSlot(slot, Items.AIR, 0);
+            else player.setSlot(slot, randomItem(rand), 1 + rand.nextInt(64));
+        }
+    }
+
+    static Item randomItem(Random rand) {
+        return BuiltInRegistries.ITEM.get(ResourceLocation.parse(pick(rand, ITEMS)));
+    }
+
+    /** A caught Pokémon: one in 512 shiny (far above the real rate, so shiny squares get hits). */
+    static CatchAttributes randomCatch(Random rand) {
+        CatchAttributes c = new CatchAttributes();
+        c.species = CompiledGame.normalizeSpecies(pick(rand, SPECIES));
+        String a = pick(rand, TYPES);
+        String b = pick(rand, TYPES);
+        c.types = a.equals(b) ? Set.of(a) : Set.of(a, b);
+        c.shiny = rand.nextInt(512) == 0;
+        c.level = 1 + rand.nextInt(100);
+        c.nature = "cobblemon:" + pick(rand, NATURES);
+        c.ball = "cobblemon:" + pick(rand, BALLS);
+        boolean alolan = rand.nextInt(10) == 0;
+        c.form = alolan ? "alola" : "normal";
+        c.formAspects = alolan ? Set.of("alolan") : Set.of();
+        for (int i = 0; i < 6; i++) {
+            int iv = rand.nextInt(32);
+            c.ivTotal += iv;
+            if (iv == 31) c.perfectIvs++;
+        }
+        return c;
+    }
+
+    private static String pick(Random rand, String[] values) {
+        return values[rand.nextInt(values.length)];
+    }
+}
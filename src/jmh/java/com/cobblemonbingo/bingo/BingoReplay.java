@@ -0,0 +1,355 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Replays a trace from /bingo trace through {@link BingoEngine}, offline and deterministically,
+ * and reports time and allocation per event kind. The trace is decoded up front, so only engine
+ * work is measured; a state digest at the end shows whether two builds also agree on the result.
+ *
+ * Usage: ./gradlew replay -Preplay.args="trace=run/bingo-traces/x.bin.gz config=run/config/bingo runs=5"
+ * config is the directory of game files the trace was recorded with.
+ */
+public final class BingoReplay {
+
+    /** TICK includes the collect scans it triggers; OTHER is joins, leaves and admin commands. */
+    private enum Kind { CATCH, MOVE, TICK, INVENTORY, OTHER }
+
+    /** One decoded record; apply() does the engine work. */
+    private interface Op {
+        Kind kind();
+
+        void apply(Run run);
+    }
+
+    private final List<Op> ops = new ArrayList<>();
+    private final List<GameHandle> handles;
+    private final Map<String, GameHandle> byId = new HashMap<>();
+
+    private BingoReplay(List<GameHandle> handles) {
+        this.handles = handles;
+        for (GameHandle h : handles) byId.put(h.id, h);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got '" + a + "'");
+            opts.put(a.substring(0, eq).trim(), a.substring(eq + 1).trim());
+        }
+        String trace = opts.get("trace");
+        if (trace == null) throw new IllegalArgumentException("trace=<file> is required");
+        Path configDir = Path.of(opts.getOrDefault("config", "config/bingo"));
+        int runs = Integer.parseInt(opts.getOrDefault("runs", "5"));
+
+        BenchData.bootstrap();
+        BingoReplay replay = new BingoReplay(loadGames(configDir));
+        replay.decode(Path.of(trace));
+        replay.runAll(runs);
+    }
+
+    private static List<GameHandle> loadGames(Path dir) throws IOException {
+        List<GameHandle> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : files.filter(p -> p.toString().endsWith(".json")).sorted().toList()) {
+                String name = f.getFileName().toString();
+                String id = BingoRegistry.canonicalId(name.substring(0, name.length() - ".json".length()));
+                BingoConfig cfg = BingoConfigManager.parse(Files.readAllBytes(f), name);
+                if (cfg != null) out.add(new GameHandle(id, cfg, new CompiledGame(id, cfg)));
+            }
+        }
+        if (out.isEmpty()) throw new IOException("No game configs in " + dir.toAbsolutePath());
+        return out;
+    }
+
+    // -----------------
+    // Decoding
+    // -----------------
+
+    private void decode(Path trace) throws IOException {
+        Map<String, ResourceKey<Level>> dims = new HashMap<>();
+        Map<String, ResourceKey<Biome>> biomes = new HashMap<>();
+        Map<String, Item> items = new HashMap<>();
+
+        long started = BingoTrace.read(trace, new BingoTrace.Visitor() {
+            @Override
+            public void tick(long ticks) {
+                add(Kind.TICK, run -> run.advance(ticks));
+            }
+
+            @Override
+            public void join(UUID player) {
+                add(Kind.OTHER, run -> run.online.add(run.player(player)));
+            }
+
+            @Override
+            public void leave(UUID player) {
+                add(Kind.OTHER, run -> run.online.remove(run.player(player)));
+            }
+
+            @Override
+            public void capture(UUID player, BingoTrace.Surroundings where, int y, CatchAttributes caught) {
+                ResourceKey<Level> dim = dims.computeIfAbsent(where.dimension(), BingoReplay::dimension);
+                ResourceKey<Biome> biome = where.biome() == null ? null : biomes.computeIfAbsent(where.biome(), BingoReplay::biome);
+                add(Kind.CATCH, run -> {
+                    SimPlayer p = run.player(player);
+                    place(p, where, dim, biome);
+                    p.y = y;
+                    BingoEngine.onCatch(run.state, handles, p, caught, run);
+                });
+            }
+
+            @Override
+            public void move(UUID player, BingoTrace.Surroundings where, int x, int y, int z) {
+                ResourceKey<Level> dim = dims.computeIfAbsent(where.dimension(), BingoReplay::dimension);
+                ResourceKey<Biome> biome = where.biome() == null ? null : biomes.computeIfAbsent(where.biome(), BingoReplay::biome);
+                add(Kind.MOVE, run -> {
+                    SimPlayer p = run.player(player);
+                    place(p, where, dim, biome);
+                    p.moveTo(x, y, z);
+                    BingoEngine.onMove(run.state, handles, p, run);
+                });
+            }
+
+            @Override
+            public void inventory(UUID player, String[] ids, int[] counts) {
+                Item[] resolved = new Item[ids.length];
+                for (int i = 0; i < ids.length; i++) {
+                    resolved[i] = items.computeIfAbsent(ids[i], id -> BuiltInRegistries.ITEM.get(ResourceLocation.parse(id)));
+                }
+                // Totals go one item per slot; the engine only looks at the sums.
+                add(Kind.INVENTORY, run -> {
+                    SimPlayer p = run.player(player);
+                    for (int slot = 0; slot < SimPlayer.SLOTS; slot++) {
+                        if (slot < resolved.length) p.setSlot(slot, resolved[slot], counts[slot]);
+                        else p.setSlot(slot, Items.AIR, 0);
+                    }
+                });
+            }
+
+            @Override
+            public void enable(String gameId) {
+                add(Kind.OTHER, run -> {
+                    GameHandle g = game(gameId);
+                    if (g != null) g.config.isActive = true;
+                });
+            }
+
+            @Override
+            public void disable(String gameId) {
+                add(Kind.OTHER, run -> {
+                    GameHandle g = game(gameId);
+                    if (g == null) return;
+                    g.config.isActive = false;
+                    g.partition(run.state).resetAll();
+                });
+            }
+
+            @Override
+            public void resetGame(String gameId) {
+                add(Kind.OTHER, run -> run.state.resetGameForAllPlayers(gameId));
+            }
+
+            @Override
+            public void resetPlayer(UUID player, String gameId) {
+                add(Kind.OTHER, run -> {
+                    GameHandle g = game(gameId);
+                    UUID owner = g == null ? player : g.game.progressOwner(player);
+                    run.state.resetGameForPlayer(owner, gameId);
+                });
+            }
+
+            @Override
+            public void resetChallenge(UUID player, String challengeId, String gameIdOrNull) {
+                add(Kind.OTHER, run -> {
+                    for (GameHandle g : handles) {
+                        if (gameIdOrNull != null && g != game(gameIdOrNull)) continue;
+                        run.state.resetChallengeForPlayer(g.game.progressOwner(player), challengeId, g.id);
+                    }
+                });
+            }
+
+            @Override
+            public void resetChallengeAll(String challengeId, String gameIdOrNull) {
+                add(Kind.OTHER, run -> run.state.resetChallengeForAllPlayers(challengeId, gameIdOrNull));
+            }
+
+            @Override
+            public void progress(UUID player, String gameIdOrNull, String challengeId, int amount) {
+                add(Kind.OTHER, run -> run.addProgress(player, gameIdOrNull, challengeId, amount));
+            }
+        });
+
+        long catches = ops.stream().filter(o -> o.kind() == Kind.CATCH).count();
+        long moves = ops.stream().filter(o -> o.kind() == Kind.MOVE).count();
+        System.out.printf(Locale.ROOT, "Trace %s (recorded %s): %d records, %d catches, %d moves; %d game(s)%n",
+                trace.getFileName(), new Date(started), ops.size(), catches, moves, handles.size());
+    }
+
+    private void add(Kind kind, java.util.function.Consumer<Run> body) {
+        ops.add(new Op() {
+            @Override
+            public Kind kind() {
+                return kind;
+            }
+
+            @Override
+            public void apply(Run run) {
+                body.accept(run);
+            }
+        });
+    }
+
+    /** Commands record ids as typed; the registry would canonicalize them the same way. */
+    private GameHandle game(String id) {
+        return byId.get(BingoRegistry.canonicalId(id));
+    }
+
+    private static ResourceKey<Level> dimension(String id) {
+        return ResourceKey.create(Registries.DIMENSION, ResourceLocation.parse(id));
+    }
+
+    private static ResourceKey<Biome> biome(String id) {
+        return ResourceKey.create(Registries.BIOME, ResourceLocation.parse(id));
+    }
+
+    private static void place(SimPlayer p, BingoTrace.Surroundings where, ResourceKey<Level> dim, ResourceKey<Biome> biome) {
+        p.dimension = dim;
+        p.raining = where.raining();
+        p.thundering = where.thundering();
+        p.dayTime = where.dayTime();
+        p.biome = biome;
+        p.light = where.light();
+    }
+
+    // -----------------
+    // Replay
+    // -----------------
+
+    private void runAll(int runs) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int r = 0; r <= runs; r++) {
+            // Configs are shared between runs; admin ops may have toggled them.
+            Map<GameHandle, Boolean> active = new HashMap<>();
+            for (GameHandle h : handles) active.put(h, h.config.isActive);
+
+            Run run = new Run();
+            long bytes0 = mx.getThreadAllocatedBytes(threadId);
+            long t0 = System.nanoTime();
+            for (Op op : ops) {
+                long s = System.nanoTime();
+                op.apply(run);
+                run.nanos[op.kind().ordinal()] += System.nanoTime() - s;
+                run.counts[op.kind().ordinal()]++;
+            }
+            long elapsed = System.nanoTime() - t0;
+            long bytes = mx.getThreadAllocatedBytes(threadId) - bytes0;
+
+            active.forEach((h, a) -> h.config.isActive = a);
+            run.report(r == 0 ? "warmup" : "run " + r, elapsed, bytes);
+        }
+    }
+
+    /** Mutable state of one pass over the trace. */
+    private final class Run implements BingoEngine.Effects {
+        final BingoState state = new BingoState();
+        final ItemCounts itemCounts = new ItemCounts();
+        final Map<UUID, SimPlayer> players = new HashMap<>();
+        final Set<SimPlayer> online = new LinkedHashSet<>();
+        final RandomSource adminRandom = RandomSource.create(0);
+        final long[] nanos = new long[Kind.values().length];
+        final long[] counts = new long[Kind.values().length];
+
+        long tick;
+        long scans;
+        long progressed;
+        long completions;
+        long wins;
+
+        SimPlayer player(UUID id) {
+            // Seeded by UUID, so randomized boards come out the same on every run.
+            return players.computeIfAbsent(id, k -> new SimPlayer(k, k.getMostSignificantBits() ^ k.getLeastSignificantBits()));
+        }
+
+        /** Collect scans run for every online player every 10 ticks, as on the server. */
+        void advance(long ticks) {
+            long before = tick / 10;
+            tick += ticks;
+            if (tick / 10 == before) return;
+            for (SimPlayer p : online) {
+                BingoEngine.onInventory(state, handles, p, itemCounts, this);
+                scans++;
+            }
+        }
+
+        void addProgress(UUID playerId, String gameIdOrNull, String challengeId, int amount) {
+            for (GameHandle game : handles) {
+                if (!game.isActive() || (gameIdOrNull != null && game != game(gameIdOrNull))) continue;
+                CompiledGame.Challenge ch = game.game.challenge(challengeId);
+                if (ch == null) continue;
+                UUID owner = game.game.progressOwner(playerId);
+                BingoService.ensureBoard(owner, adminRandom, state, game);
+                BingoState.GamePartition part = game.partition(state);
+                if (part.isCompleted(owner, ch.id) || part.isLockedFor(owner, ch)) continue;
+                int after = Math.min(ch.goal, part.getProgress(owner, ch.id) + amount);
+                part.setProgress(owner, ch.id, after);
+                boolean completed = after >= ch.goal && part.markCompleted(owner, ch.id);
+                progressed(game, state, owner, completed);
+            }
+        }
+
+        @Override
+        public void progressed(GameHandle game, BingoState st, UUID owner, boolean completedAny) {
+            progressed++;
+            if (!completedAny) return;
+            completions++;
+            BingoState.GamePartition part = game.partition(st);
+            if (!BingoEngine.hasWinningLine(game, part, owner)) return;
+            // Same state changes as BingoService.handleWin, minus rewards and messages.
+            if (game.config.doesResetOnCompletion) {
+                wins++;
+                part.resetAll();
+            } else if (!part.hasClaimedReward(owner)) {
+                wins++;
+                part.markClaimedReward(owner);
+            } else {
+                return;
+            }
+            if (game.config.disableOnCompletion) game.config.isActive = false;
+        }
+
+        void report(String label, long elapsed, long bytes) {
+            // Content hash of the saved state: equal digests => both builds ended in the same state.
+            int digest = state.save(new CompoundTag(), null).hashCode();
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                    "%-7s %8.1f ms, %6.1f MB allocated, %d scans, %d updates, %d completions, %d wins, digest %08x",
+                    label, elapsed / 1e6, bytes / (double) (1 << 20), scans, progressed, completions, wins, digest));
+            for (Kind k : Kind.values()) {
+                long n = counts[k.ordinal()];
+                if (n == 0) continue;
+                sb.append(String.format(Locale.ROOT, "%n        %-6s %9d ops, %8.0f ns/op", k.name().toLowerCase(Locale.ROOT),
+                        n, nanos[k.ordinal()] / (double) n));
+            }
+            System.out.println(sb);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.world.item.Item;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Headless load simulation: thousands of synthetic players catching, moving and picking up items
+ * against {@link BingoEngine}, on the same schedule the server uses (catches as they happen, moves
+ * every 5 ticks, inventory scans every 10). Ticks run back to back rather than at 20 TPS, so the
+ * report shows how much of a 50 ms tick the bingo work would take. The whole event stream
+ * (who catches what, who moves where, who picks up which item) is generated before the run, so
+ * the timed ticks only replay it.
+ *
+ * Usage: ./gradlew simulate -Psim.args="players=5000 ticks=12000"
+ * Options (key=value): players, games, challenges, ticks, warmup, catchesPerMinute, movePercent,
+ * pickupPercent, seed.
+ */
+public final class BingoSimulator {
+
+    private final Map<String, String> opts;
+    private final int players;
+    private final int games;
+    private final int challenges;
+    private final int ticks;
+    private final int warmup;
+    private final double catchChance;
+    private final int movePercent;
+    private final int pickupPercent;
+    private final long seed;
+
+    // Distinct catches and items the event stream draws from.
+    private static final int CATCH_POOL = 4096;
+    private static final int ITEM_POOL = 256;
+    // Move codes: 0-8 = step (dx, dz) in -1..1, TELEPORT = onto the next enter-area target.
+    private static final int TELEPORT = 9;
+
+    // Counters (reset after warmup)
+    private long catches;
+    private long moves;
+    private long scans;
+    private long progressed;
+    private long completions;
+    private long wins;
+    private final BingoPerf.Histogram tickTimes = new BingoPerf.Histogram();
+
+    private BingoSimulator(Map<String, String> opts) {
+        this.opts = opts;
+        this.players = intOpt("players", 2000);
+        this.games = intOpt("games", 1);
+        this.challenges = intOpt("challenges", 100);
+        this.ticks = intOpt("ticks", 6000);
+        this.warmup = intOpt("warmup", Math.max(200, ticks / 10));
+        // Per player per tick.
+        this.catchChance = intOpt("catchesPerMinute", 2) / 1200.0;
+        this.movePercent = intOpt("movePercent", 40);
+        this.pickupPercent = intOpt("pickupPercent", 5);
+        this.seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got '" + a + "'");
+            opts.put(a.substring(0, eq).trim(), a.substring(eq + 1).trim());
+        }
+        BenchData.bootstrap();
+        new BingoSimulator(opts).run();
+    }
+
+    private int intOpt(String key, int def) {
+        String v = opts.get(key);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    // -----------------
+    // Run
+    // -----------------
+
+    private void run() {
+        Random rand = new Random(seed);
+
+        List<GameHandle> handles = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            handles.add(BenchData.handle(BenchData.GAME_ID + g, BenchData.config(seed + g, challenges)));
+        }
+        BingoState state = new BingoState();
+        ItemCounts itemCounts = new ItemCounts();
+
+        SimPlayer[] online = new SimPlayer[players];
+        List<UUID> ids = BenchData.players(players, seed);
+        for (int k = 0; k < players; k++) {
+            SimPlayer p = new SimPlayer(ids.get(k), rand.nextLong());
+            p.moveTo(rand.nextInt(2000) - 1000, 60 + rand.nextInt(40), rand.nextInt(2000) - 1000);
+            BenchData.fillInventory(p, rand);
+            online[k] = p;
+        }
+
+        // Targets for the occasional move onto an enter-area square.
+        List<CompiledGame.Challenge> areas = new ArrayList<>();
+        for (GameHandle h : handles) areas.addAll(h.game.areaChallenges);
+
+        Script script = Script.generate(this, rand, areas.size());
+
+        BingoEngine.Effects fx = (game, st, owner, completedAny) -> {
+            progressed++;
+            if (!completedAny) return;
+            completions++;
+            BingoState.GamePartition part = game.partition(st);
+            if (!part.hasClaimedReward(owner) && BingoEngine.hasWinningLine(game, part, owner)) {
+                part.markClaimedReward(owner);
+                wins++;
+            }
+        };
+
+        System.out.printf(Locale.ROOT, "Simulating %d players, %d game(s) x %d challenges: %d ticks (+%d warmup)%n",
+                players, games, challenges, ticks, warmup);
+
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long startNanos = 0;
+        long startBytes = 0;
+        int c = 0, m = 0, teleport = 0, u = 0;
+
+        for (int tick = 0; tick < warmup + ticks; tick++) {
+            if (tick == warmup) {
+                catches = moves = scans = progressed = completions = wins = 0;
+                tickTimes.clear();
+                startNanos = System.nanoTime();
+                startBytes = mx.getThreadAllocatedBytes(threadId);
+            }
+            long t0 = System.nanoTime();
+
+            for (int end = script.catchEnd[tick]; c < end; c++) {
+                BingoEngine.onCatch(state, handles, online[script.catchPlayer[c]], script.catchPool[script.catchIndex[c]], fx);
+                catches++;
+            }
+
+            if (tick % 5 == 0) {
+                for (int end = script.moveEnd[tick]; m < end; m++) {
+                    SimPlayer p = online[script.movePlayer[m]];
+                    int code = script.moveCode[m];
+                    if (code == TELEPORT) {
+                        CompiledGame.Challenge a = areas.get(script.teleports[teleport++]);
+                        p.moveTo(a.x, a.y, a.z);
+                    } else {
+                        p.moveTo(p.x + code / 3 - 1, p.y, p.z + code % 3 - 1);
+                    }
+                    BingoEngine.onMove(state, handles, p, fx);
+                    moves++;
+                }
+            }
+
+            if (tick % 10 == 0) {
+                for (int end = script.pickupEnd[tick]; u < end; u++) {
+                    SimPlayer p = online[script.pickupPlayer[u]];
+                    int slot = script.pickupSlot[u];
+                    p.setSlot(slot, script.itemPool[script.pickupItem[u]], Math.min(64, p.counts[slot] + script.pickupAmount[u]));
+                }
+                for (SimPlayer p : online) {
+                    BingoEngine.onInventory(state, handles, p, itemCounts, fx);
+                    scans++;
+                }
+            }
+
+            tickTimes.record(System.nanoTime() - t0);
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long bytes = mx.getThreadAllocatedBytes(threadId) - startBytes;
+        report(seconds, bytes);
+    }
+
+    private void report(double seconds, long bytes) {
+        long events = catches + moves + scans;
+        System.out.printf(Locale.ROOT, "Wall time      %.2fs for %d ticks (%.0f simulated seconds)%n", seconds, ticks, ticks / 20.0);
+        System.out.printf(Locale.ROOT, "Tick           avg %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms (budget 50 ms)%n",
+                seconds * 1e3 / ticks, tickTimes.percentile(0.50) / 1e6, tickTimes.percentile(0.99) / 1e6, tickTimes.max() / 1e6);
+        System.out.printf(Locale.ROOT, "Events         %d catches, %d moves, %d inventory scans: %.0f events/s%n",
+                catches, moves, scans, events / seconds);
+        System.out.printf(Locale.ROOT, "Outcome        %d owner updates, %d completing, %d wins%n", progressed, completions, wins);
+        System.out.printf(Locale.ROOT, "Allocation     %.1f MB/s, %.0f B/event, %.1f KB/tick%n",
+                bytes / seconds / (1 << 20), events == 0 ? 0.0 : (double) bytes / events, bytes / 1024.0 / ticks);
+    }
+
+    // -----------------
+    // Event stream
+    // -----------------
+
+    /**
+     * Every event of the run in flat arrays, in replay order. xEnd[tick] is the index one past
+     * that tick's last event of kind x; events draw their catch or item from a shared pool.
+     */
+    private static final class Script {
+        CatchAttributes[] catchPool;
+        Item[] itemPool;
+
+        int[] catchEnd;
+        int[] catchPlayer;
+        int[] catchIndex;
+
+        int[] moveEnd;
+        int[] movePlayer;
+        int[] moveCode;
+        int[] teleports;
+
+        int[] pickupEnd;
+        int[] pickupPlayer;
+        int[] pickupSlot;
+        int[] pickupItem;
+        int[] pickupAmount;
+
+        static Script generate(BingoSimulator sim, Random rand, int areaCount) {
+            int total = sim.warmup + sim.ticks;
+            Script s = new Script();
+            s.catchPool = new CatchAttributes[CATCH_POOL];
+            for (int i = 0; i < CATCH_POOL; i++) s.catchPool[i] = BenchData.randomCatch(rand);
+            s.itemPool = new Item[ITEM_POOL];
+            for (int i = 0; i < ITEM_POOL; i++) s.itemPool[i] = BenchData.randomItem(rand);
+
+            s.catchEnd = new int[total];
+            s.moveEnd = new int[total];
+            s.pickupEnd = new int[total];
+            Ints catchPlayer = new Ints(), catchIndex = new Ints();
+            Ints movePlayer = new Ints(), moveCode = new Ints(), teleports = new Ints();
+            Ints pickupPlayer = new Ints(), pickupSlot = new Ints(), pickupItem = new Ints(), pickupAmount = new Ints();
+
+            for (int tick = 0; tick < total; tick++) {
+                for (int k = 0; k < sim.players; k++) {
+                    if (rand.nextDouble() < sim.catchChance) {
+                        catchPlayer.add(k);
+                        catchIndex.add(rand.nextInt(CATCH_POOL));
+                    }
+                }
+                s.catchEnd[tick] = catchPlayer.size;
+
+                if (tick % 5 == 0) {
+                    for (int k = 0; k < sim.players; k++) {
+                        if (rand.nextInt(100) >= sim.movePercent) continue;
+                        movePlayer.add(k);
+                        if (areaCount > 0 && rand.nextInt(200) == 0) {
+                            moveCode.add(TELEPORT);
+                            teleports.add(rand.nextInt(areaCount));
+                        } else {
+                            moveCode.add(rand.nextInt(3) * 3 + rand.nextInt(3));
+                        }
+                    }
+                }
+                s.moveEnd[tick] = movePlayer.size;
+
+                if (tick % 10 == 0) {
+                    for (int k = 0; k < sim.players; k++) {
+                        if (rand.nextInt(100) >= sim.pickupPercent) continue;
+                        pickupPlayer.add(k);
+                        pickupSlot.add(rand.nextInt(SimPlayer.SLOTS));
+                        pickupItem.add(rand.nextInt(ITEM_POOL));
+                        pickupAmount.add(1 + rand.nextInt(8));
+                    }
+                }
+                s.pickupEnd[tick] = pickupPlayer.size;
+            }
+
+            s.catchPlayer = catchPlayer.toArray();
+            s.catchIndex = catchIndex.toArray();
+            s.movePlayer = movePlayer.toArray();
+            s.moveCode = moveCode.toArray();
+            s.teleports = teleports.toArray();
+            s.pickupPlayer = pickupPlayer.toArray();
+            s.pickupSlot = pickupSlot.toArray();
+            s.pickupItem = pickupItem.toArray();
+            s.pickupAmount = pickupAmount.toArray();
+            return s;
+        }
+    }
+
+    /** Growable int array for {@link Script}. */
+    private static final class Ints {
+        int[] values = new int[1024];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.SimpleContainer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event work through the same entry points BingoEvents and BingoService call: one player's
+ * catch, move or inventory scan in BingoEngine, a win check, board dealing and menu contents.
+ *
+ * The state is saturated in setup (every pre-generated input has already been applied), so the
+ * event benchmarks measure the steady state: lookups and filters, no progress writes. Inputs,
+ * including the RNGs, are built in setup and cycle through arrays so branch prediction doesn't
+ * learn a single case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HotPathBench {
+
+    private static final int INPUTS = 1024;
+    private static final long SEED = 42L;
+
+    @Param({"100"})
+    public int challenges;
+
+    private GameHandle game;
+    private List<GameHandle> games;
+    private BingoState state;
+    private BingoState.GamePartition part;
+    private UUID[] owners;
+    private List<String>[] boards;
+
+    private CatchAttributes[] caught;
+    private SimPlayer[] players;
+    private RandomSource[] rngs;
+    private BingoConfig constrained;
+
+    private SimpleContainer container;
+    private final ItemCounts counts = new ItemCounts();
+    private final BingoEngine.Effects fx = (g, st, owner, completedAny) -> {};
+    private int i;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        BenchData.bootstrap();
+        Random rand = new Random(SEED);
+
+        game = BenchData.handle(BenchData.config(SEED, challenges));
+        games = List.of(game);
+        state = BenchData.state(game, INPUTS, SEED);
+        part = game.partition(state);
+
+        owners = BenchData.players(INPUTS, SEED).toArray(new UUID[0]);
+        boards = new List[INPUTS];
+        for (int k = 0; k < INPUTS; k++) boards[k] = part.getBoard(owners[k]);
+
+        caught = new CatchAttributes[INPUTS];
+        players = new SimPlayer[INPUTS];
+        rngs = new RandomSource[INPUTS];
+        List<CompiledGame.Challenge> areas = game.game.areaChallenges;
+        for (int k = 0; k < INPUTS; k++) {
+            caught[k] = BenchData.randomCatch(rand);
+            players[k] = new SimPlayer(owners[k], SEED + k);
+            BenchData.fillInventory(players[k], rand);
+            // One in eight stands on a target block (completed during saturation).
+            if (!areas.isEmpty() && rand.nextInt(8) == 0) {
+                CompiledGame.Challenge a = areas.get(rand.nextInt(areas.size()));
+                players[k].moveTo(a.x, a.y, a.z);
+            } else {
+                players[k].moveTo(rand.nextInt(2000) - 1000, 60 + rand.nextInt(40), rand.nextInt(2000) - 1000);
+            }
+            rngs[k] = RandomSource.create(SEED + k);
+        }
+
+        // Apply every input until nothing changes, as AllocationCheck does.
+        boolean[] changed = new boolean[1];
+        BingoEngine.Effects saturate = (g, st, owner, completedAny) -> changed[0] = true;
+        for (int round = 0; round < 100; round++) {
+            changed[0] = false;
+            for (int k = 0; k < INPUTS; k++) {
+                BingoEngine.onCatch(state, games, players[k], caught[k], saturate);
+                BingoEngine.onMove(state, games, players[k], saturate);
+                BingoEngine.onInventory(state, games, players[k], counts, saturate);
+            }
+            if (!changed[0]) break;
+        }
+        if (changed[0]) throw new IllegalStateException("State did not reach a steady state");
+
+        constrained = BenchData.constrainedConfig(SEED, challenges);
+        container = new SimpleContainer(54);
+    }
+
+    private int next() {
+        return i = (i + 1) & (INPUTS - 1);
+    }
+
+    /** BingoEvents.onCaptured: one catch against the player's board. */
+    @Benchmark
+    public void onCatch() {
+        int k = next();
+        BingoEngine.onCatch(state, games, players[k], caught[k], fx);
+    }
+
+    /** BingoEvents.tickCollect: inventory scan plus the per-square checks for one player. */
+    @Benchmark
+    public void onInventory() {
+        BingoEngine.onInventory(state, games, players[next()], counts, fx);
+    }
+
+    /** BingoEvents.tickEnterArea: one moved player against their board. */
+    @Benchmark
+    public void onMove() {
+        BingoEngine.onMove(state, games, players[next()], fx);
+    }
+
+    /** BingoService.handleWin's line check. */
+    @Benchmark
+    public boolean hasWinningLine() {
+        return BingoEngine.hasWinningLine(game, part, owners[next()]);
+    }
+
+    /** Weighted dealing (unconstrained games). */
+    @Benchmark
+    public List<BingoConfig.BingoChallenge> chooseTwentyFive() {
+        return BingoService.chooseTwentyFive(game.config, rngs[next()]);
+    }
+
+    /** BingoBoardGenerator through createBoard, as ensureBoard deals a constrained game. */
+    @Benchmark
+    public List<String> createConstrainedBoard() {
+        return BingoService.createBoard(constrained, rngs[next()]);
+    }
+
+    /** BingoService.applyContents: the 25 icons for one board (frame panes excluded). */
+    @Benchmark
+    public void applyContents(Blackhole bh) {
+        int k = next();
+        BingoService.fillBoard(container, game, part, owners[k], boards[k], id -> "another player");
+        bh.consume(container);
+    }
+}
@@ -0,0 +1,133 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Biomes;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/** A synthetic player for the benchmarks and the simulator: plain fields, no server behind it. */
+final class SimPlayer implements BingoPlayer, BingoWorld, BingoInventory {
+
+    static final int SLOTS = 36;
+
+    final UUID id;
+    final RandomSource random;
+
+    int x;
+    int y;
+    int z;
+
+    ResourceKey<Level> dimension = Level.OVERWORLD;
+    boolean raining;
+    boolean thundering;
+    long dayTime = 6000; // noon
+    ResourceKey<Biome> biome = Biomes.PLAINS;
+    int light = 15;
+
+    final Item[] items = new Item[SLOTS];
+    final int[] counts = new int[SLOTS];
+
+    SimPlayer(UUID id, long seed) {
+        this.id = id;
+        this.random = RandomSource.create(seed);
+        Arrays.fill(items, Items.AIR);
+    }
+
+    void moveTo(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    void setSlot(int slot, Item item, int count) {
+        boolean empty = item == Items.AIR || count <= 0;
+        items[slot] = empty ? Items.AIR : item;
+        counts[slot] = empty ? 0 : count;
+    }
+
+    @Override
+    public UUID id() {
+        return id;
+    }
+
+    @Override
+    public RandomSource random() {
+        return random;
+    }
+
+    @Override
+    public int blockX() {
+        return x;
+    }
+
+    @Override
+    public int blockY() {
+        return y;
+    }
+
+    @Override
+    public int blockZ() {
+        return z;
+    }
+
+    @Override
+    public ResourceKey<Biome> biome() {
+        return biome;
+    }
+
+    @Override
+    public int light() {
+        return light;
+    }
+
+    @Override
+    public BingoWorld world() {
+        return this;
+    }
+
+    @Override
+    public BingoInventory inventory() {
+        return this;
+    }
+
+    @Override
+    public ResourceKey<Level> dimension() {
+        return dimension;
+    }
+
+    @Override
+    public boolean isRaining() {
+        return raining;
+    }
+
+    @Override
+    public boolean isThundering() {
+        return thundering;
+    }
+
+    @Override
+    public long dayTime() {
+        return dayTime;
+    }
+
+    @Override
+    public int size() {
+        return SLOTS;
+    }
+
+    @Override
+    public Item item(int slot) {
+        return items[slot];
+    }
+
+    @Override
+    public int count(int slot) {
+        return counts[slot];
+    }
+}
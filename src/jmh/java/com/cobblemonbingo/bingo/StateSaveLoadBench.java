@@ -0,0 +1,45 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.nbt.CompoundTag;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BingoState to NBT and back, as the world save does it (compression and disk excluded).
+ * Each owner has a board, progress on ~40% of squares and ~15% completed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+@State(Scope.Benchmark)
+public class StateSaveLoadBench {
+
+    private static final long SEED = 42L;
+
+    @Param({"1000", "10000", "100000"})
+    public int players;
+
+    private BingoState state;
+    private CompoundTag saved;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchData.bootstrap();
+        GameHandle game = BenchData.handle(BenchData.config(SEED, 100));
+        state = BenchData.state(game, players, SEED);
+        saved = state.save(new CompoundTag(), null);
+    }
+
+    @Benchmark
+    public CompoundTag save() {
+        return state.save(new CompoundTag(), null);
+    }
+
+    @Benchmark
+    public BingoState load() {
+        return BingoState.load(saved, null);
+    }
+}
@@ -0,0 +1,157 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Public entry point for other mods and async integrations.
+ *
+ * {@link #addProgress} may be called from any thread: it only appends to a lock-free queue.
+ * The server thread drains the queue in bounded batches each tick and applies them through
+ * {@link BingoProgressBatch}, so many updates for one player cost one refresh and one win check.
+ *
+ * Resolve a {@link ChallengeHandle} once and reuse it; it re-resolves itself after reloads.
+ * Listeners are always called on the server thread. In team games the listener's playerId is
+ * the team's progress owner ({@link CompiledGame#progressOwner}), not the member who scored.
+ */
+public final class BingoApi {
+    private BingoApi() {}
+
+    // Updates applied per tick; the rest wait for the next tick.
+    private static final int MAX_PER_TICK = 1024;
+
+    /** Notified on the server thread. */
+    public interface CompletionListener {
+        /** A player completed one square. */
+        void onChallengeCompleted(UUID playerId, String gameId, String challengeId);
+
+        /** A player completed a line (before any reset/reward handling). */
+        default void onBingo(UUID playerId, String gameId) {}
+    }
+
+    /** Pre-resolved reference to one challenge of one game. Thread-safe; cheap to keep around. */
+    public static final class ChallengeHandle {
+        private final String gameId;
+        private final String challengeId;
+
+        // Resolution cache, published as one object (server thread writes, any thread reads).
+        private volatile Resolved resolved;
+
+        private record Resolved(long version, GameHandle game, CompiledGame.Challenge challenge) {}
+
+        private ChallengeHandle(String gameId, String challengeId) {
+            this.gameId = gameId;
+            this.challengeId = challengeId;
+        }
+
+        public String gameId() {
+            return gameId;
+        }
+
+        public String challengeId() {
+            return challengeId;
+        }
+
+        /** True if the game is loaded and has this challenge right now. */
+        public boolean exists() {
+            return resolve() != null;
+        }
+
+        private Resolved resolve() {
+            long version = BingoRegistry.version();
+            Resolved r = resolved;
+            if (r != null && r.version == version) return r.game == null ? null : r;
+
+            GameHandle game = BingoRegistry.handle(gameId);
+            CompiledGame.Challenge ch = game == null ? null : game.game.challenge(challengeId);
+            r = (ch == null) ? new Resolved(version, null, null) : new Resolved(version, game, ch);
+            resolved = r;
+            return r.game == null ? null : r;
+        }
+    }
+
+    private record Update(UUID playerId, ChallengeHandle handle, int amount) {}
+
+    private static final Queue<Update> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final List<CompletionListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // -----------------
+    // Public API
+    // -----------------
+
+    /** Resolves (lazily) a challenge handle. The game/challenge need not exist yet. */
+    public static ChallengeHandle challenge(String gameId, String challengeId) {
+        if (gameId == null || challengeId == null) throw new IllegalArgumentException("gameId and challengeId are required");
+        return new ChallengeHandle(BingoRegistry.canonicalId(gameId), challengeId.trim());
+    }
+
+    /** Any thread. Applied within the next few ticks; amount <= 0 is ignored. */
+    public static void addProgress(UUID playerId, ChallengeHandle challenge, int amount) {
+        if (playerId == null || challenge == null || amount <= 0) return;
+        QUEUE.add(new Update(playerId, challenge, amount));
+    }
+
+    /** Convenience for one-off calls; prefer keeping a {@link ChallengeHandle}. */
+    public static void addProgress(UUID playerId, String gameId, String challengeId, int amount) {
+        addProgress(playerId, challenge(gameId, challengeId), amount);
+    }
+
+    public static void addListener(CompletionListener listener) {
+        if (listener != null) LISTENERS.add(listener);
+    }
+
+    public static void removeListener(CompletionListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    // -----------------
+    // Internal (server thread)
+    // -----------------
+
+    /** Called every server tick. */
+    static void drain(MinecraftServer server) {
+        if (QUEUE.isEmpty()) return;
+
+        BingoProgressBatch batch = new BingoProgressBatch();
+        Update u;
+        for (int n = 0; n < MAX_PER_TICK && (u = QUEUE.poll()) != null; n++) {
+            ChallengeHandle.Resolved r = u.handle.resolve();
+            if (r == null) continue; // unknown game/challenge: dropped
+            batch.add(u.playerId, r.game, r.challenge.id, u.amount);
+        }
+        BingoMetrics.apiUpdates(batch.apply(server).applied);
+    }
+
+    /** Server stopping: queued updates would otherwise apply to the next world. */
+    static void clear() {
+        QUEUE.clear();
+    }
+
+    static void fireCompleted(UUID playerId, String gameId, String challengeId) {
+        if (LISTENERS.isEmpty()) return;
+        for (CompletionListener l : LISTENERS) {
+            try {
+                l.onChallengeCompleted(playerId, gameId, challengeId);
+            } catch (Exception e) {
+                Cobblemonbingo.LOGGER.error("Bingo completion listener failed", e);
+            }
+        }
+    }
+
+    static void fireBingo(UUID playerId, String gameId) {
+        if (LISTENERS.isEmpty()) return;
+        for (CompletionListener l : LISTENERS) {
+            try {
+                l.onBingo(playerId, gameId);
+            } catch (Exception e) {
+                Cobblemonbingo.LOGGER.error("Bingo completion listener failed", e);
+            }
+        }
+    }
+}
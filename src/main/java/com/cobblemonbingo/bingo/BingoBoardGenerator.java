@@ -0,0 +1,212 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.util.RandomSource;
+
+import java.util.*;
+
+/**
+ * Constraint-aware generator for randomized boards.
+ *
+ * Fills slots row by row, picking by weight among the challenges that keep every constraint
+ * satisfiable, and restarts on a dead end. Gives up once the per-board time budget (or the
+ * attempt cap) is spent; the caller then falls back to the plain weighted board. Seeded games
+ * only use the attempt cap: a wall-clock limit would make the same seed deal different boards
+ * depending on machine load.
+ *
+ * Built once per config load (the pool is flattened into arrays); generate() allocates a few
+ * small per-call scratch arrays plus the result list, so it is safe on any thread.
+ */
+public final class BingoBoardGenerator {
+
+    private static final int MAX_ATTEMPTS = 256;
+    private static final int DEFAULT_BUDGET_MILLIS = 2;
+
+    private final String[] ids;
+    private final int[] weights;
+    private final int[] difficulty;
+    private final int[] category;   // -1 = none
+    private final long[] groupMask; // bit i = member of exclusiveTags group i
+    private final int categoryCount;
+
+    private final int maxLine;      // Integer.MAX_VALUE = unset
+    private final int minLine;      // Integer.MIN_VALUE = unset
+    private final int maxPerCategory;
+    private final int maxDifficulty;
+    private final long budgetNanos; // 0 = attempt cap only (seeded)
+
+    private BingoBoardGenerator(List<BingoConfig.BingoChallenge> pool, BingoConfig.BoardConstraints c, boolean seeded) {
+        int n = pool.size();
+        ids = new String[n];
+        weights = new int[n];
+        difficulty = new int[n];
+        category = new int[n];
+        groupMask = new long[n];
+
+        List<Set<String>> groups = new ArrayList<>();
+        if (c.exclusiveTags != null) {
+            for (List<String> g : c.exclusiveTags) {
+                if (g == null || g.isEmpty() || groups.size() >= 64) continue;
+                Set<String> norm = new HashSet<>();
+                for (String t : g) if (t != null && !t.isBlank()) norm.add(t.trim().toLowerCase(Locale.ROOT));
+                if (!norm.isEmpty()) groups.add(norm);
+            }
+        }
+
+        Map<String, Integer> categories = new HashMap<>();
+        int maxD = 0;
+        for (int i = 0; i < n; i++) {
+            BingoConfig.BingoChallenge ch = pool.get(i);
+            ids[i] = ch.id;
+            weights[i] = Math.max(1, ch.weight == null ? 1 : ch.weight);
+            difficulty[i] = ch.difficulty == null ? 0 : Math.max(0, ch.difficulty);
+            maxD = Math.max(maxD, difficulty[i]);
+
+            if (ch.category != null && !ch.category.isBlank()) {
+                String cat = ch.category.trim().toLowerCase(Locale.ROOT);
+                category[i] = categories.computeIfAbsent(cat, k -> categories.size());
+            } else {
+                category[i] = -1;
+            }
+
+            long mask = 0L;
+            if (ch.tags != null) {
+                for (String t : ch.tags) {
+                    if (t == null || t.isBlank()) continue;
+                    String tag = t.trim().toLowerCase(Locale.ROOT);
+                    for (int g = 0; g < groups.size(); g++) {
+                        if (groups.get(g).contains(tag)) mask |= 1L << g;
+                    }
+                }
+            }
+            groupMask[i] = mask;
+        }
+
+        categoryCount = categories.size();
+        maxDifficulty = maxD;
+        maxLine = c.maxLineDifficulty == null ? Integer.MAX_VALUE : c.maxLineDifficulty;
+        minLine = c.minLineDifficulty == null ? Integer.MIN_VALUE : c.minLineDifficulty;
+        maxPerCategory = (c.maxCategoryPerLine == null || c.maxCategoryPerLine <= 0) ? Integer.MAX_VALUE : c.maxCategoryPerLine;
+        int budget = (c.budgetMillis == null || c.budgetMillis <= 0) ? DEFAULT_BUDGET_MILLIS : c.budgetMillis;
+        budgetNanos = seeded ? 0L : budget * 1_000_000L;
+    }
+
+    /** Returns null if the config has no constraints (plain generation is enough). */
+    public static BingoBoardGenerator forConfig(BingoConfig cfg) {
+        if (cfg == null || !cfg.isRandomized || cfg.constraints == null) return null;
+
+        List<BingoConfig.BingoChallenge> pool = new ArrayList<>();
+        if (cfg.challenges != null) {
+            for (var ch : cfg.challenges) if (ch != null && ch.id != null && !ch.id.isBlank()) pool.add(ch);
+        }
+        if (pool.size() < 25) return null;
+
+        return new BingoBoardGenerator(pool, cfg.constraints, cfg.isSeeded);
+    }
+
+    /** Returns a 25-slot board, or null if no valid board was found within the budget. */
+    public List<String> generate(RandomSource rand) {
+        long deadline = budgetNanos == 0L ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+
+        int n = ids.length;
+        int[] placed = new int[25];
+        boolean[] used = new boolean[n];
+        int[] lineSum = new int[12];                 // 5 rows, 5 cols, 2 diagonals
+        int[] rowCat = new int[5 * Math.max(1, categoryCount)];
+        int[] colCat = new int[5 * Math.max(1, categoryCount)];
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (attempt > 0 && System.nanoTime() > deadline) return null;
+
+            Arrays.fill(used, false);
+            Arrays.fill(lineSum, 0);
+            Arrays.fill(rowCat, 0);
+            Arrays.fill(colCat, 0);
+            long boardGroups = 0L;
+
+            boolean ok = true;
+            for (int slot = 0; slot < 25 && ok; slot++) {
+                int pick = pick(rand, slot, used, lineSum, rowCat, colCat, boardGroups);
+                if (pick < 0) {
+                    ok = false;
+                    break;
+                }
+
+                placed[slot] = pick;
+                used[pick] = true;
+                boardGroups |= groupMask[pick];
+
+                int r = slot / 5, col = slot % 5;
+                int d = difficulty[pick];
+                lineSum[r] += d;
+                lineSum[5 + col] += d;
+                if (r == col) lineSum[10] += d;
+                if (r + col == 4) lineSum[11] += d;
+                if (category[pick] >= 0) {
+                    rowCat[r * categoryCount + category[pick]]++;
+                    colCat[col * categoryCount + category[pick]]++;
+                }
+            }
+            if (!ok) continue;
+
+            List<String> board = new ArrayList<>(25);
+            for (int i = 0; i < 25; i++) board.add(ids[placed[i]]);
+            return board;
+        }
+        return null;
+    }
+
+    private int pick(RandomSource rand, int slot, boolean[] used, int[] lineSum, int[] rowCat, int[] colCat, long boardGroups) {
+        int r = slot / 5, col = slot % 5;
+        boolean onD1 = (r == col), onD2 = (r + col == 4);
+
+        // Slots left in each line after this one (row-major fill).
+        int rowLeft = 4 - col;
+        int colLeft = 4 - r;
+        int d1Left = 4 - r;
+        int d2Left = 4 - r;
+
+        int total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (allowed(i, used, lineSum, rowCat, colCat, boardGroups, r, col, onD1, onD2, rowLeft, colLeft, d1Left, d2Left)) {
+                total += weights[i];
+            }
+        }
+        if (total <= 0) return -1;
+
+        int roll = rand.nextInt(total);
+        int acc = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (!allowed(i, used, lineSum, rowCat, colCat, boardGroups, r, col, onD1, onD2, rowLeft, colLeft, d1Left, d2Left)) continue;
+            acc += weights[i];
+            if (roll < acc) return i;
+        }
+        return -1;
+    }
+
+    private boolean allowed(int i, boolean[] used, int[] lineSum, int[] rowCat, int[] colCat, long boardGroups,
+                            int r, int col, boolean onD1, boolean onD2,
+                            int rowLeft, int colLeft, int d1Left, int d2Left) {
+        if (used[i]) return false;
+        if ((groupMask[i] & boardGroups) != 0L) return false;
+
+        int cat = category[i];
+        if (cat >= 0 && maxPerCategory != Integer.MAX_VALUE) {
+            if (rowCat[r * categoryCount + cat] >= maxPerCategory) return false;
+            if (colCat[col * categoryCount + cat] >= maxPerCategory) return false;
+        }
+
+        int d = difficulty[i];
+        if (!lineOk(lineSum[r] + d, rowLeft)) return false;
+        if (!lineOk(lineSum[5 + col] + d, colLeft)) return false;
+        if (onD1 && !lineOk(lineSum[10] + d, d1Left)) return false;
+        if (onD2 && !lineOk(lineSum[11] + d, d2Left)) return false;
+        return true;
+    }
+
+    // A line stays feasible if it is under the max and can still reach the min with the slots left.
+    private boolean lineOk(int sum, int slotsLeft) {
+        if (sum > maxLine) return false;
+        if (minLine != Integer.MIN_VALUE && sum + slotsLeft * maxDifficulty < minLine) return false;
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.RandomSource;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pre-generates boards for online players off the server thread.
+ *
+ * After a global reset (win with doesResetOnCompletion, resetbingoall, enable, reload) every online
+ * player would otherwise get a fresh board from ensureBoard() inside the same tick handler.
+ * Here the RNG seeds are snapshotted on the server thread, boards are built on a worker thread,
+ * and the finished batch is staged in memory. ensureBoard() takes a staged board when the player
+ * first opens the game or makes qualifying progress, so nobody gets a saved board for a game
+ * they never touch.
+ */
+public final class BingoBoardPregen {
+    private BingoBoardPregen() {}
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Bingo-Board-Pregen");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // gameId -> latest ticket. A newer schedule() for the same game supersedes older batches.
+    private static final Map<String, Integer> TICKETS = new ConcurrentHashMap<>();
+
+    private record Ready(BingoConfig cfg, int epoch, Map<UUID, List<String>> boards) {}
+
+    // gameId -> finished batch waiting to be taken by ensureBoard() (server thread only).
+    private static final Map<String, Ready> READY = new HashMap<>();
+
+    /** Must be called on the server thread. Raw names are resolved once here. */
+    public static void schedule(MinecraftServer server, String gameId) {
+        GameHandle game = BingoRegistry.handle(gameId);
+        if (game != null) schedule(server, game);
+    }
+
+    /** Must be called on the server thread. */
+    public static void schedule(MinecraftServer server, GameHandle game) {
+        if (server == null || game == null) return;
+
+        BingoConfig cfg = game.config;
+        if (!cfg.isActive) return;
+        if (cfg.challenges == null || cfg.challenges.size() < 25) return;
+
+        List<ServerPlayer> online = server.getPlayerList().getPlayers();
+        if (online.isEmpty()) return;
+
+        String gid = game.id;
+        BingoState.GamePartition part = game.partition(BingoState.get(server.overworld()));
+        int epoch = part.epoch();
+
+        // Snapshot RNG state on the server thread; the worker never touches the player.
+        List<UUID> ids = new ArrayList<>(online.size());
+        List<Long> seeds = new ArrayList<>(online.size());
+        // One board per progress owner: online team members share theirs.
+        Set<UUID> seen = new HashSet<>();
+        for (ServerPlayer p : online) {
+            UUID owner = game.game.progressOwner(p.getUUID());
+            if (!seen.add(owner)) continue;
+            List<String> existing = part.getBoard(owner);
+            if (existing != null && existing.size() == 25) continue;
+            ids.add(owner);
+            seeds.add(cfg.isSeeded
+                    ? BingoService.boardSeed(cfg, gid, owner, epoch)
+                    : p.getRandom().nextLong());
+        }
+        if (ids.isEmpty()) return;
+
+        int ticket = TICKETS.merge(gid, 1, Integer::sum);
+
+        WORKER.execute(() -> {
+            Map<UUID, List<String>> generated = new HashMap<>();
+            try {
+                for (int i = 0; i < ids.size(); i++) {
+                    generated.put(ids.get(i), BingoService.createBoard(cfg, RandomSource.create(seeds.get(i))));
+                }
+            } catch (Exception e) {
+                Cobblemonbingo.LOGGER.error("Failed to pre-generate boards for {}", gid, e);
+                return;
+            }
+            server.execute(() -> install(gid, cfg, ticket, epoch, generated));
+        });
+    }
+
+    /** Schedules pre-generation for every loaded game. */
+    public static void scheduleAll(MinecraftServer server) {
+        for (GameHandle game : BingoRegistry.handles()) {
+            schedule(server, game);
+        }
+    }
+
+    private static void install(String gameId, BingoConfig cfg, int ticket, int epoch, Map<UUID, List<String>> generated) {
+        // Superseded by a newer reset, or the config was reloaded/disabled meanwhile.
+        Integer latest = TICKETS.get(gameId);
+        if (latest == null || latest != ticket) return;
+        GameHandle game = BingoRegistry.handle(gameId);
+        if (game == null || game.config != cfg || !cfg.isActive) return;
+
+        // Staged only: a board becomes part of BingoState when ensureBoard() takes it.
+        READY.put(gameId, new Ready(cfg, epoch, generated));
+    }
+
+    /** Server stopping: staged boards belong to that world; in-flight batches are superseded. */
+    static void clear() {
+        TICKETS.replaceAll((gid, ticket) -> ticket + 1);
+        READY.clear();
+    }
+
+    /**
+     * Takes a pre-generated board for this player, or null. Only valid for the same config and
+     * reset epoch it was generated for. Server thread only.
+     */
+    static List<String> take(GameHandle game, UUID playerId, int epoch) {
+        Ready ready = READY.get(game.id);
+        if (ready == null) return null;
+        if (ready.cfg != game.config || ready.epoch != epoch) {
+            READY.remove(game.id);
+            return null;
+        }
+        List<String> board = ready.boards.remove(playerId);
+        if (ready.boards.isEmpty()) READY.remove(game.id);
+        return board;
+    }
+}
@@ -1,17 +1,35 @@
 package com.cobblemonbingo.bingo;
 
+import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.commands.arguments.EntityArgument;
+import net.minecraft.commands.arguments.GameProfileArgument;
+import net.minecraft.commands.arguments.UuidArgument;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.RandomSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class BingoCommand {
     private BingoCommand() {}
 
+    // One /bingo benchboard at a time.
+    private static final AtomicBoolean BENCHBOARD_RUNNING = new AtomicBoolean();
+
     public static void register() {
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
             dispatcher.register(
@@ -34,12 +52,94 @@ public final class BingoCommand {
                             .then(Commands.literal("reload")
                                     .requires(src -> src.hasPermission(2))
                                     .executes(ctx -> {
-                                        BingoRegistry.reload();
-                                        ctx.getSource().sendSuccess(() -> Component.literal("[Bingo] Reloaded configs."), false);
+                                        CommandSourceStack src = ctx.getSource();
+                                        // Parsing runs off-thread; timings and repaired boards are reported as they finish.
+                                        BingoReloader.reloadAsync(src.getServer(), true,
+                                                msg -> src.sendSuccess(() -> Component.literal(msg), false));
                                         return 1;
                                     })
                             )
 
+                            // /bingo benchboard <game> [boards]
+                            .then(Commands.literal("benchboard")
+                                    .requires(src -> src.hasPermission(2))
+                                    .then(Commands.argument("game", StringArgumentType.word())
+                                            .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
+                                            .executes(ctx -> benchBoards(ctx.getSource(), StringArgumentType.getString(ctx, "game"), 100))
+                                            .then(Commands.argument("boards", IntegerArgumentType.integer(1, 1000))
+                                                    .executes(ctx -> benchBoards(
+                                                            ctx.getSource(),
+                                                            StringArgumentType.getString(ctx, "game"),
+                                                            IntegerArgumentType.getInteger(ctx, "boards")
+                                                    ))
+                                            )
+                                    )
+                            )
+
+                            // /bingo top <game> [count]
+                            .then(Commands.literal("top")
+                                    .then(Commands.argument("game", StringArgumentType.word())
+                                            .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
+                                            .executes(ctx -> top(ctx.getSource(), StringArgumentType.getString(ctx, "game"), 10))
+                                            .then(Commands.argument("count", IntegerArgumentType.integer(1, 50))
+                                                    .executes(ctx -> top(
+                                                            ctx.getSource(),
+                                                            StringArgumentType.getString(ctx, "game"),
+                                                            IntegerArgumentType.getInteger(ctx, "count")
+                                                    ))
+                                            )
+                                    )
+                            )
+
+                            // /bingo compact
+                            .then(Commands.literal("compact")
+                                    .requires(src -> src.hasPermission(2))
+                                    .executes(ctx -> compact(ctx.getSource()))
+                            )
+
+                            // /bingo perf [on|off|reset]
+                            .then(Commands.literal("perf")
+                                    .requires(src -> src.hasPermission(2))
+                                    .executes(ctx -> perf(ctx.getSource()))
+                                    .then(Commands.literal("on").executes(ctx -> {
+                                        BingoPerf.setEnabled(true);
+                                        ctx.getSource().sendSuccess(() -> Component.literal("[Bingo] Profiling on (window reset)."), false);
+                                        return 1;
+                                    }))
+                                    .then(Commands.literal("off").executes(ctx -> {
+                                        BingoPerf.setEnabled(false);
+                                        ctx.getSource().sendSuccess(() -> Component.literal("[Bingo] Profiling off."), false);
+                                        return 1;
+                                    }))
+                                    .then(Commands.literal("reset").executes(ctx -> {
+                                        BingoPerf.reset();
+                                        ctx.getSource().sendSuccess(() -> Component.literal("[Bingo] Profiling window reset."), false);
+                                        return 1;
+                                    }))
+                            )
+
+                            // /bingo trace [start [file]|stop]
+                            .then(Commands.literal("trace")
+                                    .requires(src -> src.hasPermission(4))
+                                    .executes(ctx -> {
+                                        final String msg = BingoTrace.status();
+                                        ctx.getSource().sendSuccess(() -> Component.literal(msg), false);
+                                        return BingoTrace.recording ? 1 : 0;
+                                    })
+                                    .then(Commands.literal("start")
+                                            .executes(ctx -> traceStart(ctx.getSource(), null))
+                                            .then(Commands.argument("file", StringArgumentType.word())
+                                                    .executes(ctx -> traceStart(ctx.getSource(), StringArgumentType.getString(ctx, "file"))))
+                                    )
+                                    .then(Commands.literal("stop").executes(ctx -> {
+                                        boolean was = BingoTrace.recording;
+                                        BingoTrace.stop();
+                                        final String msg = was ? "[Bingo] Trace stopped." : "[Bingo] Trace: not recording.";
+                                        ctx.getSource().sendSuccess(() -> Component.literal(msg), false);
+                                        return was ? 1 : 0;
+                                    }))
+                            )
+
                             // /bingo enable <game>
                             .then(Commands.literal("enable")
                                     .requires(src -> src.hasPermission(2))
@@ -47,12 +147,14 @@ public final class BingoCommand {
                                             .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
                                             .executes(ctx -> {
                                                 String game = StringArgumentType.getString(ctx, "game");
-                                                BingoConfig cfg = BingoRegistry.get(game);
-                                                if (cfg == null) {
+                                                GameHandle handle = BingoRegistry.handle(game);
+                                                if (handle == null) {
                                                     ctx.getSource().sendFailure(Component.literal("[Bingo] Unknown game: " + game));
                                                     return 0;
                                                 }
-                                                cfg.isActive = true;
+                                                handle.config.isActive = true;
+                                                BingoTrace.enable(handle.id);
+                                                BingoBoardPregen.schedule(ctx.getSource().getServer(), handle);
                                                 final String msg = "[Bingo] Enabled " + game;
                                                 ctx.getSource().sendSuccess(() -> Component.literal(msg), false);
                                                 return 1;
@@ -67,19 +169,20 @@ public final class BingoCommand {
                                             .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
                                             .executes(ctx -> {
                                                 String game = StringArgumentType.getString(ctx, "game");
-                                                BingoConfig cfg = BingoRegistry.get(game);
-                                                if (cfg == null) {
+                                                GameHandle handle = BingoRegistry.handle(game);
+                                                if (handle == null) {
                                                     ctx.getSource().sendFailure(Component.literal("[Bingo] Unknown game: " + game));
                                                     return 0;
                                                 }
 
-                                                cfg.isActive = false;
+                                                handle.config.isActive = false;
+                                                BingoTrace.disable(handle.id);
 
                                                 BingoState state = BingoState.get(ctx.getSource().getLevel());
-                                                state.resetGameForAllPlayers(game);
+                                                handle.partition(state).resetAll();
 
                                                 for (ServerPlayer p : ctx.getSource().getServer().getPlayerList().getPlayers()) {
-                                                    BingoService.refreshIfOpen(p, game);
+                                                    BingoService.refreshIfOpen(p, handle);
                                                 }
 
                                                 final String msg = "[Bingo] Disabled " + game + " (progress wiped).";
@@ -89,136 +192,99 @@ public final class BingoCommand {
                                     )
                             )
 
-                            // /bingo addprogress <player> <count> <challengeId> [gameId]
+                            // /bingo addprogress <targets> <count> <challengeId> [gameId]
+                            // /bingo addprogress uuid <uuid> <count> <challengeId> [gameId]
                             .then(Commands.literal("addprogress")
                                     .requires(src -> src.hasPermission(2))
-                                    .then(Commands.argument("player", EntityArgument.player())
+                                    // Any UUID, including players the profile cache has never seen.
+                                    .then(Commands.literal("uuid")
+                                            .then(Commands.argument("uuid", UuidArgument.uuid())
+                                                    .then(Commands.argument("count", IntegerArgumentType.integer(1))
+                                                            .then(Commands.argument("challengeId", StringArgumentType.word())
+                                                                    .then(Commands.argument("gameId", StringArgumentType.word())
+                                                                            .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
+                                                                            .executes(ctx -> uuidProgress(ctx.getSource(), "addprogress",
+                                                                                    UuidArgument.getUuid(ctx, "uuid"),
+                                                                                    IntegerArgumentType.getInteger(ctx, "count"),
+                                                                                    StringArgumentType.getString(ctx, "challengeId"),
+                                                                                    StringArgumentType.getString(ctx, "gameId")))
+                                                                    )
+                                                                    .executes(ctx -> uuidProgress(ctx.getSource(), "addprogress",
+                                                                            UuidArgument.getUuid(ctx, "uuid"),
+                                                                            IntegerArgumentType.getInteger(ctx, "count"),
+                                                                            StringArgumentType.getString(ctx, "challengeId"),
+                                                                            null))
+                                                            )
+                                                    )
+                                            )
+                                    )
+                                    .then(Commands.argument("targets", GameProfileArgument.gameProfile())
                                             .then(Commands.argument("count", IntegerArgumentType.integer(1))
                                                     .then(Commands.argument("challengeId", StringArgumentType.word())
 
                                                             // WITH gameId
                                                             .then(Commands.argument("gameId", StringArgumentType.word())
                                                                     .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
-                                                                    .executes(ctx -> {
-                                                                        ServerPlayer target = EntityArgument.getPlayer(ctx, "player");
-                                                                        int count = IntegerArgumentType.getInteger(ctx, "count");
-                                                                        String challengeId = StringArgumentType.getString(ctx, "challengeId");
-                                                                        String gameId = StringArgumentType.getString(ctx, "gameId");
-
-                                                                        boolean changed = BingoService.addAdminProgress(target, gameId, challengeId, count);
-
-                                                                        final String msg = changed
-                                                                                ? "[Bingo] Added " + count + " to " + challengeId + " in " + gameId + " for " + target.getName().getString()
-                                                                                : "[Bingo] No change (wrong id/type, disabled game, already complete, or not on board): " + challengeId + " in " + gameId;
-
-                                                                        ctx.getSource().sendSuccess(() -> Component.literal(msg), false);
-                                                                        return 1;
-                                                                    })
+                                                                    .executes(ctx -> bulkProgress(ctx.getSource(), "addprogress",
+                                                                            GameProfileArgument.getGameProfiles(ctx, "targets"),
+                                                                            IntegerArgumentType.getInteger(ctx, "count"),
+                                                                            StringArgumentType.getString(ctx, "challengeId"),
+                                                                            StringArgumentType.getString(ctx, "gameId")))
                                                             )
 
                                                             // NO gameId => ALL games
-                                                            .executes(ctx -> {
-                                                                ServerPlayer target = EntityArgument.getPlayer(ctx, "player");
-                                                                int count = IntegerArgumentType.getInteger(ctx, "count");
-                                                                String challengeId = StringArgumentType.getString(ctx, "challengeId");
-
-                                                                int attempted = 0;
-                                                                int matchedCustom = 0;
-                                                                int applied = 0;
-
-                                                                for (String gid : BingoRegistry.ids()) {
-                                                                    attempted++;
-
-                                                                    BingoConfig cfg = BingoRegistry.get(gid);
-                                                                    if (cfg == null) continue;
-                                                                    if (!cfg.isActive) continue;
-
-                                                                    BingoConfig.BingoChallenge ch = BingoService.findChallenge(cfg, challengeId);
-                                                                    if (ch == null) continue;
-
-                                                                    matchedCustom++;
-
-                                                                    boolean changed = BingoService.addAdminProgress(target, gid, challengeId, count);
-                                                                    if (changed) applied++;
-                                                                }
-
-                                                                final int attemptedF = attempted;
-                                                                final int matchedF = matchedCustom;
-                                                                final int appliedF = applied;
-                                                                final String msg =
-                                                                        "[Bingo] addprogress " + challengeId +
-                                                                                " matched " + matchedF + "/" + attemptedF +
-                                                                                " active game(s), applied in " + appliedF + ".";
-
-                                                                ctx.getSource().sendSuccess(() -> Component.literal(msg), false);
-                                                                return 1;
-                                                            })
+                                                            .executes(ctx -> bulkProgress(ctx.getSource(), "addprogress",
+                                                                    GameProfileArgument.getGameProfiles(ctx, "targets"),
+                                                                    IntegerArgumentType.getInteger(ctx, "count"),
+                                                                    StringArgumentType.getString(ctx, "challengeId"),
+                                                                    null))
                                                     )
                                             )
                                     )
                             )
 
-                            // /bingo incrementprogress <player> <challengeId> [gameId]
+                            // /bingo incrementprogress <targets> <challengeId> [gameId]
+                            // /bingo incrementprogress uuid <uuid> <challengeId> [gameId]
                             .then(Commands.literal("incrementprogress")
                                     .requires(src -> src.hasPermission(2))
-                                    .then(Commands.argument("player", EntityArgument.player())
+                                    .then(Commands.literal("uuid")
+                                            .then(Commands.argument("uuid", UuidArgument.uuid())
+                                                    .then(Commands.argument("challengeId", StringArgumentType.word())
+                                                            .then(Commands.argument("gameId", StringArgumentType.word())
+                                                                    .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
+                                                                    .executes(ctx -> uuidProgress(ctx.getSource(), "incrementprogress",
+                                                                            UuidArgument.getUuid(ctx, "uuid"),
+                                                                            1,
+                                                                            StringArgumentType.getString(ctx, "challengeId"),
+                                                                            StringArgumentType.getString(ctx, "gameId")))
+                                                            )
+                                                            .executes(ctx -> uuidProgress(ctx.getSource(), "incrementprogress",
+                                                                    UuidArgument.getUuid(ctx, "uuid"),
+                                                                    1,
+                                                                    StringArgumentType.getString(ctx, "challengeId"),
+                                                                    null))
+                                                    )
+                                            )
+                                    )
+                                    .then(Commands.argument("targets", GameProfileArgument.gameProfile())
                                             .then(Commands.argument("challengeId", StringArgumentType.word())
 
                                                     // WITH gameId
                                                     .then(Commands.argument("gameId", StringArgumentType.word())
                                                             .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
-                                                            .executes(ctx -> {
-                                                                ServerPlayer target = EntityArgument.getPlayer(ctx, "player");
-                                                                String challengeId = StringArgumentType.getString(ctx, "challengeId");
-                                                                String gameId = StringArgumentType.getString(ctx, "gameId");
-
-                                                                boolean changed = BingoService.addAdminProgress(target, gameId, challengeId, 1);
-
-                                                                final String msg = changed
-                                                                        ? "[Bingo] Incremented " + challengeId + " in " + gameId + " for " + target.getName().getString()
-                                                                        : "[Bingo] No change (wrong id/type, disabled game, already complete, or not on board): " + challengeId + " in " + gameId;
-
-                                                                ctx.getSource().sendSuccess(() -> Component.literal(msg), false);
-                                                                return 1;
-                                                            })
+                                                            .executes(ctx -> bulkProgress(ctx.getSource(), "incrementprogress",
+                                                                    GameProfileArgument.getGameProfiles(ctx, "targets"),
+                                                                    1,
+                                                                    StringArgumentType.getString(ctx, "challengeId"),
+                                                                    StringArgumentType.getString(ctx, "gameId")))
                                                     )
 
                                                     // NO gameId => ALL games
-                                                    .executes(ctx -> {
-                                                        ServerPlayer target = EntityArgument.getPlayer(ctx, "player");
-                                                        String challengeId = StringArgumentType.getString(ctx, "challengeId");
-
-                                                        int attempted = 0;
-                                                        int matchedCustom = 0;
-                                                        int applied = 0;
-
-                                                        for (String gid : BingoRegistry.ids()) {
-                                                            attempted++;
-
-                                                            BingoConfig cfg = BingoRegistry.get(gid);
-                                                            if (cfg == null) continue;
-                                                            if (!cfg.isActive) continue;
-
-                                                            BingoConfig.BingoChallenge ch = BingoService.findChallenge(cfg, challengeId);
-                                                            if (ch == null) continue;
-
-                                                            matchedCustom++;
-
-                                                            boolean changed = BingoService.addAdminProgress(target, gid, challengeId, 1);
-                                                            if (changed) applied++;
-                                                        }
-
-                                                        final int attemptedF = attempted;
-                                                        final int matchedF = matchedCustom;
-                                                        final int appliedF = applied;
-                                                        final String msg =
-                                                                "[Bingo] incrementprogress " + challengeId +
-                                                                        " matched " + matchedF + "/" + attemptedF +
-                                                                        " active game(s), applied in " + appliedF + ".";
-
-                                                        ctx.getSource().sendSuccess(() -> Component.literal(msg), false);
-                                                        return 1;
-                                                    })
+                                                    .executes(ctx -> bulkProgress(ctx.getSource(), "incrementprogress",
+                                                            GameProfileArgument.getGameProfiles(ctx, "targets"),
+                                                            1,
+                                                            StringArgumentType.getString(ctx, "challengeId"),
+                                                            null))
                                             )
                                     )
                             )
@@ -234,9 +300,11 @@ public final class BingoCommand {
                                                         String gameId = StringArgumentType.getString(ctx, "gameId");
 
                                                         BingoState state = BingoState.get(target.serverLevel());
-                                                        state.resetGameForPlayer(target.getUUID(), gameId);
+                                                        UUID owner = progressOwner(target, gameId);
+                                                        BingoTrace.resetPlayer(target.getUUID(), gameId);
+                                                        state.resetGameForPlayer(owner, gameId);
 
-                                                        BingoService.refreshIfOpen(target, gameId);
+                                                        refreshOwner(target, gameId, owner);
 
                                                         ctx.getSource().sendSuccess(() -> Component.literal("[Bingo] Reset bingo '" + gameId + "' for " + target.getName().getString()), false);
                                                         return 1;
@@ -252,8 +320,14 @@ public final class BingoCommand {
                                             .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(BingoRegistry.ids(), builder))
                                             .executes(ctx -> {
                                                 String gameId = StringArgumentType.getString(ctx, "gameId");
+                                                if (BingoRegistry.handle(gameId) == null) {
+                                                    ctx.getSource().sendFailure(Component.literal("[Bingo] Unknown game: " + gameId));
+                                                    return 0;
+                                                }
                                                 BingoState state = BingoState.get(ctx.getSource().getLevel());
+                                                BingoTrace.resetGame(gameId);
                                                 state.resetGameForAllPlayers(gameId);
+                                                BingoBoardPregen.schedule(ctx.getSource().getServer(), gameId);
 
                                                 for (ServerPlayer p : ctx.getSource().getServer().getPlayerList().getPlayers()) {
                                                     BingoService.refreshIfOpen(p, gameId);
@@ -279,8 +353,10 @@ public final class BingoCommand {
                                                                 String gid = StringArgumentType.getString(ctx, "gameId");
 
                                                                 BingoState state = BingoState.get(target.serverLevel());
-                                                                state.resetChallengeForPlayer(target.getUUID(), cid, gid);
-                                                                BingoService.refreshIfOpen(target, gid);
+                                                                UUID owner = progressOwner(target, gid);
+                                                                BingoTrace.resetChallenge(target.getUUID(), cid, gid);
+                                                                state.resetChallengeForPlayer(owner, cid, gid);
+                                                                refreshOwner(target, gid, owner);
 
                                                                 ctx.getSource().sendSuccess(() -> Component.literal("[Bingo] Reset challenge '" + cid + "' in '" + gid + "' for " + target.getName().getString()), false);
                                                                 return 1;
@@ -292,10 +368,12 @@ public final class BingoCommand {
                                                         String cid = StringArgumentType.getString(ctx, "challengeId");
 
                                                         BingoState state = BingoState.get(target.serverLevel());
-                                                        state.resetChallengeForPlayer(target.getUUID(), cid, null);
-
+                                                        BingoTrace.resetChallenge(target.getUUID(), cid, null);
+                                                        // Per game: a team member's progress lives under a different owner in each game.
                                                         for (String gid : BingoRegistry.ids()) {
-                                                            BingoService.refreshIfOpen(target, gid);
+                                                            UUID owner = progressOwner(target, gid);
+                                                            state.resetChallengeForPlayer(owner, cid, gid);
+                                                            refreshOwner(target, gid, owner);
                                                         }
 
                                                         ctx.getSource().sendSuccess(() -> Component.literal("[Bingo] Reset challenge '" + cid + "' across ALL games for " + target.getName().getString()), false);
@@ -317,6 +395,7 @@ public final class BingoCommand {
                                                         String gid = StringArgumentType.getString(ctx, "gameId");
 
                                                         BingoState state = BingoState.get(ctx.getSource().getLevel());
+                                                        BingoTrace.resetChallengeAll(cid, gid);
                                                         state.resetChallengeForAllPlayers(cid, gid);
 
                                                         for (ServerPlayer p : ctx.getSource().getServer().getPlayerList().getPlayers()) {
@@ -331,6 +410,7 @@ public final class BingoCommand {
                                             .executes(ctx -> {
                                                 String cid = StringArgumentType.getString(ctx, "challengeId");
                                                 BingoState state = BingoState.get(ctx.getSource().getLevel());
+                                                BingoTrace.resetChallengeAll(cid, null);
                                                 state.resetChallengeForAllPlayers(cid, null);
 
                                                 for (ServerPlayer p : ctx.getSource().getServer().getPlayerList().getPlayers()) {
@@ -347,4 +427,204 @@ public final class BingoCommand {
             );
         });
     }
+
+    /**
+     * addprogress / incrementprogress for any number of targets (selectors, names of offline
+     * players known to the server). Applied as one batch; gameId == null => all active games.
+     */
+    private static int bulkProgress(CommandSourceStack src, String verb, Collection<GameProfile> targets,
+                                    int count, String challengeId, String gameId) {
+        List<UUID> ids = new ArrayList<>(targets.size());
+        for (GameProfile profile : targets) ids.add(profile.getId());
+        String who = targets.size() == 1 ? targets.iterator().next().getName() : null;
+        return applyProgress(src, verb, ids, who, count, challengeId, gameId);
+    }
+
+    private static int uuidProgress(CommandSourceStack src, String verb, UUID target,
+                                    int count, String challengeId, String gameId) {
+        return applyProgress(src, verb, List.of(target), target.toString(), count, challengeId, gameId);
+    }
+
+    /** One batch for all targets; who names a single target (null => "N players"). */
+    private static int applyProgress(CommandSourceStack src, String verb, List<UUID> ids, String who,
+                                     int count, String challengeId, String gameId) {
+        for (UUID id : ids) BingoTrace.progress(id, gameId, challengeId, count);
+
+        BingoProgressBatch.Result r = new BingoProgressBatch()
+                .add(ids, gameId, challengeId, count)
+                .apply(src.getServer());
+
+        String where = gameId == null ? "all active games" : gameId;
+        if (who == null) who = r.players + " players";
+        final String msg = r.applied > 0
+                ? "[Bingo] " + verb + " " + challengeId + " (+" + count + ") in " + where + " for " + who
+                        + ": applied " + r.applied + "/" + r.matched + ", completed " + r.completed + "."
+                : "[Bingo] No change (wrong id, disabled game, or already complete): " + challengeId + " in " + where;
+
+        src.sendSuccess(() -> Component.literal(msg), false);
+        return r.applied;
+    }
+
+    /** Leaderboard: best line progress first, then completed squares. Shows the caller's own rank too. */
+    private static int top(CommandSourceStack src, String gameName, int count) {
+        GameHandle game = BingoRegistry.handle(gameName);
+        if (game == null) {
+            src.sendFailure(Component.literal("[Bingo] Unknown game: " + gameName));
+            return 0;
+        }
+
+        BingoLeaderboard board = game.partition(BingoState.get(src.getLevel())).leaderboard();
+        List<BingoLeaderboard.Entry> top = board.top(count);
+
+        StringBuilder sb = new StringBuilder("[Bingo] Top ").append(top.size()).append(" in ").append(game.id)
+                .append(" (").append(board.size()).append(" ranked):");
+        int rank = 0;
+        int lastScore = -1;
+        for (int i = 0; i < top.size(); i++) {
+            BingoLeaderboard.Entry e = top.get(i);
+            if (e.score() != lastScore) {
+                rank = i + 1;
+                lastScore = e.score();
+            }
+            CompiledGame.Team team = game.game.team(e.playerId());
+            sb.append("\n #").append(rank).append(' ').append(team != null ? team.name : playerName(src, e.playerId()))
+                    .append(" - best line ").append(e.bestLine()).append("/5, ")
+                    .append(e.completed()).append(" square(s)");
+        }
+
+        ServerPlayer self = src.getPlayer();
+        if (self != null) {
+            int own = board.rank(game.game.progressOwner(self.getUUID()));
+            sb.append("\n You: ").append(own == 0 ? "unranked" : "#" + own);
+        }
+
+        final String msg = sb.toString();
+        src.sendSuccess(() -> Component.literal(msg), false);
+        return top.size();
+    }
+
+    /** The record a player's progress in a game is stored under (their team's, on a team). */
+    private static UUID progressOwner(ServerPlayer player, String gameId) {
+        GameHandle game = BingoRegistry.handle(gameId);
+        return game == null ? player.getUUID() : game.game.progressOwner(player.getUUID());
+    }
+
+    private static void refreshOwner(ServerPlayer player, String gameId, UUID owner) {
+        GameHandle game = BingoRegistry.handle(gameId);
+        if (game != null) BingoService.refreshOwner(player, game, owner);
+    }
+
+    private static String playerName(CommandSourceStack src, UUID id) {
+        ServerPlayer online = src.getServer().getPlayerList().getPlayer(id);
+        if (online != null) return online.getName().getString();
+        var cache = src.getServer().getProfileCache();
+        if (cache == null) return id.toString();
+        return cache.get(id).map(GameProfile::getName).orElse(id.toString());
+    }
+
+    /** Removes boards that were created but never played. Online players (and their teams) are left alone. */
+    private static int compact(CommandSourceStack src) {
+        BingoState state = BingoState.get(src.getLevel());
+
+        Set<UUID> online = new HashSet<>();
+        for (ServerPlayer p : src.getServer().getPlayerList().getPlayers()) {
+            online.add(p.getUUID());
+            for (GameHandle game : BingoRegistry.handles()) online.add(game.game.progressOwner(p.getUUID()));
+        }
+
+        int removed = 0;
+        int games = 0;
+        for (BingoState.GamePartition part : state.partitions()) {
+            int n = part.compact(online);
+            if (n > 0) games++;
+            removed += n;
+        }
+
+        int total = removed;
+        int touched = games;
+        src.sendSuccess(() -> Component.literal("[Bingo] Compacted " + total + " untouched board(s) across " + touched + " game(s)."), false);
+        return total;
+    }
+
+    /** Trace files go to bingo-traces/ in the server directory; the name defaults to a timestamp. */
+    private static int traceStart(CommandSourceStack src, String name) {
+        if (BingoTrace.recording) {
+            src.sendFailure(Component.literal("[Bingo] Already recording; /bingo trace stop first."));
+            return 0;
+        }
+        if (name == null) {
+            name = "trace-" + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        }
+        if (!name.endsWith(".bin.gz")) name += ".bin.gz";
+        java.nio.file.Path path = src.getServer().getServerDirectory().resolve("bingo-traces").resolve(name);
+        if (!BingoTrace.start(path)) {
+            src.sendFailure(Component.literal("[Bingo] Could not start trace (see server log)."));
+            return 0;
+        }
+        final String msg = "[Bingo] Recording trace to " + path.getFileName() + ".";
+        src.sendSuccess(() -> Component.literal(msg), true);
+        return 1;
+    }
+
+    private static int perf(CommandSourceStack src) {
+        final String msg = BingoPerf.report();
+        src.sendSuccess(() -> Component.literal(msg), false);
+        return BingoPerf.isEnabled() ? 1 : 0;
+    }
+
+    /**
+     * Times board generation for a game with fixed seeds so runs are comparable. Runs on its own
+     * thread (a constrained game can take budgetMillis per board) and reports back on the server
+     * thread. A quick check only; HotPathBench measures the generator properly.
+     */
+    private static int benchBoards(CommandSourceStack src, String game, int boards) {
+        BingoConfig cfg = BingoRegistry.get(game);
+        if (cfg == null) {
+            src.sendFailure(Component.literal("[Bingo] Unknown game: " + game));
+            return 0;
+        }
+        if (cfg.challenges == null || cfg.challenges.size() < 25) {
+            src.sendFailure(Component.literal("[Bingo] " + game + " has fewer than 25 challenges."));
+            return 0;
+        }
+
+        if (!BENCHBOARD_RUNNING.compareAndSet(false, true)) {
+            src.sendFailure(Component.literal("[Bingo] A benchboard run is already in progress."));
+            return 0;
+        }
+
+        BingoBoardGenerator gen = cfg.boardGenerator;
+        MinecraftServer server = src.getServer();
+        Thread worker = new Thread(() -> {
+            try {
+                long total = 0;
+                long worst = 0;
+                int fallbacks = 0;
+
+                for (int i = 0; i < boards; i++) {
+                    RandomSource rand = RandomSource.create(i);
+                    long t0 = System.nanoTime();
+                    if (gen != null) {
+                        if (gen.generate(rand) == null) fallbacks++;
+                    } else {
+                        BingoService.createBoard(cfg, rand);
+                    }
+                    long dt = System.nanoTime() - t0;
+                    total += dt;
+                    worst = Math.max(worst, dt);
+                }
+
+                final String msg = String.format(Locale.ROOT,
+                        "[Bingo] benchboard %s: %d boards (%s), avg %.1fµs, max %.1fµs, fallbacks %d",
+                        game, boards, gen != null ? "constrained" : "weighted",
+                        total / 1000.0 / boards, worst / 1000.0, fallbacks);
+                server.execute(() -> src.sendSuccess(() -> Component.literal(msg), false));
+            } finally {
+                BENCHBOARD_RUNNING.set(false);
+            }
+        }, "Bingo-Benchboard");
+        worker.setDaemon(true);
+        worker.start();
+        return 1;
+    }
 }
\ No newline at end of file
@@ -18,6 +18,21 @@ public final class BingoConfig {
     /** If true, the board is randomized per-player per-game and persisted. */
     public boolean isRandomized = false;
 
+    /**
+     * If true, boards are derived from (boardSeed, player UUID, game reset epoch) instead of
+     * being rolled and saved. The same inputs always give the same board, so nothing is persisted.
+     */
+    public boolean isSeeded = false;
+
+    /** Per-game seed for isSeeded. If null, a stable hash of the game id is used. */
+    public Long boardSeed;
+
+    /**
+     * Lockout: the first player to complete a square claims it, and nobody else can complete
+     * that challenge until the game (or the owner) is reset.
+     */
+    public boolean isLockout = false;
+
     /** If false, no progress is gained, and /bingo open won’t open it. */
     public boolean isActive = true;
 
@@ -45,9 +60,15 @@ public final class BingoConfig {
     /** If true, after completion the game is disabled. */
     public boolean disableOnCompletion = false;
 
-    /** Weighted commands run on completion (choose 1 by weight). */
+    /** Weighted rewards run on completion (choose 1 by weight). */
     public List<WeightedCommand> onCompletion = new ArrayList<>();
 
+    /** Optional teams. Members share one board and one progress record. */
+    public List<TeamDef> teams = new ArrayList<>();
+
+    /** Optional layout constraints for randomized boards. Null => weight-only generation. */
+    public BoardConstraints constraints;
+
     /** Must contain >= 25. */
     public List<BingoChallenge> challenges = new ArrayList<>();
 
@@ -70,6 +91,9 @@ public final class BingoConfig {
     /** True if config contains any "enterarea" challenge. */
     public transient boolean hasEnterAreaChallenges;
 
+    /** Constrained generator built from {@link #constraints}; null when unconstrained. */
+    public transient BingoBoardGenerator boardGenerator;
+
     /** Build runtime caches/indexes after Gson load (safe to call multiple times). */
     public void buildIndexes() {
         challengeById = new HashMap<>();
@@ -78,8 +102,12 @@ public final class BingoConfig {
         hasCatchChallenges = false;
         hasEnterAreaChallenges = false;
 
+        boardGenerator = null;
+
         if (challenges == null) return;
 
+        boardGenerator = BingoBoardGenerator.forConfig(this);
+
         for (BingoChallenge ch : challenges) {
             if (ch == null) continue;
 
@@ -140,9 +168,58 @@ public final class BingoConfig {
         return item;
     }
 
+    public static final class BoardConstraints {
+        /** Max summed challenge difficulty for any row, column or diagonal. */
+        public Integer maxLineDifficulty;
+
+        /** Min summed challenge difficulty for any row, column or diagonal. */
+        public Integer minLineDifficulty;
+
+        /** At most this many challenges of one category per row or column. */
+        public Integer maxCategoryPerLine;
+
+        /**
+         * Each group is a set of tags; a board holds at most one challenge carrying any tag of a
+         * group. Tags are case-insensitive; only the first 64 groups are used.
+         */
+        public List<List<String>> exclusiveTags;
+
+        /**
+         * Time budget per board before falling back to weight-only generation. Default 2.
+         * Ignored by seeded games, which stop after a fixed number of attempts instead.
+         */
+        public Integer budgetMillis;
+    }
+
+    public static final class TeamDef {
+        /** Stable id; the team's progress is stored under a UUID derived from it. */
+        public String id;
+
+        /** Shown in messages and /bingo top. Defaults to the id. */
+        public String name;
+
+        /** Player UUIDs. */
+        public List<String> members = new ArrayList<>();
+    }
+
+    /**
+     * One onCompletion entry. Everything set on the picked entry is granted; an entry with
+     * nothing set is a weighted "no reward" outcome.
+     */
     public static final class WeightedCommand {
         public String command;
         public Integer weight; // default 1
+
+        /** Item id given directly (no command parsing), e.g. "minecraft:diamond". */
+        public String item;
+        public Integer count; // default 1
+
+        /** Experience points / levels. */
+        public Integer xp;
+        public Integer xpLevels;
+
+        /** Cobblemon properties for a Pokémon added to the party, e.g. "pikachu level=10 shiny". */
+        public String pokemon;
     }
 
     public static final class BingoChallenge {
@@ -164,6 +241,11 @@ public final class BingoConfig {
         public Integer weight; // default 1
         public Integer slot;   // 0..24 required when isRandomized==false (ignored when true)
 
+        /** Optional, used by constraints. */
+        public Integer difficulty; // default 0
+        public String category;
+        public List<String> tags;
+
         /** Optional object (varies by type). */
         public Properties properties;
 
@@ -171,6 +253,14 @@ public final class BingoConfig {
             // catch-only
             public List<String> pokemonType;
             public List<String> pokemon;
+            public Boolean shiny;
+            public Integer minLevel;        // inclusive
+            public Integer maxLevel;
+            public List<String> nature;     // any of these, e.g. "adamant"
+            public Integer minPerfectIvs;   // how many IVs must be 31
+            public Integer minIvTotal;      // sum of the six IVs, 0-186
+            public List<String> ball;       // caught with any of these, e.g. "great_ball"
+            public List<String> form;       // form name or aspect, e.g. "alolan"
 
             // collect-only
             public String item;
@@ -182,6 +272,14 @@ public final class BingoConfig {
             // OPTIONAL environment filters (apply to ALL types EXCEPT custom)
             public String dimension;
             public Boolean isRaining;
+            public Boolean isThundering;
+            public List<String> biome;   // any of these biome ids
+            public Integer minTime;      // day time window, 0-23999; wraps past midnight if minTime > maxTime
+            public Integer maxTime;
+            public Integer minY;         // block Y, inclusive
+            public Integer maxY;
+            public Integer minLight;     // light level at the player, 0-15, inclusive
+            public Integer maxLight;
 
             // enterarea-only
             public Integer x;
@@ -3,17 +3,21 @@ package com.cobblemonbingo.bingo;
 import com.cobblemonbingo.Cobblemonbingo;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 import net.fabricmc.loader.api.FabricLoader;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Locale;
 
 public final class BingoConfigManager {
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    // Parsing doesn't need pretty-printing; Gson is thread-safe, so loader threads share this.
+    private static final Gson READER = new Gson();
 
     private static final Path CONFIG_DIR =
             FabricLoader.getInstance().getConfigDir().resolve("bingo");
@@ -45,14 +49,26 @@ public final class BingoConfigManager {
 
     /** Returns null if file doesn't exist or is unreadable. */
     public static BingoConfig loadIfExists(String bingoName) {
-        String safeName = sanitize(bingoName);
+        String safeName = BingoRegistry.canonicalId(bingoName);
         Path file = CONFIG_DIR.resolve(safeName + ".json");
 
         if (!Files.exists(file)) return null;
 
         try {
-            String json = Files.readString(file, StandardCharsets.UTF_8);
-            BingoConfig cfg = GSON.fromJson(json, BingoConfig.class);
+            return parse(Files.readAllBytes(file), file.getFileName().toString());
+        } catch (Exception e) {
+            Cobblemonbingo.LOGGER.error("Failed to read bingo config: {}", file.getFileName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an already-read config file. Returns null (and logs) if it is malformed.
+     * Streams straight from the bytes (no intermediate String) and may run on any thread.
+     */
+    public static BingoConfig parse(byte[] bytes, String fileName) {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+            BingoConfig cfg = READER.fromJson(reader, BingoConfig.class);
             if (cfg == null) return null;
 
             if (cfg.completion == null) cfg.completion = new ArrayList<>();
@@ -67,11 +83,17 @@ public final class BingoConfigManager {
             cfg.buildIndexes();
             return cfg;
         } catch (Exception e) {
-            Cobblemonbingo.LOGGER.error("Failed to read bingo config: {}", file.getFileName(), e);
+            Cobblemonbingo.LOGGER.error("Failed to read bingo config: {}", fileName, e);
             return null;
         }
     }
 
+    /** Compiles a loaded config into the immutable snapshot used by events and the GUI. */
+    public static CompiledGame compile(String bingoName, BingoConfig cfg) {
+        if (cfg == null) return null;
+        return new CompiledGame(BingoRegistry.canonicalId(bingoName), cfg);
+    }
+
     private static BingoConfig createDefault() {
         BingoConfig cfg = new BingoConfig();
         cfg.name = "Default Bingo";
@@ -104,12 +126,4 @@ public final class BingoConfigManager {
 
         return cfg;
     }
-
-    private static String sanitize(String name) {
-        if (name == null || name.isBlank()) return "default";
-        String cleaned = name.trim().toLowerCase(Locale.ROOT);
-        cleaned = cleaned.replaceAll("[^a-z0-9._-]", "_");
-        if (cleaned.length() > 64) cleaned = cleaned.substring(0, 64);
-        return cleaned;
-    }
-}
\ No newline at end of file
+}
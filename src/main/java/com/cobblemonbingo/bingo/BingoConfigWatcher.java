@@ -0,0 +1,102 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.server.MinecraftServer;
+
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config/bingo and hot-reloads games whose files changed.
+ *
+ * Events are debounced (editors often write a file in several steps), then
+ * the registry is re-prepared incrementally on the watcher thread (only files whose mtime/size and
+ * content hash changed are re-parsed) and handed to {@link BingoReloader} to publish and reconcile.
+ */
+public final class BingoConfigWatcher {
+    private BingoConfigWatcher() {}
+
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    private static Thread thread;
+    private static WatchService watcher;
+
+    /** Called on SERVER_STARTED. */
+    public static synchronized void start(MinecraftServer server) {
+        if (thread != null) return;
+
+        Path dir = BingoConfigManager.getConfigDir();
+        try {
+            Files.createDirectories(dir);
+            watcher = dir.getFileSystem().newWatchService();
+            dir.register(watcher,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (Exception e) {
+            Cobblemonbingo.LOGGER.warn("Bingo config hot reload disabled: {}", e.toString());
+            closeQuietly();
+            return;
+        }
+
+        WatchService ws = watcher;
+        thread = new Thread(() -> run(server, ws), "Bingo-Config-Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Called on SERVER_STOPPING. */
+    public static synchronized void stop() {
+        closeQuietly();
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private static void run(MinecraftServer server, WatchService ws) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                boolean relevant = drain(key);
+
+                // Debounce: keep collecting until the directory has been quiet for a moment.
+                WatchKey more;
+                while ((more = ws.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drain(more);
+                }
+                if (!relevant) continue;
+
+                BingoReloader.reloadBlocking(server, false, null);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // stopping
+        } catch (Exception e) {
+            Cobblemonbingo.LOGGER.error("Bingo config watcher stopped", e);
+        }
+    }
+
+    private static boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> ev : key.pollEvents()) {
+            if (ev.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            Object ctx = ev.context();
+            if (ctx instanceof Path p && p.getFileName().toString().endsWith(".json")) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private static void closeQuietly() {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (Exception ignored) {}
+        watcher = null;
+    }
+}
@@ -0,0 +1,229 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.world.item.Items;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Board, progress and line logic for catches, moves and inventory scans, with no server access.
+ *
+ * Callers pass a {@link BingoPlayer} and get told through {@link Effects} which owners changed;
+ * what happens next (menu refreshes, win handling, rewards) is up to them. BingoEvents wires
+ * this to the live server; the simulator in src/jmh drives it with synthetic players.
+ *
+ * Steady state (active games, existing boards, no progress) must not allocate: loops are indexed
+ * rather than iterator-based, and inventory totals go into a caller-owned {@link ItemCounts}.
+ * AllocationCheck in src/jmh enforces this.
+ */
+public final class BingoEngine {
+    private BingoEngine() {}
+
+    /** Reaction to a changed owner. Called once per game per event, after all squares are applied. */
+    public interface Effects {
+        void progressed(GameHandle game, BingoState state, UUID ownerId, boolean completedAny);
+    }
+
+    // -----------------
+    // Events
+    // -----------------
+
+    /** caught is read only; callers extract it once per capture and may reuse it afterwards. */
+    public static void onCatch(BingoState state, List<GameHandle> games, BingoPlayer player,
+                               CatchAttributes caught, Effects fx) {
+        for (int g = 0, gn = games.size(); g < gn; g++) {
+            GameHandle game = games.get(g);
+            if (!game.isActive() || !game.game.hasCatchChallenges) continue;
+
+            // Environment conditions: evaluated once for this player, one mask test per square.
+            long env = game.game.environment(player);
+            BingoState.GamePartition part = game.partition(state);
+            UUID owner = game.game.progressOwner(player.id());
+            List<String> board = BingoService.peekBoard(owner, part);
+            if (board == null) {
+                // No board yet: only create one if this catch counts for the game at all.
+                if (!anyCatchQualifies(game.game, env, player, caught)) continue;
+                board = BingoService.ensureBoard(owner, player.random(), state, game);
+            }
+
+            boolean changedAny = false;
+            boolean completedAny = false;
+
+            for (int i = 0, n = board.size(); i < n; i++) {
+                CompiledGame.Challenge ch = game.game.challenge(board.get(i));
+                if (ch == null || ch.type != CompiledGame.ChallengeType.CATCH) continue;
+                if (part.isLockedFor(owner, ch)) continue;
+
+                if (!ch.environmentMatches(env, player)) continue;
+
+                if (part.isCompleted(owner, ch.id)) continue;
+
+                if (!ch.matchesCatch(caught)) continue;
+
+                int goal = ch.goal;
+                int before = part.getProgress(owner, ch.id);
+                if (before >= goal) continue;
+
+                part.addProgress(owner, ch.id, 1);
+                changedAny = true;
+
+                int after = part.getProgress(owner, ch.id);
+                if (after >= goal) {
+                    completedAny |= part.markCompleted(owner, ch.id);
+                }
+            }
+
+            if (changedAny) fx.progressed(game, state, owner, completedAny);
+        }
+    }
+
+    /** The player is on a new block. "Enter area" is an exact block position match. */
+    public static void onMove(BingoState state, List<GameHandle> games, BingoPlayer player, Effects fx) {
+        int x = player.blockX();
+        int y = player.blockY();
+        int z = player.blockZ();
+
+        for (int g = 0, gn = games.size(); g < gn; g++) {
+            GameHandle game = games.get(g);
+            if (!game.isActive() || !game.game.hasEnterAreaChallenges) continue;
+
+            // Environment conditions: evaluated once for this player, one mask test per square.
+            long env = game.game.environment(player);
+            BingoState.GamePartition part = game.partition(state);
+            UUID owner = game.game.progressOwner(player.id());
+            List<String> board = BingoService.peekBoard(owner, part);
+            if (board == null) {
+                if (!anyAreaQualifies(game.game, env, player, x, y, z)) continue;
+                board = BingoService.ensureBoard(owner, player.random(), state, game);
+            }
+
+            boolean changedAny = false;
+            boolean completedAny = false;
+
+            for (int i = 0, n = board.size(); i < n; i++) {
+                CompiledGame.Challenge ch = game.game.challenge(board.get(i));
+                if (ch == null || !ch.hasArea) continue;
+                if (part.isLockedFor(owner, ch)) continue;
+
+                // env filters apply (non-custom)
+                if (!ch.environmentMatches(env, player)) continue;
+
+                if (part.isCompleted(owner, ch.id)) continue;
+
+                if (ch.isAt(x, y, z)) {
+                    // Complete immediately
+                    part.setProgress(owner, ch.id, ch.goal);
+                    completedAny |= part.markCompleted(owner, ch.id);
+                    changedAny = true;
+                }
+            }
+
+            if (changedAny) fx.progressed(game, state, owner, completedAny);
+        }
+    }
+
+    /**
+     * Collect challenges: one inventory scan, shared by every game. Progress never goes down.
+     * invCounts is scratch space, overwritten with this player's totals.
+     */
+    public static void onInventory(BingoState state, List<GameHandle> games, BingoPlayer player,
+                                   ItemCounts invCounts, Effects fx) {
+        invCounts.fill(player.inventory());
+
+        for (int g = 0, gn = games.size(); g < gn; g++) {
+            GameHandle game = games.get(g);
+            if (!game.isActive() || !game.game.hasCollectChallenges) continue;
+
+            // Environment conditions: evaluated once for this player, one mask test per square.
+            long env = game.game.environment(player);
+            BingoState.GamePartition part = game.partition(state);
+            UUID owner = game.game.progressOwner(player.id());
+            List<String> board = BingoService.peekBoard(owner, part);
+            if (board == null) {
+                if (!anyCollectQualifies(game.game, env, player, invCounts)) continue;
+                board = BingoService.ensureBoard(owner, player.random(), state, game);
+            }
+
+            boolean changedAny = false;
+            boolean completedAny = false;
+
+            for (int i = 0, n = board.size(); i < n; i++) {
+                CompiledGame.Challenge ch = game.game.challenge(board.get(i));
+                if (ch == null || ch.type != CompiledGame.ChallengeType.COLLECT) continue;
+                if (ch.item == Items.AIR) continue;
+                if (part.isLockedFor(owner, ch)) continue;
+
+                if (!ch.environmentMatches(env, player)) continue;
+
+                if (part.isCompleted(owner, ch.id)) continue;
+
+                int goal = ch.goal;
+                int have = invCounts.get(ch.item);
+
+                int prev = part.getProgress(owner, ch.id);
+
+                int clamped = Math.min(goal, Math.max(0, have));
+                int next = Math.max(prev, clamped);
+                if (next == prev) continue;
+
+                part.setProgress(owner, ch.id, next);
+                changedAny = true;
+
+                if (next >= goal) {
+                    completedAny |= part.markCompleted(owner, ch.id);
+                }
+            }
+
+            if (changedAny) fx.progressed(game, state, owner, completedAny);
+        }
+    }
+
+    // -----------------
+    // Lines
+    // -----------------
+
+    /** True if the owner's board has a completed line of an allowed direction. */
+    public static boolean hasWinningLine(GameHandle game, BingoState.GamePartition part, UUID ownerId) {
+        List<String> board = part.getBoard(ownerId);
+        if (board == null || board.size() != 25) return false;
+
+        CompiledGame compiled = game.game;
+        boolean[] done = new boolean[25];
+        for (int i = 0; i < 25; i++) {
+            CompiledGame.Challenge ch = compiled.challenge(board.get(i));
+            done[i] = ch != null && part.isCompleted(ownerId, ch.id);
+        }
+        return BingoService.hasLine(done, compiled.allowHorizontal, compiled.allowVertical, compiled.allowDiagonal);
+    }
+
+    // -----------------
+    // Qualification checks for players without a board (no state access)
+    // -----------------
+
+    private static boolean anyCatchQualifies(CompiledGame game, long env, BingoPlayer player, CatchAttributes caught) {
+        List<CompiledGame.Challenge> list = game.catchChallenges;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            CompiledGame.Challenge ch = list.get(i);
+            if (ch.matchesCatch(caught) && ch.environmentMatches(env, player)) return true;
+        }
+        return false;
+    }
+
+    private static boolean anyAreaQualifies(CompiledGame game, long env, BingoPlayer player, int x, int y, int z) {
+        List<CompiledGame.Challenge> list = game.areaChallenges;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            CompiledGame.Challenge ch = list.get(i);
+            if (ch.isAt(x, y, z) && ch.environmentMatches(env, player)) return true;
+        }
+        return false;
+    }
+
+    private static boolean anyCollectQualifies(CompiledGame game, long env, BingoPlayer player, ItemCounts invCounts) {
+        List<CompiledGame.Challenge> list = game.collectChallenges;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            CompiledGame.Challenge ch = list.get(i);
+            if (invCounts.get(ch.item) > 0 && ch.environmentMatches(env, player)) return true;
+        }
+        return false;
+    }
+}
@@ -2,15 +2,20 @@ package com.cobblemonbingo.bingo;
 
 import com.cobblemon.mod.common.api.events.CobblemonEvents;
 import com.cobblemon.mod.common.api.events.pokemon.PokemonCapturedEvent;
+import com.cobblemon.mod.common.api.pokemon.stats.Stats;
 import com.cobblemon.mod.common.api.types.ElementalType;
+import com.cobblemon.mod.common.entity.pokeball.EmptyPokeBallEntity;
+import com.cobblemon.mod.common.pokeball.PokeBall;
+import com.cobblemon.mod.common.pokemon.FormData;
+import com.cobblemon.mod.common.pokemon.IVs;
+import com.cobblemon.mod.common.pokemon.Nature;
 import com.cobblemon.mod.common.pokemon.Pokemon;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.item.Item;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.Items;
 
 import java.util.*;
 
@@ -19,323 +24,266 @@ public final class BingoEvents {
 
     // Inventory-based collect checks don't need to run every tick.
     private static final int COLLECT_TICK_INTERVAL = 10; // ~0.5s at 20 TPS
-    private static int collectTickCounter = 0;
 
     // Enter-area checks can be frequent but should still be throttled.
     private static final int ENTERAREA_TICK_INTERVAL = 5; // ~0.25s
-    private static int enterAreaTickCounter = 0;
 
-    // Track last known block position to detect "entering" the area (pos change -> now equals target).
-    private static final Map<UUID, BlockPos> LAST_BLOCK_POS = new HashMap<>();
+    // Counters and last block positions live in BingoRuntime (per running server).
+
+    // Catch inputs by identity: species -> normalized id, form -> types/name/aspects, nature and
+    // ball -> id. These are long-lived Cobblemon objects, so after the first catch of each a
+    // capture allocates nothing here. Cleared when the server stops (a datapack reload may leave
+    // a few stale keys).
+    private static final Map<Object, String> SPECIES_IDS = new IdentityHashMap<>();
+    private static final Map<Object, FormInfo> FORMS = new IdentityHashMap<>();
+    private static final Map<Object, String> NATURE_IDS = new IdentityHashMap<>();
+    private static final Map<Object, String> BALL_IDS = new IdentityHashMap<>();
+
+    private record FormInfo(Set<String> types, String name, Set<String> aspects) {}
+
+    private static final Stats[] IV_STATS = {
+            Stats.HP, Stats.ATTACK, Stats.DEFENCE, Stats.SPECIAL_ATTACK, Stats.SPECIAL_DEFENCE, Stats.SPEED
+    };
 
     public static void register() {
 
+        // Items from other mods may register after our init; re-resolve once registries are final.
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> BingoRegistry.recompile());
+
+        // Per-server runtime: cached state, watchers, replication; torn down with the server.
+        ServerLifecycleEvents.SERVER_STARTED.register(BingoRuntime::start);
+        ServerLifecycleEvents.SERVER_STOPPING.register(BingoRuntime::stop);
+
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
+            BingoTrace.join(handler.getPlayer().getUUID());
+            // Rewards held for winners who logged off before they were granted.
+            BingoRewards.onJoin(handler.getPlayer());
+            // Lines completed while offline (bulk progress by UUID).
+            BingoService.checkWinsOnJoin(handler.getPlayer());
+        });
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            BingoTrace.leave(handler.getPlayer().getUUID());
+            BingoRuntime rt = BingoRuntime.of(server);
+            if (rt != null) rt.lastBlockPos.remove(handler.getPlayer().getUUID());
+        });
+
         // Catch challenges
         CobblemonEvents.POKEMON_CAPTURED.subscribe((PokemonCapturedEvent event) -> {
-            ServerPlayer player = event.getPlayer();
-            if (player == null) return;
-
-            String caughtIdRaw = getCaughtPokemonId(event);
-            String caughtNorm = (caughtIdRaw == null) ? null : normalizeSpeciesId(caughtIdRaw);
-            Pokemon pokemon = event.getPokemon();
-            Set<String> caughtTypes = (pokemon == null) ? Set.of() : new HashSet<>(getPokemonTypeNames(pokemon));
-
-            for (String gameId : BingoRegistry.ids()) {
-                BingoConfig cfg = BingoRegistry.get(gameId);
-                if (cfg == null || !cfg.isActive || cfg.challenges == null) continue;
-                if (!cfg.hasCatchChallenges) continue;
-
-                BingoState state = BingoState.get(player.serverLevel());
-                List<String> board = BingoService.ensureBoard(player, state, gameId, cfg);
-
-                boolean changedAny = false;
-                boolean completedAny = false;
-
-                for (String challengeId : board) {
-                    if (challengeId == null || challengeId.isBlank()) continue;
-
-                    BingoConfig.BingoChallenge ch = BingoService.findChallenge(cfg, challengeId);
-                    if (ch == null || ch.id == null || ch.id.isBlank()) continue;
-
-                    if (!"catch".equalsIgnoreCase(ch.type)) continue;
-                    if (ch.properties == null) continue;
-
-                    if (!BingoService.environmentMatches(player, ch)) continue;
-
-                    boolean hasPokemon = ch.properties.pokemon != null && !ch.properties.pokemon.isEmpty();
-                    boolean hasTypes = ch.properties.pokemonType != null && !ch.properties.pokemonType.isEmpty();
-                    if (hasPokemon && hasTypes) continue;
-
-                    int goal = BingoService.goalFor(ch);
-                    String key = BingoState.key(gameId, ch.id);
-                    if (state.isCompleted(player.getUUID(), key)) continue;
-
-                    boolean matched = false;
-
-                    if (hasPokemon) {
-                        if (caughtNorm == null) continue;
-                        for (String entry : ch.properties.pokemon) {
-                            String want = normalizeSpeciesId(entry);
-                            if (want != null && want.equals(caughtNorm)) {
-                                matched = true;
-                                break;
-                            }
-                        }
-                    } else if (hasTypes) {
-                        for (String wantRaw : ch.properties.pokemonType) {
-                            String want = normalizeType(wantRaw);
-                            if (want == null) continue;
-                            if (caughtTypes.contains(want)) {
-                                matched = true;
-                                break;
-                            }
-                        }
-                    } else {
-                        continue;
-                    }
-
-                    if (!matched) continue;
-
-                    int before = state.getProgress(player.getUUID(), key);
-                    if (before >= goal) continue;
-
-                    state.addProgress(player.getUUID(), key, 1);
-                    changedAny = true;
-
-                    int after = state.getProgress(player.getUUID(), key);
-                    if (after >= goal) {
-                        state.markCompleted(player.getUUID(), key);
-                        completedAny = true;
-                    }
-                }
-
-                if (changedAny) {
-                    BingoService.refreshIfOpen(player, gameId);
-                }
-                if (completedAny) {
-                    BingoService.checkAndHandleWin(player.getServer(), player, gameId, cfg, state);
-                }
+            long t = BingoPerf.start();
+            try {
+                onCaptured(event);
+            } finally {
+                BingoPerf.stop(BingoPerf.Section.CATCH, t);
             }
         });
 
         // Collect + EnterArea challenges (tick based)
         ServerTickEvents.END_SERVER_TICK.register((MinecraftServer server) -> {
+            BingoRuntime rt = BingoRuntime.of(server);
+            if (rt == null) return;
+            BingoTrace.tick();
+            long t;
+
+            // Progress from other mods / async integrations (bounded batch)
+            t = BingoPerf.start();
+            BingoApi.drain(server);
+            BingoPerf.stop(BingoPerf.Section.TICK_API, t);
+
+            // Post-reload board repair (time-sliced)
+            t = BingoPerf.start();
+            BingoReloader.tick(server);
+            BingoPerf.stop(BingoPerf.Section.TICK_RELOAD, t);
+
+            // Completion rewards (rate-limited)
+            t = BingoPerf.start();
+            BingoRewards.tick(server);
+            BingoPerf.stop(BingoPerf.Section.TICK_REWARDS, t);
+
+            // Remote progress in, batched local changes out
+            t = BingoPerf.start();
+            BingoReplication.tick(server);
+            BingoPerf.stop(BingoPerf.Section.TICK_REPLICATION, t);
+
+            // Per-game gauges for /metrics (one game per sample)
+            BingoMetrics.tick(server, rt.state());
 
-            // --------------------
             // ENTERAREA (throttled)
-            // --------------------
-            enterAreaTickCounter++;
-            if (enterAreaTickCounter % ENTERAREA_TICK_INTERVAL == 0) {
-                for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-                    BlockPos current = player.blockPosition();
-                    BlockPos last = LAST_BLOCK_POS.put(player.getUUID(), current);
-
-                    // If last == null (first time seen), treat as "entered" if already standing on the target.
-                    // Otherwise require a position change to count as entering.
-                    boolean moved = (last == null) || !last.equals(current);
-
-                    if (!moved) continue;
-
-                    for (String gameId : BingoRegistry.ids()) {
-                        BingoConfig cfg = BingoRegistry.get(gameId);
-                        if (cfg == null || !cfg.isActive || cfg.challenges == null) continue;
-                        if (!cfg.hasEnterAreaChallenges) continue;
-
-                        BingoState state = BingoState.get(player.serverLevel());
-                        List<String> board = BingoService.ensureBoard(player, state, gameId, cfg);
-
-                        boolean changedAny = false;
-                        boolean completedAny = false;
-
-                        for (String challengeId : board) {
-                            if (challengeId == null || challengeId.isBlank()) continue;
-
-                            BingoConfig.BingoChallenge ch = BingoService.findChallenge(cfg, challengeId);
-                            if (ch == null || ch.id == null || ch.id.isBlank()) continue;
-
-                            if (!"enterarea".equalsIgnoreCase(ch.type)) continue;
-                            if (ch.properties == null) continue;
-
-                            // env filters apply (non-custom)
-                            if (!BingoService.environmentMatches(player, ch)) continue;
-
-                            Integer x = ch.properties.x;
-                            Integer y = ch.properties.y;
-                            Integer z = ch.properties.z;
-                            if (x == null || y == null || z == null) continue;
-
-                            String key = BingoState.key(gameId, ch.id);
-                            if (state.isCompleted(player.getUUID(), key)) continue;
-
-                            // "Enter area" is an exact block position match.
-                            if (current.getX() == x && current.getY() == y && current.getZ() == z) {
-                                int goal = BingoService.goalFor(ch);
-                                // Complete immediately
-                                state.setProgress(player.getUUID(), key, goal);
-                                state.markCompleted(player.getUUID(), key);
-
-                                changedAny = true;
-                                completedAny = true;
-                            }
-                        }
-
-                        if (changedAny) {
-                            BingoService.refreshIfOpen(player, gameId);
-                        }
-                        if (completedAny) {
-                            BingoService.checkAndHandleWin(server, player, gameId, cfg, state);
-                        }
-                    }
-                }
+            rt.enterAreaTickCounter++;
+            if (rt.enterAreaTickCounter % ENTERAREA_TICK_INTERVAL == 0) {
+                t = BingoPerf.start();
+                tickEnterArea(server, rt, rt.state());
+                BingoPerf.stop(BingoPerf.Section.TICK_ENTERAREA, t);
             }
 
-            // ----------------
             // COLLECT (throttled)
-            // ----------------
-            collectTickCounter++;
-            if (collectTickCounter % COLLECT_TICK_INTERVAL != 0) return;
-
-            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-
-                Map<Item, Integer> invCounts = buildInventoryCounts(player);
-
-                for (String gameId : BingoRegistry.ids()) {
-                    BingoConfig cfg = BingoRegistry.get(gameId);
-                    if (cfg == null || !cfg.isActive || cfg.challenges == null) continue;
-                    if (!cfg.hasCollectChallenges) continue;
-
-                    BingoState state = BingoState.get(player.serverLevel());
-                    List<String> board = BingoService.ensureBoard(player, state, gameId, cfg);
-
-                    boolean changedAny = false;
-                    boolean completedAny = false;
-
-                    for (String challengeId : board) {
-                        if (challengeId == null || challengeId.isBlank()) continue;
-
-                        BingoConfig.BingoChallenge ch = BingoService.findChallenge(cfg, challengeId);
-                        if (ch == null || ch.id == null || ch.id.isBlank()) continue;
-
-                        if (!"collect".equalsIgnoreCase(ch.type)) continue;
-                        if (ch.properties == null) continue;
-                        if (ch.properties.item == null || ch.properties.item.isBlank()) continue;
-
-                        if (!BingoService.environmentMatches(player, ch)) continue;
-
-                        String key = BingoState.key(gameId, ch.id);
-                        if (state.isCompleted(player.getUUID(), key)) continue;
-
-                        int goal = BingoService.goalFor(ch);
-                        Item wantItem = ch.properties.resolvedCollectItem;
-                        if (wantItem == null) {
-                            wantItem = cfg.resolveItemOrAir(ch.properties.item);
-                            ch.properties.resolvedCollectItem = wantItem;
-                        }
-                        if (wantItem == Items.AIR) continue;
+            rt.collectTickCounter++;
+            if (rt.collectTickCounter % COLLECT_TICK_INTERVAL == 0) {
+                t = BingoPerf.start();
+                tickCollect(server, rt, rt.state());
+                BingoPerf.stop(BingoPerf.Section.TICK_COLLECT, t);
+            }
+        });
+    }
 
-                        int have = invCounts.getOrDefault(wantItem, 0);
+    // -----------------
+    // Handlers
+    // -----------------
 
-                        int prev = state.getProgress(player.getUUID(), key);
+    private static void onCaptured(PokemonCapturedEvent event) {
+        ServerPlayer player = event.getPlayer();
+        if (player == null) return;
+        BingoMetrics.catchEvent();
 
-                        int clamped = Math.min(goal, Math.max(0, have));
-                        int next = Math.max(prev, clamped);
-                        if (next == prev) continue;
+        BingoRuntime rt = BingoRuntime.of(player.getServer());
+        BingoState state = (rt != null) ? rt.state() : BingoState.get(player.serverLevel());
+        ServerBingoPlayer adapter = (rt != null) ? rt.player : new ServerBingoPlayer();
+        // Extracted once, shared by every catch challenge in every game.
+        CatchAttributes caught = extract(event, (rt != null) ? rt.caught : new CatchAttributes());
+        try {
+            adapter.bind(player);
+            BingoTrace.capture(adapter, caught);
+            BingoEngine.onCatch(state, BingoRegistry.handles(), adapter, caught, adapter);
+        } finally {
+            adapter.unbind();
+        }
+    }
 
-                        state.setProgress(player.getUUID(), key, next);
-                        changedAny = true;
+    private static void tickEnterArea(MinecraftServer server, BingoRuntime rt, BingoState state) {
+        BingoMetrics.areaScans(server.getPlayerList().getPlayers().size());
+        List<GameHandle> games = BingoRegistry.handles();
+        ServerBingoPlayer adapter = rt.player;
+        List<ServerPlayer> players = server.getPlayerList().getPlayers();
+        try {
+            for (int i = 0, n = players.size(); i < n; i++) {
+                ServerPlayer player = players.get(i);
+                BlockPos current = player.blockPosition();
+                BlockPos last = rt.lastBlockPos.put(player.getUUID(), current);
 
-                        if (next >= goal) {
-                            state.markCompleted(player.getUUID(), key);
-                            completedAny = true;
-                        }
-                    }
+                // If last == null (first time seen), treat as "entered" if already standing on the target.
+                // Otherwise require a position change to count as entering.
+                boolean moved = (last == null) || !last.equals(current);
 
-                    if (changedAny) {
-                        BingoService.refreshIfOpen(player, gameId);
-                    }
+                if (!moved) continue;
 
-                    if (completedAny) {
-                        BingoService.checkAndHandleWin(server, player, gameId, cfg, state);
-                    }
-                }
+                adapter.bind(player);
+                BingoTrace.move(adapter);
+                BingoEngine.onMove(state, games, adapter, adapter);
             }
-        });
+        } finally {
+            adapter.unbind();
+        }
     }
 
-    private static Map<Item, Integer> buildInventoryCounts(ServerPlayer player) {
-        Map<Item, Integer> out = new HashMap<>();
-        for (ItemStack stack : player.getInventory().items) {
-            if (stack.isEmpty()) continue;
-            Item item = stack.getItem();
-            out.merge(item, stack.getCount(), Integer::sum);
+    /** Collect challenges; one inventory scan per player. */
+    private static void tickCollect(MinecraftServer server, BingoRuntime rt, BingoState state) {
+        BingoMetrics.collectScans(server.getPlayerList().getPlayers().size());
+        List<GameHandle> games = BingoRegistry.handles();
+        ServerBingoPlayer adapter = rt.player;
+        List<ServerPlayer> players = server.getPlayerList().getPlayers();
+        try {
+            for (int i = 0, n = players.size(); i < n; i++) {
+                ServerPlayer player = players.get(i);
+                adapter.bind(player);
+                BingoTrace.inventory(adapter);
+                BingoEngine.onInventory(state, games, adapter, rt.itemCounts, adapter);
+            }
+        } finally {
+            adapter.unbind();
         }
-        return out;
     }
 
-    private static String normalizeType(String s) {
-        if (s == null) return null;
-        String t = s.trim().toLowerCase(Locale.ROOT);
-        return t.isEmpty() ? null : t;
+    /** Forgets cached species, form, nature and ball lookups (server stop). */
+    static void clearCatchCaches() {
+        SPECIES_IDS.clear();
+        FORMS.clear();
+        NATURE_IDS.clear();
+        BALL_IDS.clear();
     }
 
-    private static List<String> getPokemonTypeNames(Pokemon cobblemonPokemon) {
-        List<String> out = new ArrayList<>();
-        var types = cobblemonPokemon.getTypes();
-        for (ElementalType t : types) {
-            out.add(t.getName().toLowerCase(Locale.ROOT));
+    private static CatchAttributes extract(PokemonCapturedEvent event, CatchAttributes out) {
+        out.reset();
+        Pokemon pokemon = event.getPokemon();
+        if (pokemon == null) return out;
+
+        Object species = pokemon.getSpecies();
+        if (species != null) out.species = SPECIES_IDS.computeIfAbsent(species, BingoEvents::speciesId);
+
+        FormData form = pokemon.getForm();
+        FormInfo info = FORMS.get(form);
+        if (info == null) {
+            info = formInfo(pokemon, form);
+            FORMS.put(form, info);
+        }
+        out.types = info.types();
+        out.form = info.name();
+        out.formAspects = info.aspects();
+
+        out.shiny = pokemon.getShiny();
+        out.level = pokemon.getLevel();
+
+        Nature nature = pokemon.getNature();
+        if (nature != null) out.nature = NATURE_IDS.computeIfAbsent(nature, n -> ((Nature) n).getName().toString());
+
+        IVs ivs = pokemon.getIvs();
+        if (ivs != null) {
+            for (Stats stat : IV_STATS) {
+                int v = ivs.getOrDefault(stat);
+                out.ivTotal += v;
+                if (v >= 31) out.perfectIvs++;
+            }
         }
+
+        EmptyPokeBallEntity ballEntity = event.getPokeBallEntity();
+        PokeBall ball = (ballEntity == null) ? null : ballEntity.getPokeBall();
+        if (ball != null) out.ball = BALL_IDS.computeIfAbsent(ball, b -> ((PokeBall) b).getName().toString());
         return out;
     }
 
-    private static String normalizeSpeciesId(String raw) {
-        if (raw == null) return null;
-        String s = raw.trim().toLowerCase(Locale.ROOT);
-        if (s.isEmpty()) return null;
-        if (s.contains(":")) return s;
-        return "cobblemon:" + s;
+    private static FormInfo formInfo(Pokemon cobblemonPokemon, FormData form) {
+        Set<String> types = new HashSet<>();
+        for (ElementalType t : cobblemonPokemon.getTypes()) {
+            types.add(t.getName().toLowerCase(Locale.ROOT));
+        }
+        String name = null;
+        Set<String> aspects = new HashSet<>();
+        if (form != null) {
+            name = CompiledGame.normalizeType(form.getName());
+            for (String a : form.getAspects()) {
+                String n = CompiledGame.normalizeType(a);
+                if (n != null) aspects.add(n);
+            }
+        }
+        return new FormInfo(Set.copyOf(types), name, Set.copyOf(aspects));
     }
 
-    private static String getCaughtPokemonId(PokemonCapturedEvent event) {
-        try {
-            Object pokemon = event.getClass().getMethod("getPokemon").invoke(event);
-            if (pokemon == null) return null;
-
-            Object species = null;
+    /** Normalized species id, or null. Looked up reflectively (the accessor name varies by version). */
+    private static String speciesId(Object species) {
+        Object idObj = null;
+        String[] methods = new String[] {
+                "getResourceLocation",
+                "getResourceIdentifier",
+                "getIdentifier",
+                "getId",
+                "resourceLocation",
+                "resourceIdentifier"
+        };
+
+        for (String m : methods) {
             try {
-                species = pokemon.getClass().getMethod("getSpecies").invoke(pokemon);
+                idObj = species.getClass().getMethod(m).invoke(species);
+                if (idObj != null) break;
             } catch (Exception ignored) {}
+        }
 
-            if (species == null) return null;
-
-            Object idObj = null;
-            String[] methods = new String[] {
-                    "getResourceLocation",
-                    "getResourceIdentifier",
-                    "getIdentifier",
-                    "getId",
-                    "resourceLocation",
-                    "resourceIdentifier"
-            };
-
-            for (String m : methods) {
-                try {
-                    idObj = species.getClass().getMethod(m).invoke(species);
-                    if (idObj != null) break;
-                } catch (Exception ignored) {}
-            }
-
-            if (idObj instanceof net.minecraft.resources.ResourceLocation rl) {
-                return rl.toString();
-            }
-            if (idObj != null) {
-                String s = idObj.toString();
-                return (s == null || s.isBlank()) ? null : s.trim();
-            }
-
-            String s = species.toString();
-            return (s == null || s.isBlank()) ? null : s.trim();
-        } catch (Exception ignored) {}
-
-        return null;
+        String raw;
+        if (idObj instanceof net.minecraft.resources.ResourceLocation rl) {
+            raw = rl.toString();
+        } else if (idObj != null) {
+            raw = idObj.toString();
+        } else {
+            raw = species.toString();
+        }
+        return (raw == null || raw.isBlank()) ? null : CompiledGame.normalizeSpecies(raw.trim());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.world.item.Item;
+
+/** A player's main inventory, slot by slot. Empty slots report AIR and 0. */
+public interface BingoInventory {
+
+    int size();
+
+    Item item(int slot);
+
+    int count(int slot);
+}
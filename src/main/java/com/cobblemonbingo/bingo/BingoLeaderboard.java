@@ -0,0 +1,150 @@
+package com.cobblemonbingo.bingo;
+
+import java.util.*;
+
+/**
+ * Per-game ranking, maintained incrementally by {@link BingoState.GamePartition}.
+ *
+ * A player's score packs (best line progress, completed squares on their board) so that
+ * "closest to a bingo" sorts first. Scores are kept in a Fenwick tree over the small score
+ * range (rank in O(log n)) and a sorted set (top-K in O(log n + K)). Only players with at
+ * least one completed square are tracked. Server thread only.
+ */
+public final class BingoLeaderboard {
+
+    // score = bestLine << 5 | completed; bestLine <= 5, completed <= 25
+    private static final int SHIFT = 5;
+    private static final int BUCKETS = (5 << SHIFT) + 32;
+
+    public record Entry(UUID playerId, int score) {
+        public int bestLine() {
+            return score >>> SHIFT;
+        }
+
+        public int completed() {
+            return score & ((1 << SHIFT) - 1);
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::playerId);
+
+    private final BingoState.GamePartition part;
+    private int[] lines = CompiledGame.ALL_LINES;
+
+    // Built lazily from a full scan the first time it is queried; incremental afterwards.
+    private boolean built;
+    private final Map<UUID, Integer> scores = new HashMap<>();
+    private final TreeSet<Entry> ranked = new TreeSet<>(ORDER);
+    private final int[] fenwick = new int[BUCKETS + 1];
+
+    BingoLeaderboard(BingoState.GamePartition part) {
+        this.part = part;
+    }
+
+    // -----------------
+    // Queries
+    // -----------------
+
+    /** Best K players, best first. */
+    public List<Entry> top(int k) {
+        ensureBuilt();
+        List<Entry> out = new ArrayList<>(Math.min(k, ranked.size()));
+        for (Entry e : ranked) {
+            if (out.size() >= k) break;
+            out.add(e);
+        }
+        return out;
+    }
+
+    /** 1-based rank (ties share a rank), or 0 if the player has no completed squares. */
+    public int rank(UUID playerId) {
+        ensureBuilt();
+        Integer score = scores.get(playerId);
+        if (score == null) return 0;
+        // players with a strictly higher score, + 1
+        return scores.size() - prefix(score) + 1;
+    }
+
+    /** Packed score (see {@link Entry}), 0 if untracked. */
+    public int score(UUID playerId) {
+        ensureBuilt();
+        return scores.getOrDefault(playerId, 0);
+    }
+
+    /** Players with at least one completed square. */
+    public int size() {
+        ensureBuilt();
+        return scores.size();
+    }
+
+    // -----------------
+    // Maintenance (called by GamePartition)
+    // -----------------
+
+    void setLines(int[] lineMasks) {
+        if (Arrays.equals(lines, lineMasks)) return;
+        lines = lineMasks;
+        built = false;
+    }
+
+    void update(UUID playerId) {
+        if (!built) return;
+        set(playerId, part.score(playerId, lines));
+    }
+
+    void remove(UUID playerId) {
+        if (!built) return;
+        set(playerId, 0);
+    }
+
+    void clear() {
+        scores.clear();
+        ranked.clear();
+        Arrays.fill(fenwick, 0);
+        built = true;
+    }
+
+    void invalidate() {
+        built = false;
+    }
+
+    static int pack(int bestLine, int completed) {
+        return (bestLine << SHIFT) | completed;
+    }
+
+    private void ensureBuilt() {
+        if (built) return;
+        clear();
+        for (UUID id : part.players()) {
+            set(id, part.score(id, lines));
+        }
+    }
+
+    private void set(UUID playerId, int score) {
+        Integer old = score > 0 ? scores.put(playerId, score) : scores.remove(playerId);
+        if (old != null && old == score) return;
+
+        if (old != null) {
+            ranked.remove(new Entry(playerId, old));
+            add(old, -1);
+        }
+        if (score > 0) {
+            ranked.add(new Entry(playerId, score));
+            add(score, 1);
+        }
+    }
+
+    // Fenwick tree over score buckets (1-based internally).
+    private void add(int score, int delta) {
+        for (int i = score + 1; i <= BUCKETS; i += i & -i) fenwick[i] += delta;
+    }
+
+    /** Number of tracked players with score <= s. */
+    private int prefix(int score) {
+        int sum = 0;
+        for (int i = score + 1; i > 0; i -= i & -i) sum += fenwick[i];
+        return sum;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cobblemonbingo.bingo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process transport: every instance on the same channel receives what the others send.
+ * For tests and for running two simulated backends in one JVM.
+ */
+public final class BingoLoopbackTransport implements BingoTransport {
+
+    private static final Map<String, List<BingoLoopbackTransport>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private volatile Receiver receiver;
+
+    public BingoLoopbackTransport(String channel) {
+        this.channel = (channel == null || channel.isBlank()) ? "bingo" : channel;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = receiver;
+        List<BingoLoopbackTransport> peers = CHANNELS.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>());
+        for (BingoLoopbackTransport p : peers) {
+            Receiver r = p.receiver;
+            if (r != null) r.onPeerConnected();
+        }
+        peers.add(this);
+        if (peers.size() > 1) receiver.onPeerConnected();
+    }
+
+    @Override
+    public void send(byte[] message) {
+        List<BingoLoopbackTransport> peers = CHANNELS.get(channel);
+        if (peers == null) return;
+        for (BingoLoopbackTransport p : peers) {
+            if (p == this) continue;
+            Receiver r = p.receiver;
+            if (r != null) r.onMessage(message);
+        }
+    }
+
+    @Override
+    public void close() {
+        List<BingoLoopbackTransport> peers = CHANNELS.get(channel);
+        if (peers != null) peers.remove(this);
+        receiver = null;
+    }
+}
@@ -0,0 +1,304 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import com.sun.net.httpserver.HttpServer;
+import net.minecraft.server.MinecraftServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prometheus text-format metrics, served on a local HTTP port or written to a file
+ * (config/bingo-settings.json, "metrics").
+ *
+ * Everything a scrape reads is a LongAdder, a volatile or a concurrent map, so scrapes run on
+ * their own thread and never wait for the server thread. Per-game gauges (records, estimated
+ * memory) are sampled on the server thread, one game every {@link #SAMPLE_INTERVAL_TICKS}.
+ * Section timings come from {@link BingoPerf}. When disabled, every hook is one static read.
+ */
+public final class BingoMetrics {
+    private BingoMetrics() {}
+
+    private static final String PREFIX = "cobblemon_bingo_";
+    private static final int SAMPLE_INTERVAL_TICKS = 20;
+
+    static volatile boolean enabled;
+
+    // Counters
+    private static final LongAdder CATCH_EVENTS = new LongAdder();
+    private static final LongAdder COLLECT_SCANS = new LongAdder();
+    private static final LongAdder AREA_SCANS = new LongAdder();
+    private static final LongAdder API_UPDATES = new LongAdder();
+    private static final LongAdder COMPLETED = new LongAdder();
+    private static final LongAdder WINS = new LongAdder();
+    private static final LongAdder RESETS = new LongAdder();
+    private static final LongAdder RESET_NANOS = new LongAdder();
+    private static final LongAdder SAVES = new LongAdder();
+    private static final LongAdder SAVE_NANOS = new LongAdder();
+
+    private static final LongAdder[] SECTION_CALLS = new LongAdder[BingoPerf.Section.values().length];
+    private static final LongAdder[] SECTION_NANOS = new LongAdder[BingoPerf.Section.values().length];
+
+    static {
+        for (int i = 0; i < SECTION_CALLS.length; i++) {
+            SECTION_CALLS[i] = new LongAdder();
+            SECTION_NANOS[i] = new LongAdder();
+        }
+    }
+
+    // Gauges
+    private static volatile long lastSaveNanos;
+    private static volatile long lastSaveBytes;
+
+    private record Sample(long records, long bytes) {}
+
+    // gameId -> last sample
+    private static final Map<String, Sample> GAMES = new ConcurrentHashMap<>();
+
+    // Sampling cursor (server thread only)
+    private static int tickCounter;
+    private static Iterator<BingoState.GamePartition> cursor;
+    private static final Set<String> SEEN = new HashSet<>();
+
+    private static HttpServer http;
+    private static ExecutorService httpExecutor;
+    private static ScheduledExecutorService fileWriter;
+
+    // -----------------
+    // Lifecycle
+    // -----------------
+
+    /** Called from BingoRuntime on SERVER_STARTED. */
+    static void start(BingoSettings.Metrics cfg) {
+        if (cfg == null || !cfg.enabled) return;
+
+        String mode = cfg.mode == null ? "http" : cfg.mode.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (mode.equals("file")) {
+                Path file = Path.of(cfg.file);
+                fileWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "Bingo-Metrics-File");
+                    t.setDaemon(true);
+                    return t;
+                });
+                int every = Math.max(1, cfg.intervalSeconds);
+                fileWriter.scheduleAtFixedRate(() -> writeFile(file), every, every, TimeUnit.SECONDS);
+                Cobblemonbingo.LOGGER.info("Bingo metrics: writing {} every {}s", file.toAbsolutePath(), every);
+            } else {
+                http = HttpServer.create(new InetSocketAddress(cfg.host, cfg.port), 0);
+                http.createContext("/metrics", exchange -> {
+                    byte[] body = render().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(body);
+                    }
+                });
+                httpExecutor = Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "Bingo-Metrics-Http");
+                    t.setDaemon(true);
+                    return t;
+                });
+                http.setExecutor(httpExecutor);
+                http.start();
+                Cobblemonbingo.LOGGER.info("Bingo metrics: http://{}:{}/metrics", cfg.host, cfg.port);
+            }
+        } catch (Exception e) {
+            Cobblemonbingo.LOGGER.error("Bingo metrics disabled: {}", e.toString());
+            stop();
+            return;
+        }
+        enabled = true;
+    }
+
+    /** Called from BingoRuntime on SERVER_STOPPING. */
+    static void stop() {
+        enabled = false;
+        if (http != null) {
+            http.stop(0);
+            http = null;
+        }
+        // HttpServer.stop() leaves the executor it was given running.
+        if (httpExecutor != null) {
+            httpExecutor.shutdownNow();
+            httpExecutor = null;
+        }
+        if (fileWriter != null) {
+            fileWriter.shutdownNow();
+            fileWriter = null;
+        }
+        GAMES.clear();
+        SEEN.clear();
+        cursor = null;
+    }
+
+    // -----------------
+    // Hooks
+    // -----------------
+
+    static void catchEvent() {
+        if (enabled) CATCH_EVENTS.increment();
+    }
+
+    static void collectScans(int players) {
+        if (enabled) COLLECT_SCANS.add(players);
+    }
+
+    static void areaScans(int players) {
+        if (enabled) AREA_SCANS.add(players);
+    }
+
+    static void apiUpdates(int n) {
+        if (enabled && n > 0) API_UPDATES.add(n);
+    }
+
+    static void completed() {
+        if (enabled) COMPLETED.increment();
+    }
+
+    static void win() {
+        if (enabled) WINS.increment();
+    }
+
+    /** startNanos from {@link #now()}; 0 => disabled when the reset began. */
+    static void reset(long startNanos) {
+        if (startNanos == 0L) return;
+        RESETS.increment();
+        RESET_NANOS.add(System.nanoTime() - startNanos);
+    }
+
+    static void saved(long nanos, long bytes) {
+        SAVES.increment();
+        SAVE_NANOS.add(nanos);
+        lastSaveNanos = nanos;
+        lastSaveBytes = bytes;
+    }
+
+    static void section(BingoPerf.Section section, long nanos) {
+        SECTION_CALLS[section.ordinal()].increment();
+        SECTION_NANOS[section.ordinal()].add(nanos);
+    }
+
+    static long now() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** Server thread: samples one game's record count and memory estimate per interval. */
+    static void tick(MinecraftServer server, BingoState state) {
+        if (!enabled || ++tickCounter % SAMPLE_INTERVAL_TICKS != 0) return;
+
+        if (cursor == null || !cursor.hasNext()) {
+            // Full round done: forget games that no longer have a partition.
+            if (cursor != null) GAMES.keySet().retainAll(SEEN);
+            SEEN.clear();
+            cursor = new ArrayList<>(state.partitions()).iterator();
+            if (!cursor.hasNext()) return;
+        }
+        BingoState.GamePartition part = cursor.next();
+        SEEN.add(part.gameId);
+        GAMES.put(part.gameId, new Sample(part.players().size(), part.estimateBytes()));
+    }
+
+    // -----------------
+    // Exposition
+    // -----------------
+
+    static String render() {
+        StringBuilder sb = new StringBuilder(4096);
+
+        header(sb, "events_total", "counter", "Bingo events processed, by kind (scans count players checked).");
+        line(sb, "events_total", "kind", "catch", CATCH_EVENTS.sum());
+        line(sb, "events_total", "kind", "collect_scan", COLLECT_SCANS.sum());
+        line(sb, "events_total", "kind", "enterarea_scan", AREA_SCANS.sum());
+        line(sb, "events_total", "kind", "api_update", API_UPDATES.sum());
+
+        header(sb, "challenges_completed_total", "counter", "Squares completed.");
+        line(sb, "challenges_completed_total", null, null, COMPLETED.sum());
+
+        header(sb, "wins_total", "counter", "Completed lines that triggered a win.");
+        line(sb, "wins_total", null, null, WINS.sum());
+
+        header(sb, "reset_seconds", "summary", "Time spent resetting games.");
+        line(sb, "reset_seconds_sum", null, null, RESET_NANOS.sum() / 1e9);
+        line(sb, "reset_seconds_count", null, null, RESETS.sum());
+
+        header(sb, "save_seconds", "summary", "Time spent serializing bingo state.");
+        line(sb, "save_seconds_sum", null, null, SAVE_NANOS.sum() / 1e9);
+        line(sb, "save_seconds_count", null, null, SAVES.sum());
+
+        header(sb, "last_save_seconds", "gauge", "Duration of the last save.");
+        line(sb, "last_save_seconds", null, null, lastSaveNanos / 1e9);
+
+        header(sb, "last_save_bytes", "gauge", "Uncompressed NBT size of the last save.");
+        line(sb, "last_save_bytes", null, null, lastSaveBytes);
+
+        Map<String, Sample> games = new TreeMap<>(GAMES);
+        long records = 0;
+        long bytes = 0;
+        header(sb, "players_tracked", "gauge", "Player (or team) records per game.");
+        for (var e : games.entrySet()) {
+            line(sb, "players_tracked", "game", e.getKey(), e.getValue().records);
+            records += e.getValue().records;
+        }
+        header(sb, "state_bytes", "gauge", "Estimated resident memory of bingo state per game.");
+        for (var e : games.entrySet()) {
+            line(sb, "state_bytes", "game", e.getKey(), e.getValue().bytes);
+            bytes += e.getValue().bytes;
+        }
+        header(sb, "players_tracked_total", "gauge", "Player (or team) records across games.");
+        line(sb, "players_tracked_total", null, null, records);
+        header(sb, "state_bytes_total", "gauge", "Estimated resident memory of bingo state.");
+        line(sb, "state_bytes_total", null, null, bytes);
+
+        header(sb, "section_seconds_total", "counter", "Time spent per instrumented section.");
+        long tickNanos = 0;
+        for (BingoPerf.Section s : BingoPerf.Section.values()) {
+            long nanos = SECTION_NANOS[s.ordinal()].sum();
+            line(sb, "section_seconds_total", "section", s.name().toLowerCase(Locale.ROOT), nanos / 1e9);
+            if (s.inEvents) tickNanos += nanos;
+        }
+        header(sb, "section_calls_total", "counter", "Calls per instrumented section.");
+        for (BingoPerf.Section s : BingoPerf.Section.values()) {
+            line(sb, "section_calls_total", "section", s.name().toLowerCase(Locale.ROOT), SECTION_CALLS[s.ordinal()].sum());
+        }
+        header(sb, "events_seconds_total", "counter", "Server-thread time spent in BingoEvents handlers.");
+        line(sb, "events_seconds_total", null, null, tickNanos / 1e9);
+
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void line(StringBuilder sb, String name, String label, String value, double v) {
+        sb.append(PREFIX).append(name);
+        if (label != null) {
+            sb.append('{').append(label).append("=\"")
+                    .append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"}");
+        }
+        sb.append(' ');
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) sb.append((long) v);
+        else sb.append(v);
+        sb.append('\n');
+    }
+
+    private static void writeFile(Path file) {
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, render(), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Cobblemonbingo.LOGGER.warn("Bingo metrics: could not write {}: {}", file, e.toString());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.cobblemonbingo.bingo;
+
+import jdk.jfr.*;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Low-overhead timing of bingo work, shown by /bingo perf and emitted as JFR events.
+ *
+ * Usage: {@code long t = BingoPerf.start(); try { ... } finally { BingoPerf.stop(Section.X, t); }}.
+ * With profiling, metrics and JFR all off, start() is a few static reads and returns 0,
+ * and stop(…, 0) returns immediately. Histograms are log-linear (4 sub-buckets per power of two,
+ * so percentiles are within ~19%) and lock-free; board generation runs on a worker thread.
+ */
+public final class BingoPerf {
+    private BingoPerf() {}
+
+    public enum Section {
+        CATCH("catch event", true),
+        TICK_ENTERAREA("tick: enterarea", true),
+        TICK_COLLECT("tick: collect", true),
+        TICK_API("tick: api drain", true),
+        TICK_RELOAD("tick: reload repair", true),
+        TICK_REWARDS("tick: rewards", true),
+        TICK_REPLICATION("tick: replication", true),
+        BOARD_GEN("board generation", false),
+        GUI_REFRESH("gui refresh", false),
+        WIN_CHECK("win check", false),
+        SAVE("state save", false);
+
+        final String label;
+        /** Top-level BingoEvents handler (nested sections would double count). */
+        final boolean inEvents;
+        final Histogram histogram = new Histogram();
+
+        Section(String label, boolean inEvents) {
+            this.label = label;
+            this.inEvents = inEvents;
+        }
+    }
+
+    @Name("cobblemonbingo.Work")
+    @Label("Bingo Work")
+    @Category("Cobblemon Bingo")
+    @Description("Time spent in one instrumented bingo section")
+    @StackTrace(false)
+    static final class WorkEvent extends Event {
+        @Label("Section")
+        String section;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    // Either flag makes start() take a timestamp.
+    private static volatile boolean profiling;
+    private static volatile boolean jfr;
+    private static volatile long windowStart = System.nanoTime();
+
+    static {
+        try {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder) {
+                    refreshJfr();
+                }
+
+                @Override
+                public void recordingStateChanged(Recording recording) {
+                    refreshJfr();
+                }
+            });
+            // A recording started before this class loaded (-XX:StartFlightRecording) sends no event.
+            refreshJfr();
+        } catch (Throwable ignored) {
+            // JFR not available in this runtime.
+        }
+    }
+
+    private static void refreshJfr() {
+        jfr = FlightRecorder.isInitialized() && FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(r -> r.getState() == RecordingState.RUNNING);
+    }
+
+    public static long start() {
+        return (profiling || jfr || BingoMetrics.enabled) ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Section section, long startNanos) {
+        if (startNanos == 0L) return;
+        long elapsed = System.nanoTime() - startNanos;
+        if (profiling) section.histogram.record(elapsed);
+        if (BingoMetrics.enabled) BingoMetrics.section(section, elapsed);
+        if (jfr) {
+            WorkEvent e = new WorkEvent();
+            if (e.shouldCommit()) {
+                e.section = section.label;
+                e.elapsed = elapsed;
+                e.commit();
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return profiling;
+    }
+
+    public static void setEnabled(boolean on) {
+        if (on && !profiling) reset();
+        profiling = on;
+    }
+
+    public static void reset() {
+        for (Section s : Section.values()) s.histogram.clear();
+        windowStart = System.nanoTime();
+    }
+
+    /** Multi-line report for /bingo perf; sections with no samples are skipped. */
+    public static String report() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - windowStart) / 1e9);
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "[Bingo] Perf over %.1fs (p50 / p99 / max, calls/s):", seconds));
+        boolean any = false;
+        for (Section s : Section.values()) {
+            Histogram h = s.histogram;
+            long n = h.count();
+            if (n == 0) continue;
+            any = true;
+            sb.append(String.format(Locale.ROOT, "\n %s: %s / %s / %s, %.1f/s",
+                    s.label, fmt(h.percentile(0.50)), fmt(h.percentile(0.99)), fmt(h.max()), n / seconds));
+        }
+        if (!any) sb.append("\n (no samples").append(profiling ? ")" : "; profiling is off)");
+        return sb.toString();
+    }
+
+    private static String fmt(long nanos) {
+        if (nanos < 1_000) return nanos + "ns";
+        if (nanos < 1_000_000) return String.format(Locale.ROOT, "%.1fus", nanos / 1e3);
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+    }
+
+    // -----------------
+    // Histogram
+    // -----------------
+
+    static final class Histogram {
+        private static final int SUB_BITS = 2;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = 64 * SUB;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            counts.incrementAndGet(index(nanos));
+            long m;
+            while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) {}
+        }
+
+        long count() {
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+            return n;
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        /** Upper bound of the bucket holding the q-quantile (capped at the observed max). */
+        long percentile(double q) {
+            long total = count();
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) return Math.min(upper(i), max());
+            }
+            return max();
+        }
+
+        void clear() {
+            for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+            max.set(0);
+        }
+
+        private static int index(long v) {
+            if (v < SUB) return (int) v;
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+            return Math.min(BUCKETS - 1, (exp - SUB_BITS + 1) * SUB + sub);
+        }
+
+        private static long upper(int index) {
+            if (index < SUB) return index;
+            int exp = index / SUB + SUB_BITS - 1;
+            int sub = index % SUB;
+            return ((long) (SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+        }
+    }
+}
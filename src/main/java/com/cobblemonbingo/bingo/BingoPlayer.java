@@ -0,0 +1,35 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.UUID;
+
+/**
+ * What {@link BingoEngine} needs to know about a player. In game this is a {@link ServerBingoPlayer}
+ * over a ServerPlayer; the headless simulator supplies synthetic players.
+ */
+public interface BingoPlayer {
+
+    UUID id();
+
+    /** Used to roll a board in randomized, non-seeded games. */
+    RandomSource random();
+
+    int blockX();
+
+    int blockY();
+
+    int blockZ();
+
+    /** Biome at the player's block, or null if it has no registry key. */
+    ResourceKey<Biome> biome();
+
+    /** Light level at the player's block (0-15), sky darkening included. */
+    int light();
+
+    BingoWorld world();
+
+    BingoInventory inventory();
+}
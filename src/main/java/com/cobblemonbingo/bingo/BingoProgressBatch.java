@@ -0,0 +1,175 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.RandomSource;
+
+import java.util.*;
+
+/**
+ * Admin/scripted progress for many players, games and challenges, applied in one pass.
+ *
+ * All changes are written to {@link BingoState} first. Afterwards each affected online player
+ * gets one menu refresh and one win check per game they completed something in, instead of one
+ * per (player, game, challenge). Offline players (by UUID) get their progress immediately and
+ * their win check when they next join.
+ *
+ * Team members' progress goes to the team's record; a team gets one refresh (fanned out to its
+ * online members) and one win check per game, however many members were in the batch.
+ *
+ * Server thread only.
+ */
+public final class BingoProgressBatch {
+
+    /** game != null: already resolved. Otherwise gameId == null => every active game that has the challenge. */
+    private record Entry(UUID playerId, GameHandle game, String gameId, String challengeId, int amount) {}
+
+    public static final class Result {
+        /** Distinct players in the batch. */
+        public int players;
+        /** (player, game) pairs where the challenge exists in an active game. */
+        public int matched;
+        /** Of those, how many actually changed progress. */
+        public int applied;
+        /** Of those, how many completed the challenge. */
+        public int completed;
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    public BingoProgressBatch add(UUID playerId, String gameId, String challengeId, int amount) {
+        if (playerId == null || challengeId == null || amount <= 0) return this;
+        entries.add(new Entry(playerId, null, gameId, challengeId.trim(), amount));
+        return this;
+    }
+
+    /** Pre-resolved variant (BingoApi): no name lookups. */
+    BingoProgressBatch add(UUID playerId, GameHandle game, String challengeId, int amount) {
+        if (playerId == null || game == null || challengeId == null || amount <= 0) return this;
+        entries.add(new Entry(playerId, game, game.id, challengeId, amount));
+        return this;
+    }
+
+    public BingoProgressBatch add(Collection<UUID> playerIds, String gameId, String challengeId, int amount) {
+        for (UUID id : playerIds) add(id, gameId, challengeId, amount);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public Result apply(MinecraftServer server) {
+        Result result = new Result();
+        if (entries.isEmpty()) return result;
+
+        BingoState state = BingoState.get(server.overworld());
+
+        // Resolve each distinct game name once; null => all active games.
+        Map<String, List<GameHandle>> resolved = new HashMap<>();
+        List<GameHandle> allActive = new ArrayList<>();
+        for (GameHandle h : BingoRegistry.handles()) {
+            if (h.isActive()) allActive.add(h);
+        }
+
+        Map<UUID, ServerPlayer> online = new HashMap<>();
+        // progress owner -> (game -> completed something)
+        Map<UUID, Map<GameHandle, Boolean>> affected = new LinkedHashMap<>();
+        // progress owner -> a player who contributed (their win check triggers the owner's)
+        Map<UUID, UUID> trigger = new HashMap<>();
+        Set<UUID> players = new HashSet<>();
+        RandomSource offlineRandom = null;
+        // Lockout claims are visible to everyone viewing the game.
+        Set<GameHandle> lockoutClaims = new LinkedHashSet<>();
+
+        for (Entry e : entries) {
+            players.add(e.playerId);
+
+            List<GameHandle> games;
+            if (e.game != null) {
+                games = e.game.isActive() ? List.of(e.game) : List.of();
+            } else if (e.gameId == null) {
+                games = allActive;
+            } else {
+                games = resolved.computeIfAbsent(e.gameId, k -> {
+                    GameHandle h = BingoRegistry.handle(k);
+                    return (h == null || !h.isActive()) ? List.of() : List.of(h);
+                });
+            }
+            if (games.isEmpty()) continue;
+
+            ServerPlayer player = online.computeIfAbsent(e.playerId, id -> server.getPlayerList().getPlayer(id));
+
+            for (GameHandle game : games) {
+                CompiledGame.Challenge ch = game.game.challenge(e.challengeId);
+                if (ch == null) continue;
+                result.matched++;
+                UUID owner = game.game.progressOwner(e.playerId);
+
+                RandomSource random;
+                if (player != null) {
+                    random = player.getRandom();
+                } else {
+                    if (offlineRandom == null) offlineRandom = RandomSource.create();
+                    random = offlineRandom;
+                }
+                BingoService.ensureBoard(owner, random, state, game);
+
+                BingoState.GamePartition part = game.partition(state);
+                if (part.isCompleted(owner, ch.id)) continue;
+                if (part.isLockedFor(owner, ch)) continue;
+
+                int before = part.getProgress(owner, ch.id);
+                int after = Math.min(ch.goal, before + e.amount);
+                part.setProgress(owner, ch.id, after);
+                result.applied++;
+
+                boolean completedNow = after >= ch.goal && part.markCompleted(owner, ch.id);
+                if (completedNow) {
+                    result.completed++;
+                    if (game.game.lockout) lockoutClaims.add(game);
+                }
+                affected.computeIfAbsent(owner, k -> new LinkedHashMap<>())
+                        .merge(game, completedNow, Boolean::logicalOr);
+                // Prefer an online contributor as the one whose win check runs.
+                if (player != null || !trigger.containsKey(owner)) trigger.put(owner, e.playerId);
+            }
+        }
+        result.players = players.size();
+
+        // Coalesced follow-up: one refresh and at most one win check per (owner, game).
+        for (var pe : affected.entrySet()) {
+            UUID owner = pe.getKey();
+            ServerPlayer player = online.get(trigger.get(owner));
+
+            for (var ge : pe.getValue().entrySet()) {
+                GameHandle game = ge.getKey();
+                if (player != null) {
+                    BingoService.refreshOwner(player, game, owner);
+                } else {
+                    BingoService.refreshOwner(server, game, owner);
+                }
+                if (!ge.getValue()) continue;
+
+                ServerPlayer winner = player != null ? player : onlineMember(server, game, owner);
+                if (winner != null) { // nobody online: checked on join
+                    BingoService.checkAndHandleWin(server, winner, game, state);
+                }
+            }
+        }
+        for (GameHandle game : lockoutClaims) {
+            BingoService.refreshViewers(server, game);
+        }
+        return result;
+    }
+
+    private static ServerPlayer onlineMember(MinecraftServer server, GameHandle game, UUID owner) {
+        CompiledGame.Team team = game.game.team(owner);
+        if (team == null) return null;
+        for (UUID member : team.members) {
+            ServerPlayer p = server.getPlayerList().getPlayer(member);
+            if (p != null) return p;
+        }
+        return null;
+    }
+}
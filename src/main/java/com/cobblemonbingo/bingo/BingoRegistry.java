@@ -4,76 +4,272 @@ import com.cobblemonbingo.Cobblemonbingo;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
 
 public final class BingoRegistry {
 
-    private static volatile Set<String> IDS = Set.of("default");
-    private static final Map<String, BingoConfig> CACHE = new ConcurrentHashMap<>();
+    /**
+     * Everything the registry serves, published with a single volatile write.
+     * Readers grab the reference once and never see a half-built registry.
+     */
+    private static final class Snapshot {
+        final Map<String, GameHandle> byId;
+        final List<GameHandle> handles;
+        final Set<String> ids;
+        // gameId -> what the loaded handle was built from; used to skip unchanged files.
+        final Map<String, FileStamp> stamps;
+        // Bumped on every publish, so cached resolutions (BingoApi handles) know when to re-resolve.
+        final long version = VERSION.incrementAndGet();
+
+        Snapshot(Map<String, GameHandle> byId, Map<String, FileStamp> stamps) {
+            this.byId = Map.copyOf(byId);
+            this.handles = List.copyOf(byId.values());
+            this.ids = byId.isEmpty() ? Set.of("default") : Set.copyOf(byId.keySet());
+            this.stamps = Map.copyOf(stamps);
+        }
+    }
+
+    private record FileStamp(long modified, long size, long crc) {}
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private static volatile Snapshot SNAPSHOT = new Snapshot(Map.of(), Map.of());
 
     private BingoRegistry() {}
 
+    /** Changes whenever a new set of handles is published. */
+    public static long version() {
+        return SNAPSHOT.version;
+    }
+
     public static Set<String> ids() {
-        return IDS;
+        return SNAPSHOT.ids;
     }
 
     public static BingoConfig get(String bingoName) {
+        GameHandle handle = handle(bingoName);
+        return handle == null ? null : handle.config;
+    }
+
+    /** Resolves a raw (user-typed) game name. Sanitizes, so use at command-parse time only. */
+    public static GameHandle handle(String bingoName) {
         if (bingoName == null) return null;
-        String key = sanitize(bingoName);
-        return CACHE.get(key);
+        return SNAPSHOT.byId.get(canonicalId(bingoName));
+    }
+
+    /** All loaded games, in no particular order. Hot paths iterate this instead of ids(). */
+    public static List<GameHandle> handles() {
+        return SNAPSHOT.handles;
+    }
+
+    /**
+     * Re-resolves items/dimensions against the final registries without re-reading files.
+     * Called on server start, since other mods may register items after our init.
+     */
+    public static synchronized void recompile() {
+        Snapshot current = SNAPSHOT;
+        Map<String, GameHandle> next = new HashMap<>();
+        for (GameHandle h : current.handles) {
+            next.put(h.id, new GameHandle(h.id, h.config, BingoConfigManager.compile(h.id, h.config)));
+        }
+        SNAPSHOT = new Snapshot(next, current.stamps);
     }
 
     public static void loadAll() {
-        reload();
+        reload(true);
     }
 
-    public static void reload() {
-        Map<String, BingoConfig> next = new HashMap<>();
-        Set<String> ids = new HashSet<>();
+    /**
+     * Reloads config/bingo and publishes the result in one swap, on the calling thread.
+     * Returns the handles that were added or replaced.
+     */
+    public static List<GameHandle> reload(boolean force) {
+        while (true) {
+            Prepared prepared = prepare(force);
+            if (prepared == null) return List.of();
+            if (publish(prepared)) return prepared.changed;
+        }
+    }
+
+    /** A fully parsed and compiled registry, not yet visible to readers. */
+    public static final class Prepared {
+        private final Snapshot base;
+        private final Snapshot next;
+        /** Added or replaced games. */
+        public final List<GameHandle> changed;
+        /** Files read from disk (the rest were skipped by mtime/size). */
+        public final int filesRead;
+        private final boolean logIds;
+
+        private Prepared(Snapshot base, Snapshot next, List<GameHandle> changed, int filesRead, boolean logIds) {
+            this.base = base;
+            this.next = next;
+            this.changed = List.copyOf(changed);
+            this.filesRead = filesRead;
+            this.logIds = logIds;
+        }
+
+        public int gameCount() {
+            return next.handles.size();
+        }
+    }
+
+    /**
+     * Reads, parses and compiles config/bingo without publishing anything. Safe off the server thread.
+     *
+     * Files whose mtime and size are unchanged are not opened (unless force), and files whose
+     * content hash is unchanged are not re-parsed; their existing handle (including any runtime
+     * enable/disable) carries over. A file that fails to parse keeps its last good version.
+     * Returns null if the directory could not be listed.
+     */
+    public static synchronized Prepared prepare(boolean force) {
+        Snapshot current = SNAPSHOT;
+        Map<String, GameHandle> next = new HashMap<>();
+        Map<String, FileStamp> stamps = new HashMap<>();
+        List<GameHandle> changed = new ArrayList<>();
+        int filesRead = 0;
 
         Path dir = BingoConfigManager.getConfigDir();
         try {
-            if (!Files.exists(dir)) {
-                IDS = Set.of("default");
-                CACHE.clear();
-                return;
+            // Stat every file on this thread (cheap); only the ones that may have changed get loaded.
+            List<Candidate> toLoad = new ArrayList<>();
+            if (Files.exists(dir)) {
+                try (var stream = Files.list(dir)) {
+                    for (Path p : (Iterable<Path>) stream::iterator) {
+                        String file = p.getFileName().toString();
+                        if (!file.endsWith(".json")) continue;
+
+                        String id = canonicalId(file.substring(0, file.length() - 5)); // remove .json
+                        GameHandle old = current.byId.get(id);
+                        FileStamp oldStamp = current.stamps.get(id);
+
+                        BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+                        long modified = attrs.lastModifiedTime().toMillis();
+                        if (!force && old != null && oldStamp != null
+                                && oldStamp.modified == modified && oldStamp.size == attrs.size()) {
+                            next.put(id, old);
+                            stamps.put(id, oldStamp);
+                            continue;
+                        }
+                        // Even when forced, the old handle stays the fallback for a broken file.
+                        toLoad.add(new Candidate(id, p, modified, old, oldStamp));
+                    }
+                }
             }
 
-            try (var stream = Files.list(dir)) {
-                stream
-                        .filter(p -> p.getFileName().toString().endsWith(".json"))
-                        .forEach(p -> {
-                            String file = p.getFileName().toString();
-                            String id = file.substring(0, file.length() - 5); // remove .json
-                            BingoConfig cfg = BingoConfigManager.loadIfExists(id);
-                            if (cfg != null) {
-                                // Safety: ensure runtime indexes exist even if loaded elsewhere.
-                                cfg.buildIndexes();
-                                ids.add(id);
-                                next.put(id, cfg);
-                            }
-                        });
+            // Read, parse, index and compile each file independently; games don't share state.
+            List<Loaded> loaded = toLoad.size() <= 1
+                    ? toLoad.stream().map(BingoRegistry::load).toList()
+                    : toLoad.parallelStream().map(BingoRegistry::load).toList();
+
+            for (Loaded l : loaded) {
+                if (l.stamp == null) continue; // unreadable
+                filesRead++;
+                if (l.handle == null) continue;
+                next.put(l.handle.id, l.handle);
+                stamps.put(l.handle.id, l.stamp);
+                if (l.fresh) changed.add(l.handle);
             }
+        } catch (Exception e) {
+            Cobblemonbingo.LOGGER.error("Failed to load bingo configs", e);
+            return null;
+        }
 
-            if (ids.isEmpty()) ids.add("default");
+        boolean removed = !next.keySet().containsAll(current.byId.keySet());
+        return new Prepared(current, new Snapshot(next, stamps), changed, filesRead,
+                force || removed || !changed.isEmpty());
+    }
+
+    /** A file that may have changed. old/oldStamp are null for a new game. */
+    private record Candidate(String id, Path path, long modified, GameHandle old, FileStamp oldStamp) {}
 
-            CACHE.clear();
-            CACHE.putAll(next);
-            IDS = Collections.unmodifiableSet(ids);
+    /** handle == null: nothing to serve. fresh: handle was parsed now (vs. carried over). */
+    private record Loaded(GameHandle handle, FileStamp stamp, boolean fresh) {}
 
-            Cobblemonbingo.LOGGER.info("Loaded bingo games: {}", IDS);
+    /** Runs on loader threads. */
+    private static Loaded load(Candidate c) {
+        String file = c.path.getFileName().toString();
+        long t0 = System.nanoTime();
 
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(c.path);
         } catch (Exception e) {
-            Cobblemonbingo.LOGGER.error("Failed to load bingo configs", e);
+            Cobblemonbingo.LOGGER.error("Failed to read bingo config: {}", file, e);
+            return new Loaded(c.old, c.oldStamp, false);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        FileStamp stamp = new FileStamp(c.modified, bytes.length, crc.getValue());
+
+        if (c.old != null && c.oldStamp != null && c.oldStamp.crc == stamp.crc) {
+            // Touched but not edited.
+            return new Loaded(c.old, stamp, false);
+        }
+        long t1 = System.nanoTime();
+
+        BingoConfig cfg = BingoConfigManager.parse(bytes, file);
+        if (cfg == null) {
+            // Keep serving the last good version while the file is broken.
+            return new Loaded(c.old, stamp, false);
+        }
+        long t2 = System.nanoTime();
+
+        GameHandle handle = new GameHandle(c.id, cfg, BingoConfigManager.compile(c.id, cfg));
+        long t3 = System.nanoTime();
+
+        Cobblemonbingo.LOGGER.info("Loaded bingo config {} ({} challenges, {} KB) in {} ms [read {} / parse+index {} / compile {}]",
+                file, handle.game.challenges.size(), (bytes.length + 1023) / 1024,
+                millis(t3 - t0), millis(t1 - t0), millis(t2 - t1), millis(t3 - t2));
+        return new Loaded(handle, stamp, true);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Makes a prepared registry visible in one swap. Returns false (and publishes nothing) if
+     * another reload or recompile was published since it was prepared; the caller should re-prepare.
+     */
+    public static synchronized boolean publish(Prepared prepared) {
+        if (SNAPSHOT != prepared.base) return false;
+        SNAPSHOT = prepared.next;
+        if (prepared.logIds) {
+            Cobblemonbingo.LOGGER.info("Loaded bingo games: {}", SNAPSHOT.ids);
         }
+        return true;
     }
 
-    private static String sanitize(String name) {
+    /**
+     * The one game-id sanitizer: lowercase, [a-z0-9._-] only, max 64 chars.
+     * Already-canonical ids (the common case) are returned as-is without allocating.
+     */
+    public static String canonicalId(String name) {
         if (name == null || name.isBlank()) return "default";
+        if (isCanonical(name)) return name;
+
         String cleaned = name.trim().toLowerCase(Locale.ROOT);
-        cleaned = cleaned.replaceAll("[^a-z0-9._-]", "_");
-        if (cleaned.length() > 64) cleaned = cleaned.substring(0, 64);
-        return cleaned;
+        StringBuilder sb = new StringBuilder(Math.min(cleaned.length(), 64));
+        for (int i = 0; i < cleaned.length() && sb.length() < 64; i++) {
+            char c = cleaned.charAt(i);
+            sb.append(isIdChar(c) ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    private static boolean isCanonical(String s) {
+        if (s.length() > 64) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (!isIdChar(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isIdChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '_' || c == '-';
     }
-}
\ No newline at end of file
+}
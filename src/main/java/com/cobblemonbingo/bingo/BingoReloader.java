@@ -0,0 +1,232 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.RandomSource;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Reloads configs off the server thread and reconciles stored boards afterwards.
+ *
+ * Files are read, parsed and compiled on a worker; the finished registry is published from the
+ * server thread in one step. Boards of changed games that reference challenge ids which no longer
+ * exist are then repaired (stale squares swapped for unused challenges) or regenerated, a few
+ * players at a time, within a per-tick time budget.
+ */
+public final class BingoReloader {
+    private BingoReloader() {}
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Bingo-Reload");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Server-thread time spent on reconciliation per tick.
+    private static final long RECONCILE_BUDGET_NANOS = 1_000_000L; // 1 ms
+
+    // Pending reconciliation runs (server thread only).
+    private static final ArrayDeque<Run> RUNS = new ArrayDeque<>();
+
+    /** Reload triggered from the server thread; parsing happens on the worker. */
+    public static void reloadAsync(MinecraftServer server, boolean force, Consumer<String> report) {
+        WORKER.execute(() -> reloadBlocking(server, force, report));
+    }
+
+    /** Parses on the calling (non-server) thread, then applies on the server thread. */
+    static void reloadBlocking(MinecraftServer server, boolean force, Consumer<String> report) {
+        long start = System.nanoTime();
+        BingoRegistry.Prepared prepared = BingoRegistry.prepare(force);
+        long parseNanos = System.nanoTime() - start;
+
+        if (prepared == null) {
+            if (report != null) server.execute(() -> report.accept("[Bingo] Reload failed; see server log."));
+            return;
+        }
+
+        server.execute(() -> {
+            long applyStart = System.nanoTime();
+            if (!BingoRegistry.publish(prepared)) {
+                // Another reload landed first; re-read against the new registry.
+                WORKER.execute(() -> reloadBlocking(server, force, report));
+                return;
+            }
+
+            BingoRewards.prepare(server, prepared.changed);
+
+            Run run = new Run(report, prepared.changed);
+            BingoState state = BingoState.get(server.overworld());
+            for (GameHandle game : prepared.changed) {
+                // Seeded boards were dealt from the old pool (or the game is no longer seeded):
+                // forget them now, before anyone reads one against the new version.
+                run.regenerated += game.partition(state).dropDerivedBoards();
+                BingoBoardPregen.schedule(server, game);
+            }
+            long applyNanos = System.nanoTime() - applyStart;
+
+            if (report != null) {
+                report.accept(String.format(Locale.ROOT,
+                        "[Bingo] Reloaded %d game(s), %d changed, %d file(s) read (parse %.1f ms off-thread, apply %.2f ms).",
+                        prepared.gameCount(), prepared.changed.size(), prepared.filesRead,
+                        parseNanos / 1_000_000.0, applyNanos / 1_000_000.0));
+            }
+            if (!prepared.changed.isEmpty()) RUNS.add(run);
+        });
+    }
+
+    /** Drops pending reconciliation (server stopping). */
+    public static void cancel() {
+        RUNS.clear();
+    }
+
+    /** Called every server tick; does at most RECONCILE_BUDGET_NANOS of work. */
+    public static void tick(MinecraftServer server) {
+        if (RUNS.isEmpty()) return;
+
+        long deadline = System.nanoTime() + RECONCILE_BUDGET_NANOS;
+        BingoState state = BingoState.get(server.overworld());
+
+        while (!RUNS.isEmpty()) {
+            Run run = RUNS.peek();
+            run.ticks++;
+            boolean done = run.step(server, state, deadline);
+            if (!done) return; // out of budget; continue next tick
+
+            RUNS.poll();
+            if (run.report != null) {
+                run.report.accept(String.format(Locale.ROOT,
+                        "[Bingo] Board reconciliation: %d checked, %d repaired, %d regenerated (%d tick(s), %.2f ms).",
+                        run.checked, run.repaired, run.regenerated, run.ticks, run.workNanos / 1_000_000.0));
+            }
+            if (run.repaired + run.regenerated > 0) {
+                Cobblemonbingo.LOGGER.info("Bingo board reconciliation: {} repaired, {} regenerated",
+                        run.repaired, run.regenerated);
+            }
+            if (System.nanoTime() >= deadline) return;
+        }
+    }
+
+    /** Reconciliation of one reload's changed games. */
+    private static final class Run {
+        final Consumer<String> report;
+        final ArrayDeque<GameHandle> games;
+        final RandomSource random = RandomSource.create();
+
+        GameHandle current;
+        Iterator<UUID> players;
+
+        int checked;
+        int repaired;
+        int regenerated;
+        int ticks;
+        long workNanos;
+
+        Run(Consumer<String> report, List<GameHandle> changed) {
+            this.report = report;
+            this.games = new ArrayDeque<>(changed);
+        }
+
+        /** Returns true when every game in this run has been reconciled. */
+        boolean step(MinecraftServer server, BingoState state, long deadline) {
+            long start = System.nanoTime();
+            try {
+                while (true) {
+                    if (players == null) {
+                        current = games.poll();
+                        if (current == null) return true;
+                        // Superseded by a later reload; that run reconciles the newer version.
+                        if (BingoRegistry.handle(current.id) != current) {
+                            current = null;
+                            continue;
+                        }
+
+                        BingoState.GamePartition part = current.partition(state);
+                        if (current.config.isSeeded) {
+                            // Seeded boards are never stored and were dropped on publish; viewers re-derive.
+                            refreshOnline(server, current);
+                            current = null;
+                            continue;
+                        }
+                        players = new ArrayList<>(part.players()).iterator();
+                    }
+
+                    while (players.hasNext()) {
+                        if (System.nanoTime() >= deadline) return false;
+                        reconcile(server, state, current, players.next());
+                    }
+                    players = null;
+                    current = null;
+                }
+            } finally {
+                workNanos += System.nanoTime() - start;
+            }
+        }
+
+        private void reconcile(MinecraftServer server, BingoState state, GameHandle game, UUID playerId) {
+            BingoState.GamePartition part = game.partition(state);
+            List<String> board = part.getBoard(playerId);
+            if (board == null) return;
+            checked++;
+
+            boolean[] stale = new boolean[25];
+            int staleCount = 0;
+            Set<String> onBoard = new HashSet<>();
+            if (board.size() == 25) {
+                for (int i = 0; i < 25; i++) {
+                    String id = board.get(i);
+                    // Empty squares are legitimate (fixed boards with unfilled slots).
+                    if (id == null || id.isEmpty()) continue;
+                    if (game.game.challenge(id) == null) {
+                        stale[i] = true;
+                        staleCount++;
+                    } else {
+                        onBoard.add(id);
+                    }
+                }
+                if (staleCount == 0) return;
+            }
+
+            List<String> fixed = null;
+            if (board.size() == 25 && game.config.isRandomized) {
+                fixed = repair(game, board, stale, onBoard);
+            }
+
+            if (fixed != null) {
+                repaired++;
+            } else {
+                fixed = BingoService.createBoard(game.config, random);
+                regenerated++;
+            }
+            part.setBoard(playerId, fixed);
+
+            BingoService.refreshOwner(server, game, playerId);
+        }
+
+        /** Swaps stale squares for random unused challenges, keeping the rest in place. Null if the pool is too small. */
+        private List<String> repair(GameHandle game, List<String> board, boolean[] stale, Set<String> onBoard) {
+            List<String> unused = new ArrayList<>();
+            for (CompiledGame.Challenge ch : game.game.challenges) {
+                if (!onBoard.contains(ch.source.id)) unused.add(ch.source.id);
+            }
+
+            List<String> out = new ArrayList<>(board);
+            for (int i = 0; i < 25; i++) {
+                if (!stale[i]) continue;
+                if (unused.isEmpty()) return null;
+                out.set(i, unused.remove(random.nextInt(unused.size())));
+            }
+            return out;
+        }
+
+        private static void refreshOnline(MinecraftServer server, GameHandle game) {
+            for (ServerPlayer p : server.getPlayerList().getPlayers()) {
+                BingoService.refreshIfOpen(p, game);
+            }
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.server.MinecraftServer;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Shares bingo progress between backends behind one proxy (config/bingo-settings.json).
+ *
+ * {@link BingoState} reports every change as a small delta (owner, game, challenge, value,
+ * completion bit; boards, reward claims and resets too). Deltas are coalesced per key and sent
+ * as one batch every flush interval, so a burst of catches costs one message. Incoming batches
+ * are queued by the transport and merged on the server thread:
+ * <ul>
+ *   <li>deltas from an older game epoch are dropped; a newer epoch resets the game locally first</li>
+ *   <li>progress merges as max, completion as OR (both only grow between resets)</li>
+ *   <li>a delta older (Lamport clock) than a reset of the same record is dropped, and a reset
+ *       only clears records older than itself</li>
+ *   <li>concurrent boards for one owner, and concurrent claims of one lockout square: the
+ *       earliest (clock, server id) wins everywhere</li>
+ * </ul>
+ * When a peer (re)connects, the known reset tombstones are re-sent, then every stored record
+ * with the clock it was last modified at; merging is idempotent, so this is the whole catch-up
+ * protocol. The clock is saved with the state. Record stamps and tombstones are memory only:
+ * records loaded from disk count as modified at the saved clock.
+ *
+ * Disabled by default; when off, the hooks in BingoState cost one static field read.
+ */
+public final class BingoReplication {
+    private BingoReplication() {}
+
+    private static final int MAGIC = 0x42494E47; // "BING"
+    private static final byte WIRE_VERSION = 2;
+    // Deltas per message (catch-up of a large state is split).
+    private static final int MAX_BATCH = 4096;
+    // Reset tombstones kept; beyond this the oldest are dropped.
+    private static final int MAX_TOMBSTONES = 16384;
+    // Stamps of records that no longer exist (compacted players) are dropped this often.
+    private static final int PRUNE_INTERVAL_TICKS = 6000;
+
+    private static final byte PROGRESS = 0;
+    private static final byte BOARD = 1;
+    private static final byte CLAIM = 2;
+    private static final byte RESET_CHALLENGE = 3;
+    private static final byte RESET_PLAYER = 4;
+    private static final byte RESET_GAME = 5;
+
+    /** Coalescing / merge key. challengeId is null for whole-record kinds. */
+    private record Key(byte kind, String gameId, UUID playerId, String challengeId) {}
+
+    private record Delta(byte kind, long clock, String gameId, int epoch, UUID playerId,
+                         String challengeId, int value, boolean completed, List<String> board) {
+
+        Key key() {
+            return new Key(kind, gameId, playerId, challengeId);
+        }
+    }
+
+    /** Record version: earliest wins for boards and lockout squares, server id breaks ties. */
+    private record Stamp(long clock, String serverId) implements Comparable<Stamp> {
+        @Override
+        public int compareTo(Stamp o) {
+            int c = Long.compare(clock, o.clock);
+            return c != 0 ? c : serverId.compareTo(o.serverId);
+        }
+    }
+
+    /** Visitor for {@link BingoState.GamePartition#exportTo}. */
+    interface Exporter {
+        void record(UUID playerId, Map<String, Integer> progress, Set<String> completed, List<String> savedBoard, boolean claimedReward);
+    }
+
+    // Hot-path guard, read by BingoState on every change (server thread only).
+    private static boolean active;
+    // Set while merging remote deltas so they are not echoed back.
+    private static boolean applying;
+
+    private static BingoTransport transport;
+    private static String serverId;
+    private static int flushInterval;
+    private static int tickCounter;
+    private static long clock;
+    // Stamp of records with no entry in STAMPS (loaded from disk): the clock saved with them.
+    private static long baseline;
+
+    private static final LinkedHashMap<Key, Delta> PENDING = new LinkedHashMap<>();
+    private static final Queue<byte[]> INBOX = new ConcurrentLinkedQueue<>();
+    private static volatile boolean catchUpRequested;
+
+    // Merge bookkeeping (memory only).
+    // Reset tombstones: RESET_PLAYER / RESET_CHALLENGE key -> clock of the latest reset.
+    private static final Map<Key, Long> RESETS = new HashMap<>();
+    // Last modification of each PROGRESS (per challenge), CLAIM and BOARD record.
+    private static final Map<Key, Stamp> STAMPS = new HashMap<>();
+
+    // -----------------
+    // Lifecycle
+    // -----------------
+
+    /** Called on SERVER_STARTED. */
+    public static void start(MinecraftServer server, BingoSettings.Replication cfg) {
+        if (cfg == null || !cfg.enabled) return;
+
+        serverId = (cfg.serverId == null || cfg.serverId.isBlank()) ? UUID.randomUUID().toString() : cfg.serverId.trim();
+        flushInterval = Math.max(1, cfg.flushIntervalTicks);
+        clock = BingoState.get(server.overworld()).replicationClock();
+        baseline = clock;
+        try {
+            transport = BingoTransport.create(cfg);
+            transport.start(new BingoTransport.Receiver() {
+                @Override
+                public void onMessage(byte[] message) {
+                    INBOX.add(message);
+                }
+
+                @Override
+                public void onPeerConnected() {
+                    catchUpRequested = true;
+                }
+            });
+        } catch (Exception e) {
+            Cobblemonbingo.LOGGER.error("Bingo replication disabled: {}", e.getMessage());
+            transport = null;
+            return;
+        }
+        active = true;
+        Cobblemonbingo.LOGGER.info("Bingo replication enabled ({} transport, server id {})", cfg.transport, serverId);
+    }
+
+    /** Called on SERVER_STOPPING (before the state is saved): sends what is pending, then disconnects. */
+    public static void stop(MinecraftServer server) {
+        if (transport == null) return;
+        flush(server);
+        // Blocks briefly so the last batch reaches the wire.
+        transport.close();
+        transport = null;
+        active = false;
+        PENDING.clear();
+        INBOX.clear();
+        RESETS.clear();
+        STAMPS.clear();
+        catchUpRequested = false;
+        tickCounter = 0;
+        clock = 0L;
+        baseline = 0L;
+    }
+
+    /** Called every server tick. */
+    static void tick(MinecraftServer server) {
+        if (!active) return;
+
+        if (!INBOX.isEmpty()) receive(server);
+        if (catchUpRequested) {
+            catchUpRequested = false;
+            catchUp(server);
+        }
+        if (++tickCounter % flushInterval == 0) flush(server);
+        if (tickCounter % PRUNE_INTERVAL_TICKS == 0) prune(BingoState.get(server.overworld()));
+    }
+
+    // -----------------
+    // Capture (called by BingoState; server thread)
+    // -----------------
+
+    static boolean capturing() {
+        return active && !applying;
+    }
+
+    static void progress(String gameId, int epoch, UUID playerId, String challengeId, int value, boolean completed) {
+        queue(stamped(new Delta(PROGRESS, ++clock, gameId, epoch, playerId, challengeId, value, completed, null)));
+    }
+
+    static void board(String gameId, int epoch, UUID playerId, List<String> board) {
+        queue(stamped(new Delta(BOARD, ++clock, gameId, epoch, playerId, null, 0, false, List.copyOf(board))));
+    }
+
+    static void claim(String gameId, int epoch, UUID playerId) {
+        queue(stamped(new Delta(CLAIM, ++clock, gameId, epoch, playerId, null, 0, false, null)));
+    }
+
+    static void resetChallenge(String gameId, int epoch, UUID playerId, String challengeId) {
+        Delta d = new Delta(RESET_CHALLENGE, ++clock, gameId, epoch, playerId, challengeId, 0, false, null);
+        RESETS.put(d.key(), d.clock);
+        STAMPS.remove(new Key(PROGRESS, gameId, playerId, challengeId));
+        queue(d);
+    }
+
+    static void resetPlayer(String gameId, int epoch, UUID playerId) {
+        Delta d = new Delta(RESET_PLAYER, ++clock, gameId, epoch, playerId, null, 0, false, null);
+        RESETS.put(d.key(), d.clock);
+        forgetOwner(gameId, playerId, d.clock);
+        queue(d);
+    }
+
+    static void resetGame(String gameId, int epoch) {
+        forgetGame(gameId);
+        queue(new Delta(RESET_GAME, ++clock, gameId, epoch, null, null, 0, false, null));
+    }
+
+    private static Delta stamped(Delta d) {
+        STAMPS.put(d.key(), new Stamp(d.clock, serverId));
+        return d;
+    }
+
+    private static void queue(Delta d) {
+        Key k = d.key();
+        // Re-insert so the batch keeps causal order (a reset followed by new progress).
+        PENDING.remove(k);
+        PENDING.put(k, d);
+    }
+
+    // -----------------
+    // Send
+    // -----------------
+
+    private static void flush(MinecraftServer server) {
+        if (PENDING.isEmpty() || transport == null) return;
+        List<Delta> batch = new ArrayList<>(PENDING.values());
+        PENDING.clear();
+        // Kept in the state (saved with it), so a restart continues past every clock we sent.
+        BingoState.get(server.overworld()).advanceReplicationClock(clock);
+        send(batch);
+    }
+
+    private static void send(List<Delta> deltas) {
+        for (int from = 0; from < deltas.size(); from += MAX_BATCH) {
+            List<Delta> part = deltas.subList(from, Math.min(deltas.size(), from + MAX_BATCH));
+            try {
+                transport.send(encode(part));
+            } catch (IOException e) {
+                Cobblemonbingo.LOGGER.error("Bingo replication: failed to encode batch", e);
+            }
+        }
+    }
+
+    /**
+     * Re-sends every stored record; peers merge idempotently. Tombstones go first and records
+     * carry their own last-modified clock, so a peer that missed a reset drops our stale copies
+     * and we drop theirs.
+     */
+    private static void catchUp(MinecraftServer server) {
+        flush(server);
+        BingoState state = BingoState.get(server.overworld());
+        prune(state);
+        List<Delta> all = new ArrayList<>();
+
+        for (BingoState.GamePartition part : state.partitions()) {
+            all.add(new Delta(RESET_GAME, 0, part.gameId, part.epoch(), null, null, 0, false, null));
+        }
+        for (var e : RESETS.entrySet()) {
+            Key k = e.getKey();
+            all.add(new Delta(k.kind, e.getValue(), k.gameId, state.partition(k.gameId).epoch(), k.playerId, k.challengeId, 0, false, null));
+        }
+
+        for (BingoState.GamePartition part : state.partitions()) {
+            String gid = part.gameId;
+            int epoch = part.epoch();
+            part.exportTo((playerId, progress, completed, savedBoard, claimed) -> {
+                if (savedBoard != null) {
+                    long c = stamp(new Key(BOARD, gid, playerId, null)).clock;
+                    all.add(new Delta(BOARD, c, gid, epoch, playerId, null, 0, false, List.copyOf(savedBoard)));
+                }
+                for (var e : progress.entrySet()) {
+                    long c = stamp(new Key(PROGRESS, gid, playerId, e.getKey())).clock;
+                    all.add(new Delta(PROGRESS, c, gid, epoch, playerId, e.getKey(), e.getValue(), completed.contains(e.getKey()), null));
+                }
+                for (String cid : completed) {
+                    if (progress.containsKey(cid)) continue;
+                    long c = stamp(new Key(PROGRESS, gid, playerId, cid)).clock;
+                    all.add(new Delta(PROGRESS, c, gid, epoch, playerId, cid, 0, true, null));
+                }
+                if (claimed) {
+                    long c = stamp(new Key(CLAIM, gid, playerId, null)).clock;
+                    all.add(new Delta(CLAIM, c, gid, epoch, playerId, null, 0, false, null));
+                }
+            });
+        }
+        if (!all.isEmpty()) send(all);
+        Cobblemonbingo.LOGGER.info("Bingo replication: sent catch-up ({} records)", all.size());
+    }
+
+    // -----------------
+    // Receive / merge (server thread)
+    // -----------------
+
+    private static void receive(MinecraftServer server) {
+        BingoState state = BingoState.get(server.overworld());
+        // Coalesced follow-up, like BingoProgressBatch: one refresh per (game, owner).
+        Map<String, Set<UUID>> touched = new LinkedHashMap<>();
+        Set<String> resetGames = new LinkedHashSet<>();
+
+        applying = true;
+        try {
+            byte[] msg;
+            while ((msg = INBOX.poll()) != null) {
+                List<Delta> deltas;
+                String from;
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(msg))) {
+                    if (in.readInt() != MAGIC || in.readByte() != WIRE_VERSION) {
+                        Cobblemonbingo.LOGGER.warn("Bingo replication: ignoring message with unknown format");
+                        continue;
+                    }
+                    from = in.readUTF();
+                    if (from.equals(serverId)) continue;
+                    deltas = decode(in, from);
+                } catch (IOException e) {
+                    Cobblemonbingo.LOGGER.warn("Bingo replication: dropping corrupt message: {}", e.toString());
+                    continue;
+                }
+
+                for (Delta d : deltas) {
+                    clock = Math.max(clock, d.clock);
+                    GameHandle game = BingoRegistry.handle(d.gameId);
+                    BingoState.GamePartition part = game != null ? game.partition(state) : state.partition(d.gameId);
+
+                    if (d.epoch < part.epoch()) continue; // from before a reset we already saw
+                    if (d.epoch > part.epoch()) {
+                        part.resetTo(d.epoch);
+                        forgetGame(d.gameId);
+                        resetGames.add(d.gameId);
+                    }
+                    if (merge(game, part, d, from)) {
+                        touched.computeIfAbsent(d.gameId, k -> new LinkedHashSet<>()).add(d.playerId);
+                    }
+                }
+            }
+        } finally {
+            applying = false;
+        }
+        state.advanceReplicationClock(clock);
+
+        for (String gid : resetGames) {
+            GameHandle game = BingoRegistry.handle(gid);
+            if (game == null) continue;
+            BingoBoardPregen.schedule(server, game);
+            BingoService.refreshViewers(server, game);
+            touched.remove(gid);
+        }
+        for (var e : touched.entrySet()) {
+            GameHandle game = BingoRegistry.handle(e.getKey());
+            if (game == null) continue;
+            if (game.game.lockout) {
+                BingoService.refreshViewers(server, game);
+                continue;
+            }
+            for (UUID owner : e.getValue()) BingoService.refreshOwner(server, game, owner);
+        }
+    }
+
+    /** Applies one delta. Returns true if the owner's record changed. */
+    private static boolean merge(GameHandle game, BingoState.GamePartition part, Delta d, String from) {
+        switch (d.kind) {
+            case RESET_GAME:
+                return false; // epoch handled by the caller
+
+            case RESET_PLAYER:
+                return mergeResetPlayer(part, d);
+
+            case RESET_CHALLENGE: {
+                if (!newTombstone(d)) return false;
+                Key k = new Key(PROGRESS, d.gameId, d.playerId, d.challengeId);
+                // Written here after the reset (concurrently): keep it.
+                if (stamp(k).clock >= d.clock) return false;
+                part.resetChallenge(d.playerId, d.challengeId);
+                STAMPS.remove(k);
+                return true;
+            }
+
+            case PROGRESS: {
+                if (resetAfter(d, new Key(RESET_PLAYER, d.gameId, d.playerId, null))) return false;
+                if (resetAfter(d, new Key(RESET_CHALLENGE, d.gameId, d.playerId, d.challengeId))) return false;
+
+                Stamp remote = new Stamp(d.clock, from);
+                boolean changed = false;
+                if (d.value > part.getProgress(d.playerId, d.challengeId)) {
+                    part.setProgress(d.playerId, d.challengeId, d.value);
+                    changed = true;
+                }
+                if (d.completed && !part.isCompleted(d.playerId, d.challengeId)) {
+                    changed |= complete(game, part, d, remote);
+                }
+                STAMPS.merge(d.key(), remote, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+                return changed;
+            }
+
+            case BOARD: {
+                if (resetAfter(d, new Key(RESET_PLAYER, d.gameId, d.playerId, null))) return false;
+                Key k = d.key();
+                Stamp remote = new Stamp(d.clock, from);
+                boolean take = part.getBoard(d.playerId) == null || remote.compareTo(stamp(k)) < 0;
+                if (!take) return false;
+                part.setBoard(d.playerId, d.board);
+                STAMPS.put(k, remote);
+                return true;
+            }
+
+            case CLAIM:
+                if (resetAfter(d, new Key(RESET_PLAYER, d.gameId, d.playerId, null))) return false;
+                if (part.hasClaimedReward(d.playerId)) return false;
+                part.markClaimedReward(d.playerId);
+                STAMPS.put(d.key(), new Stamp(d.clock, from));
+                return false;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Lockout: when two backends completed a square concurrently, both keep the completion with
+     * the lower (clock, server id), so they end up with the same owner.
+     */
+    private static boolean complete(GameHandle game, BingoState.GamePartition part, Delta d, Stamp remote) {
+        CompiledGame.Challenge ch = (game != null && game.game.lockout) ? game.game.challenge(d.challengeId) : null;
+        UUID holder = ch == null ? null : part.claimedBy(ch);
+        if (holder != null && !holder.equals(d.playerId)) {
+            Stamp held = stamp(new Key(PROGRESS, d.gameId, holder, d.challengeId));
+            if (remote.compareTo(held) > 0) return false;
+            part.revokeCompletion(holder, d.challengeId);
+        }
+        return part.markCompleted(d.playerId, d.challengeId);
+    }
+
+    /** Clears the owner's records older than the reset; records written since are kept. */
+    private static boolean mergeResetPlayer(BingoState.GamePartition part, Delta d) {
+        if (!newTombstone(d)) return false;
+        if (!part.players().contains(d.playerId)) {
+            forgetOwner(d.gameId, d.playerId, d.clock);
+            return false;
+        }
+
+        List<String> older = new ArrayList<>();
+        boolean keep = false;
+        for (String cid : part.challengeIds(d.playerId)) {
+            if (stamp(new Key(PROGRESS, d.gameId, d.playerId, cid)).clock < d.clock) older.add(cid);
+            else keep = true;
+        }
+        boolean claimOlder = part.hasClaimedReward(d.playerId)
+                && stamp(new Key(CLAIM, d.gameId, d.playerId, null)).clock < d.clock;
+        if (part.hasClaimedReward(d.playerId) && !claimOlder) keep = true;
+
+        if (!keep) {
+            part.resetPlayer(d.playerId);
+            forgetOwner(d.gameId, d.playerId, d.clock);
+            return true;
+        }
+        for (String cid : older) {
+            part.resetChallenge(d.playerId, cid);
+            STAMPS.remove(new Key(PROGRESS, d.gameId, d.playerId, cid));
+        }
+        if (claimOlder) {
+            part.clearClaimedReward(d.playerId);
+            STAMPS.remove(new Key(CLAIM, d.gameId, d.playerId, null));
+        }
+        return true;
+    }
+
+    private static boolean resetAfter(Delta d, Key resetKey) {
+        Long r = RESETS.get(resetKey);
+        return r != null && d.clock < r;
+    }
+
+    /** Records a remote tombstone; false if this reset (or a later one) was already applied. */
+    private static boolean newTombstone(Delta d) {
+        Key k = d.key();
+        Long known = RESETS.get(k);
+        if (known != null && known >= d.clock) return false;
+        RESETS.put(k, d.clock);
+        return true;
+    }
+
+    private static Stamp stamp(Key k) {
+        Stamp s = STAMPS.get(k);
+        return s != null ? s : new Stamp(baseline, serverId);
+    }
+
+    // -----------------
+    // Bookkeeping
+    // -----------------
+
+    /** A player reset at resetClock: their stamps go, and so do challenge tombstones it covers. */
+    private static void forgetOwner(String gameId, UUID playerId, long resetClock) {
+        STAMPS.keySet().removeIf(k -> k.gameId.equals(gameId) && playerId.equals(k.playerId));
+        RESETS.entrySet().removeIf(e -> e.getKey().kind == RESET_CHALLENGE && e.getKey().gameId.equals(gameId)
+                && playerId.equals(e.getKey().playerId) && e.getValue() < resetClock);
+    }
+
+    /** A new epoch: everything recorded for the old one is moot. */
+    private static void forgetGame(String gameId) {
+        STAMPS.keySet().removeIf(k -> k.gameId.equals(gameId));
+        RESETS.keySet().removeIf(k -> k.gameId.equals(gameId));
+    }
+
+    /** Drops stamps of records that are gone (compacted players) and caps the tombstones. */
+    private static void prune(BingoState state) {
+        Map<String, BingoState.GamePartition> parts = new HashMap<>();
+        for (BingoState.GamePartition part : state.partitions()) parts.put(part.gameId, part);
+        STAMPS.keySet().removeIf(k -> {
+            BingoState.GamePartition part = parts.get(k.gameId);
+            return part == null || !part.players().contains(k.playerId);
+        });
+
+        if (RESETS.size() > MAX_TOMBSTONES) {
+            long[] clocks = RESETS.values().stream().mapToLong(Long::longValue).sorted().toArray();
+            long cut = clocks[clocks.length - MAX_TOMBSTONES * 3 / 4];
+            RESETS.values().removeIf(c -> c < cut);
+        }
+    }
+
+    // -----------------
+    // Wire format
+    // -----------------
+
+    private static byte[] encode(List<Delta> deltas) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + deltas.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(WIRE_VERSION);
+        out.writeUTF(serverId);
+        out.writeInt(deltas.size());
+
+        for (Delta d : deltas) {
+            out.writeByte(d.kind);
+            out.writeLong(d.clock);
+            out.writeUTF(d.gameId);
+            out.writeInt(d.epoch);
+            if (d.kind == RESET_GAME) continue;
+
+            out.writeLong(d.playerId.getMostSignificantBits());
+            out.writeLong(d.playerId.getLeastSignificantBits());
+            switch (d.kind) {
+                case PROGRESS -> {
+                    out.writeUTF(d.challengeId);
+                    out.writeInt(d.value);
+                    out.writeBoolean(d.completed);
+                }
+                case RESET_CHALLENGE -> out.writeUTF(d.challengeId);
+                case BOARD -> {
+                    for (int i = 0; i < 25; i++) out.writeUTF(d.board.get(i));
+                }
+                default -> {}
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<Delta> decode(DataInputStream in, String from) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > MAX_BATCH) throw new IOException("bad delta count " + n);
+        List<Delta> out = new ArrayList<>(n);
+
+        for (int i = 0; i < n; i++) {
+            byte kind = in.readByte();
+            long c = in.readLong();
+            String gid = in.readUTF();
+            int epoch = in.readInt();
+            if (kind == RESET_GAME) {
+                out.add(new Delta(kind, c, gid, epoch, null, null, 0, false, null));
+                continue;
+            }
+
+            UUID player = new UUID(in.readLong(), in.readLong());
+            switch (kind) {
+                case PROGRESS -> {
+                    String cid = in.readUTF();
+                    int value = in.readInt();
+                    boolean completed = in.readBoolean();
+                    out.add(new Delta(kind, c, gid, epoch, player, cid, value, completed, null));
+                }
+                case RESET_CHALLENGE -> out.add(new Delta(kind, c, gid, epoch, player, in.readUTF(), 0, false, null));
+                case BOARD -> {
+                    List<String> board = new ArrayList<>(25);
+                    for (int j = 0; j < 25; j++) board.add(in.readUTF());
+                    out.add(new Delta(kind, c, gid, epoch, player, null, 0, false, board));
+                }
+                case CLAIM, RESET_PLAYER -> out.add(new Delta(kind, c, gid, epoch, player, null, 0, false, null));
+                default -> throw new IOException("unknown delta kind " + kind + " from " + from);
+            }
+        }
+        return out;
+    }
+}
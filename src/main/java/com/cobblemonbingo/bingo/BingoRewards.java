@@ -0,0 +1,303 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemon.mod.common.Cobblemon;
+import com.cobblemon.mod.common.api.pokemon.PokemonProperties;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemonbingo.Cobblemonbingo;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Completion rewards: compiled once per game, granted through a per-tick rate-limited queue.
+ *
+ * Commands are parsed once per command tree (when the game is published, again after a datapack
+ * reload) against a fixed source at the function permission level, and each grant runs that parse
+ * on the winner's source: %player% becomes {@code @s}, %game% the game id. Item, XP and Pokémon
+ * rewards are applied directly without any command parsing. A mass win (e.g. many players
+ * finishing in one tick) is spread over several ticks.
+ *
+ * Rewards for winners who are offline when their turn comes, and anything still queued when the
+ * server stops, are stored in {@link BingoState} as (game, table index) and granted on the next
+ * join from the game's current reward table.
+ */
+public final class BingoRewards {
+    private BingoRewards() {}
+
+    private static final int MAX_PER_TICK = 4;
+    private static final long BUDGET_NANOS = 2_000_000L; // 2 ms
+
+    /** One compiled onCompletion entry. */
+    public static final class Reward {
+        private final int index;               // position in the game's table (held rewards)
+        private final String gameId;
+        private final String command;          // without leading '/', placeholders substituted; null => none
+        private final Item item;               // AIR => none
+        private final int count;
+        private final int xp;
+        private final int xpLevels;
+        private final PokemonProperties pokemon;
+        private final String pokemonSpec;
+
+        // The command parsed for parsedFor's dispatcher; null if it failed to parse (server thread only).
+        private ParseResults<CommandSourceStack> parsed;
+        private CommandDispatcher<CommandSourceStack> parsedFor;
+
+        private Reward(String gameId, int index, BingoConfig.WeightedCommand wc) {
+            this.index = index;
+            this.gameId = gameId;
+            String cmd = (wc.command == null || wc.command.isBlank()) ? null : wc.command.trim();
+            if (cmd != null && cmd.startsWith("/")) cmd = cmd.substring(1);
+            // The winner is the executing entity, so one parse serves every winner.
+            if (cmd != null) cmd = cmd.replace("%player%", "@s").replace("%game%", gameId);
+            this.command = cmd;
+
+            Item it = Items.AIR;
+            if (wc.item != null && !wc.item.isBlank()) {
+                ResourceLocation rl = ResourceLocation.tryParse(wc.item.trim());
+                if (rl != null) it = BuiltInRegistries.ITEM.get(rl);
+                if (it == null || it == Items.AIR) {
+                    Cobblemonbingo.LOGGER.warn("Bingo game {}: unknown reward item '{}'", gameId, wc.item);
+                    it = Items.AIR;
+                }
+            }
+            this.item = it;
+            this.count = Math.max(1, wc.count == null ? 1 : wc.count);
+
+            this.xp = Math.max(0, wc.xp == null ? 0 : wc.xp);
+            this.xpLevels = Math.max(0, wc.xpLevels == null ? 0 : wc.xpLevels);
+
+            PokemonProperties props = null;
+            String spec = (wc.pokemon == null || wc.pokemon.isBlank()) ? null : wc.pokemon.trim();
+            if (spec != null) {
+                try {
+                    props = PokemonProperties.Companion.parse(spec, " ", "=");
+                } catch (Exception e) {
+                    Cobblemonbingo.LOGGER.warn("Bingo game {}: invalid reward pokemon '{}'", gameId, spec);
+                }
+            }
+            this.pokemon = props;
+            this.pokemonSpec = spec;
+        }
+
+        boolean isEmpty() {
+            return command == null && item == Items.AIR && xp == 0 && xpLevels == 0 && pokemon == null;
+        }
+
+        void grant(MinecraftServer server, ServerPlayer player) {
+            if (command != null) runCommand(server, player);
+
+            if (item != Items.AIR) {
+                ItemStack stack = new ItemStack(item, count);
+                // add() shrinks the stack by what fit and may still return true; drop the rest.
+                player.getInventory().add(stack);
+                if (!stack.isEmpty()) player.drop(stack, false);
+            }
+
+            if (xp > 0) player.giveExperiencePoints(xp);
+            if (xpLevels > 0) player.giveExperienceLevels(xpLevels);
+
+            if (pokemon != null) {
+                try {
+                    Pokemon p = new Pokemon();
+                    pokemon.apply(p);
+                    p.initialize();
+                    // A full party overflows into the PC.
+                    Cobblemon.INSTANCE.getStorage().getParty(player).add(p);
+                } catch (Exception e) {
+                    Cobblemonbingo.LOGGER.error("Failed to give reward pokemon '{}' to {}", pokemonSpec,
+                            player.getName().getString(), e);
+                }
+            }
+        }
+
+        /** Parses the command for the server's current command tree, if not done yet. */
+        void prepare(MinecraftServer server) {
+            CommandDispatcher<CommandSourceStack> dispatcher = server.getCommands().getDispatcher();
+            if (command == null || parsedFor == dispatcher) return;
+            parsedFor = dispatcher;
+
+            // Fixed source, so the parse doesn't depend on who wins; selectors resolve at run time.
+            CommandSourceStack source = server.createCommandSourceStack()
+                    .withPermission(server.getFunctionCompilationLevel());
+            ParseResults<CommandSourceStack> results = dispatcher.parse(command, source);
+            CommandSyntaxException error = Commands.getParseException(results);
+            if (error != null) {
+                Cobblemonbingo.LOGGER.warn("Bingo game {}: reward command '{}' does not parse: {}", gameId, command, error.getMessage());
+                results = null;
+            }
+            parsed = results;
+        }
+
+        private void runCommand(MinecraftServer server, ServerPlayer player) {
+            // Datapack reloads replace the dispatcher; parse results from the old tree are stale.
+            prepare(server);
+            if (parsed == null) return;
+
+            CommandSourceStack source = player.createCommandSourceStack()
+                    .withPermission(server.getFunctionCompilationLevel());
+            server.getCommands().performCommand(Commands.mapSource(parsed, s -> source), command);
+        }
+    }
+
+    /** Cumulative weight table over a game's rewards. */
+    public static final class Table {
+        static final Table EMPTY = new Table(new Reward[0], new int[0], 0);
+
+        private final Reward[] rewards;
+        private final int[] cumulative; // cumulative[i] = sum of weights 0..i
+        private final int total;
+
+        private Table(Reward[] rewards, int[] cumulative, int total) {
+            this.rewards = rewards;
+            this.cumulative = cumulative;
+            this.total = total;
+        }
+
+        public boolean isEmpty() {
+            return total <= 0;
+        }
+
+        /** Picks one entry by weight; null for a "no reward" entry. */
+        Reward pick(int roll) {
+            int lo = 0, hi = cumulative.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (roll < cumulative[mid]) hi = mid;
+                else lo = mid + 1;
+            }
+            Reward r = rewards[lo];
+            return r.isEmpty() ? null : r;
+        }
+
+        /** Parses every command reward up front (server thread), so the first win doesn't. */
+        void prepare(MinecraftServer server) {
+            for (Reward r : rewards) r.prepare(server);
+        }
+
+        /** Entry by table index, or null if out of range (the config changed) or empty. */
+        Reward get(int index) {
+            if (index < 0 || index >= rewards.length) return null;
+            Reward r = rewards[index];
+            return r.isEmpty() ? null : r;
+        }
+    }
+
+    static Table compile(String gameId, List<BingoConfig.WeightedCommand> entries) {
+        if (entries == null || entries.isEmpty()) return Table.EMPTY;
+
+        List<Reward> rewards = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        boolean anyReward = false;
+        for (BingoConfig.WeightedCommand wc : entries) {
+            if (wc == null) continue;
+            Reward r = new Reward(gameId, rewards.size(), wc);
+            total += Math.max(1, wc.weight == null ? 1 : wc.weight);
+            rewards.add(r);
+            cumulative.add(total);
+            anyReward |= !r.isEmpty();
+        }
+        if (!anyReward) return Table.EMPTY;
+
+        int[] cum = new int[cumulative.size()];
+        for (int i = 0; i < cum.length; i++) cum[i] = cumulative.get(i);
+        return new Table(rewards.toArray(new Reward[0]), cum, total);
+    }
+
+    /** Parses the games' reward commands for the current command tree. Server thread only. */
+    public static void prepare(MinecraftServer server, Collection<GameHandle> games) {
+        for (GameHandle game : games) game.game.rewards.prepare(server);
+    }
+
+    // -----------------
+    // Queue (server thread only; held by the BingoRuntime)
+    // -----------------
+
+    record Pending(UUID playerId, String gameId, Reward reward) {}
+
+    /** Rolls the winner's reward now and queues it. */
+    public static void enqueue(ServerPlayer winner, GameHandle game) {
+        enqueue(winner.getServer(), List.of(winner.getUUID()), game);
+    }
+
+    /**
+     * One win shared by several players (a team): rolled once, every member gets the same reward.
+     * Offline members are held until they join.
+     */
+    public static void enqueue(MinecraftServer server, Collection<UUID> winnerIds, GameHandle game) {
+        Table table = game.game.rewards;
+        if (table.isEmpty() || winnerIds.isEmpty()) return;
+
+        Reward r = table.pick(ThreadLocalRandom.current().nextInt(table.total));
+        if (r == null) return;
+        BingoRuntime rt = BingoRuntime.of(server);
+        for (UUID id : winnerIds) {
+            if (rt != null) rt.rewardQueue.add(new Pending(id, game.id, r));
+            else BingoState.get(server.overworld()).holdReward(id, game.id, r.index);
+        }
+    }
+
+    /** Called every server tick; grants at most MAX_PER_TICK rewards within BUDGET_NANOS. */
+    public static void tick(MinecraftServer server) {
+        BingoRuntime rt = BingoRuntime.of(server);
+        if (rt == null || rt.rewardQueue.isEmpty()) return;
+        ArrayDeque<Pending> queue = rt.rewardQueue;
+
+        long deadline = System.nanoTime() + BUDGET_NANOS;
+        for (int n = 0; n < MAX_PER_TICK && !queue.isEmpty(); n++) {
+            if (n > 0 && System.nanoTime() >= deadline) break;
+
+            Pending p = queue.poll();
+            ServerPlayer player = server.getPlayerList().getPlayer(p.playerId);
+            if (player == null) {
+                // Logged off before it ran: saved with the state, granted on rejoin.
+                rt.state().holdReward(p.playerId, p.gameId, p.reward.index);
+                continue;
+            }
+            try {
+                p.reward.grant(server, player);
+            } catch (Exception e) {
+                Cobblemonbingo.LOGGER.error("Failed to grant bingo reward for {}", p.gameId, e);
+            }
+        }
+    }
+
+    /** Re-queues rewards held for a player who logged off (or was offline at a restart) before they ran. */
+    public static void onJoin(ServerPlayer player) {
+        BingoRuntime rt = BingoRuntime.of(player.getServer());
+        if (rt == null) return;
+        List<BingoState.HeldReward> held = rt.state().takeHeldRewards(player.getUUID());
+        if (held == null) return;
+        for (BingoState.HeldReward h : held) {
+            GameHandle game = BingoRegistry.handle(h.gameId());
+            Reward r = (game == null) ? null : game.game.rewards.get(h.index());
+            if (r == null) {
+                Cobblemonbingo.LOGGER.warn("Dropping held bingo reward #{} of {} for {}: no longer in the game's rewards",
+                        h.index(), h.gameId(), player.getName().getString());
+                continue;
+            }
+            rt.rewardQueue.add(new Pending(player.getUUID(), game.id, r));
+        }
+    }
+
+    /** Server stopping: rewards still queued are held in the state, which is saved after this. */
+    static void clear(BingoRuntime rt) {
+        ArrayDeque<Pending> queue = rt.rewardQueue;
+        for (Pending p : queue) rt.state().holdReward(p.playerId, p.gameId, p.reward.index);
+        if (!queue.isEmpty()) Cobblemonbingo.LOGGER.info("Holding {} undelivered bingo reward(s) until their winners join", queue.size());
+        queue.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything that belongs to one running server: created on SERVER_STARTED, dropped on
+ * SERVER_STOPPING. An integrated server that switches worlds gets a fresh runtime, so nothing
+ * from the previous world (positions, staged boards, queued rewards) leaks into the next.
+ *
+ * Also caches the {@link BingoState} instance, so hot paths don't go through the overworld's
+ * data storage on every event. Game configs are not per-server and stay in {@link BingoRegistry};
+ * their handles drop the partition they cached when the server stops.
+ *
+ * Some per-server data stays static in its owner and is cleared in {@link #stop}: replication
+ * (its hooks in BingoState must cost one static read when off), the BingoApi queue (any thread
+ * may call in, with no server at hand), staged pregen boards (taken by ensureBoard, which the
+ * headless engine also runs), and BingoEvents' catch caches (keyed by Cobblemon's registry
+ * objects, which outlive a world).
+ */
+public final class BingoRuntime {
+
+    private static volatile BingoRuntime current;
+
+    public final MinecraftServer server;
+    private final BingoState state;
+
+    // Enter-area detection: last block position per online player (BingoEvents).
+    final Map<UUID, BlockPos> lastBlockPos = new HashMap<>();
+
+    // Engine adapter, rebound per player by BingoEvents (server thread only).
+    final ServerBingoPlayer player = new ServerBingoPlayer();
+    final ItemCounts itemCounts = new ItemCounts();
+    final CatchAttributes caught = new CatchAttributes();
+
+    // Rolled rewards waiting for their turn (BingoRewards).
+    final ArrayDeque<BingoRewards.Pending> rewardQueue = new ArrayDeque<>();
+
+    // Throttles for tick-based checks (BingoEvents).
+    int collectTickCounter;
+    int enterAreaTickCounter;
+
+    private BingoRuntime(MinecraftServer server) {
+        this.server = server;
+        this.state = BingoState.lookup(server);
+    }
+
+    /** The runtime for this server, or null before it has started / after it stopped. */
+    public static BingoRuntime of(MinecraftServer server) {
+        BingoRuntime rt = current;
+        return (rt != null && rt.server == server) ? rt : null;
+    }
+
+    public BingoState state() {
+        return state;
+    }
+
+    // -----------------
+    // Lifecycle
+    // -----------------
+
+    /** Called on SERVER_STARTED. */
+    static void start(MinecraftServer server) {
+        current = new BingoRuntime(server);
+        BingoSettings settings = BingoSettings.load();
+
+        BingoPerf.setEnabled(settings.profiling);
+        BingoMetrics.start(settings.metrics);
+        // Reward commands need the server's command tree; parse them before the first win.
+        BingoRewards.prepare(server, BingoRegistry.handles());
+        // Hot reload of config/bingo while the server runs.
+        BingoConfigWatcher.start(server);
+        // Progress sharing with other backends.
+        BingoReplication.start(server, settings.replication);
+    }
+
+    /** Called on SERVER_STOPPING. Stops background work first, then drops per-server data. */
+    static void stop(MinecraftServer server) {
+        BingoConfigWatcher.stop();
+        BingoReplication.stop(server);
+        BingoReloader.cancel();
+        BingoApi.clear();
+        BingoBoardPregen.clear();
+        BingoMetrics.stop();
+        BingoTrace.stop();
+        BingoEvents.clearCatchCaches();
+        for (GameHandle game : BingoRegistry.handles()) game.unbind();
+
+        BingoRuntime rt = current;
+        if (rt != null && rt.server == server) {
+            BingoRewards.clear(rt);
+            current = null;
+        }
+    }
+}
@@ -12,7 +12,6 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 public final class BingoService {
     private BingoService() {}
@@ -21,26 +20,26 @@ public final class BingoService {
     private static final int CHEST_SIZE = ROWS * 9;
 
     public static void open(ServerPlayer player, String bingoName) {
-        String gameId = sanitize(bingoName);
-        BingoConfig cfg = BingoRegistry.get(gameId);
+        GameHandle game = BingoRegistry.handle(bingoName);
 
-        if (cfg == null) {
+        if (game == null) {
             player.sendSystemMessage(Component.literal("No bingo game named '" + bingoName + "'."));
             return;
         }
-        if (!cfg.isActive) {
+        if (!game.isActive()) {
             player.sendSystemMessage(Component.literal("That bingo is currently disabled."));
             return;
         }
+        BingoConfig cfg = game.config;
         if (cfg.challenges == null || cfg.challenges.size() < 25) {
-            player.sendSystemMessage(Component.literal("Bingo config '" + gameId + "' must have at least 25 challenges."));
+            player.sendSystemMessage(Component.literal("Bingo config '" + game.id + "' must have at least 25 challenges."));
             return;
         }
 
         BingoState state = BingoState.get(player.serverLevel());
-        ensureBoard(player, state, gameId, cfg);
+        ensureBoard(player, state, game);
 
-        SimpleContainer container = buildContainer(player, gameId, cfg);
+        SimpleContainer container = buildContainer(player, game);
         Component title = Component.literal((cfg.name == null || cfg.name.isBlank()) ? "Bingo" : cfg.name);
 
         player.openMenu(new MenuProvider() {
@@ -51,53 +50,132 @@ public final class BingoService {
 
             @Override
             public AbstractContainerMenu createMenu(int syncId, Inventory inv, net.minecraft.world.entity.player.Player p) {
-                return new BingoScreenHandler(syncId, inv, container, gameId);
+                return new BingoScreenHandler(syncId, inv, container, game.id);
             }
         });
     }
 
     public static void refreshIfOpen(ServerPlayer player, String gameId) {
         if (player == null || gameId == null) return;
-        if (!(player.containerMenu instanceof BingoScreenHandler handler)) return;
-        if (!gameId.equals(handler.bingoId)) return;
+        if (!(player.containerMenu instanceof BingoScreenHandler)) return;
+
+        GameHandle game = BingoRegistry.handle(gameId);
+        if (game != null) refreshIfOpen(player, game);
+    }
 
-        BingoConfig cfg = BingoRegistry.get(gameId);
-        if (cfg == null) return;
+    /** Hot-path variant: no id sanitizing or registry lookup unless the menu is open. */
+    public static void refreshIfOpen(ServerPlayer player, GameHandle game) {
+        if (player == null || game == null) return;
+        if (!(player.containerMenu instanceof BingoScreenHandler handler)) return;
+        if (!game.id.equals(handler.bingoId)) return;
 
         SimpleContainer container = handler.containerRef;
         if (container == null) return;
 
-        applyContents(player, gameId, cfg, container);
+        applyContents(player, game, container);
         player.containerMenu.broadcastChanges();
     }
 
-    public static List<String> ensureBoard(ServerPlayer player, BingoState state, String gameId, BingoConfig cfg) {
-        String gid = sanitize(gameId);
-        List<String> existing = state.getBoard(player.getUUID(), gid);
-        if (existing != null && existing.size() == 25) return existing;
+    /**
+     * Read-only: the player's board, or null if they don't have one yet. Never creates a board
+     * or dirties the state; event handlers use this and only call ensureBoard() once an event
+     * actually qualifies for one of the game's challenges.
+     */
+    public static List<String> peekBoard(UUID ownerId, BingoState.GamePartition part) {
+        List<String> existing = part.getBoard(ownerId);
+        return (existing != null && existing.size() == 25) ? existing : null;
+    }
 
-        List<String> board = createBoardForPlayer(player, cfg);
-        state.setBoard(player.getUUID(), gid, board);
-        return board;
+    /**
+     * Refreshes everyone who sees the owner's board: the player themselves, or every online
+     * member of their team. {@code player} is the one who caused the change (no lookup needed).
+     */
+    public static void refreshOwner(ServerPlayer player, GameHandle game, UUID ownerId) {
+        CompiledGame.Team team = game.game.team(ownerId);
+        if (team == null) {
+            refreshIfOpen(player, game);
+            return;
+        }
+        refreshTeam(player.getServer(), game, team);
     }
 
-    public static boolean environmentMatches(ServerPlayer player, BingoConfig.BingoChallenge ch) {
-        if (player == null || ch == null) return true;
+    /** Same, by owner id only (batch/reload paths where the owner may be offline). */
+    public static void refreshOwner(MinecraftServer server, GameHandle game, UUID ownerId) {
+        if (server == null) return;
+        CompiledGame.Team team = game.game.team(ownerId);
+        if (team == null) {
+            ServerPlayer p = server.getPlayerList().getPlayer(ownerId);
+            if (p != null) refreshIfOpen(p, game);
+            return;
+        }
+        refreshTeam(server, game, team);
+    }
 
-        if ("custom".equalsIgnoreCase(nullToEmpty(ch.type))) return true;
-        if (ch.properties == null) return true;
+    private static void refreshTeam(MinecraftServer server, GameHandle game, CompiledGame.Team team) {
+        if (server == null) return;
+        for (UUID member : team.members) {
+            ServerPlayer p = server.getPlayerList().getPlayer(member);
+            if (p != null) refreshIfOpen(p, game);
+        }
+    }
 
-        if (ch.properties.dimension != null && !ch.properties.dimension.isBlank()) {
-            String currentDim = player.level().dimension().location().toString();
-            if (!currentDim.equals(ch.properties.dimension.trim())) return false;
+    /** Refreshes every online player viewing this game (a lockout claim changes their boards too). */
+    public static void refreshViewers(MinecraftServer server, GameHandle game) {
+        if (server == null) return;
+        for (ServerPlayer p : server.getPlayerList().getPlayers()) {
+            refreshIfOpen(p, game);
         }
+    }
+
+    /** Materializes the player's (or their team's) board (open, first qualifying progress, admin progress). */
+    public static List<String> ensureBoard(ServerPlayer player, BingoState state, GameHandle game) {
+        return ensureBoard(game.game.progressOwner(player.getUUID()), player.getRandom(), state, game);
+    }
 
-        if (ch.properties.isRaining != null) {
-            boolean raining = player.serverLevel().isRaining();
-            if (raining != ch.properties.isRaining) return false;
+    /**
+     * Works for offline players too; random is only used for non-seeded randomized games.
+     * playerId is a progress owner (see {@link CompiledGame#progressOwner}).
+     */
+    public static List<String> ensureBoard(UUID playerId, net.minecraft.util.RandomSource random, BingoState state, GameHandle game) {
+        BingoState.GamePartition part = game.partition(state);
+        List<String> existing = part.getBoard(playerId);
+        if (existing != null && existing.size() == 25) return existing;
+
+        BingoConfig cfg = game.config;
+        List<String> board = BingoBoardPregen.take(game, playerId, part.epoch());
+
+        if (cfg.isSeeded) {
+            if (board == null) {
+                long seed = boardSeed(cfg, game.id, playerId, part.epoch());
+                board = createBoard(cfg, net.minecraft.util.RandomSource.create(seed));
+            }
+            part.cacheDerivedBoard(playerId, board);
+            return board;
         }
 
-        return true;
+        if (board == null) board = createBoard(cfg, random);
+        part.setBoard(playerId, board);
+        return board;
+    }
+
+    /**
+     * Seed for a seeded board: a pure function of the game seed, player and reset epoch.
+     * Reproduce any player's board by feeding the same three values into createBoard.
+     */
+    public static long boardSeed(BingoConfig cfg, String gameId, UUID playerId, int epoch) {
+        long base = (cfg.boardSeed != null) ? cfg.boardSeed : BingoRegistry.canonicalId(gameId).hashCode();
+        long h = mix64(base);
+        h = mix64(h ^ playerId.getMostSignificantBits());
+        h = mix64(h ^ playerId.getLeastSignificantBits());
+        h = mix64(h ^ epoch);
+        return h;
+    }
+
+    // SplitMix64 finalizer: spreads nearby inputs (epoch 1 vs 2) across the whole seed space.
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
     }
 
     public static BingoConfig.BingoChallenge findChallenge(BingoConfig cfg, String challengeId) {
@@ -114,45 +192,30 @@ public final class BingoService {
     }
 
     public static boolean addAdminProgress(ServerPlayer target, String gameId, String challengeId, int amount) {
-        if (target == null) return false;
-        if (amount <= 0) return false;
-
-        String gid = sanitize(gameId);
-        BingoConfig cfg = BingoRegistry.get(gid);
-        if (cfg == null || !cfg.isActive) return false;
-
-        BingoConfig.BingoChallenge ch = findChallenge(cfg, challengeId);
-        if (ch == null || ch.id == null || ch.id.isBlank()) return false;
-
-        BingoState state = BingoState.get(target.serverLevel());
-
-        ensureBoard(target, state, gid, cfg);
-
-        String key = BingoState.key(gid, ch.id);
-        int goal = goalFor(ch);
-
-        if (state.isCompleted(target.getUUID(), key)) {
-            refreshIfOpen(target, gid);
-            return false;
-        }
-
-        int before = state.getProgress(target.getUUID(), key);
-        int after = Math.min(goal, before + amount);
-        state.setProgress(target.getUUID(), key, after);
-
-        boolean completedNow = false;
-        if (after >= goal) {
-            state.markCompleted(target.getUUID(), key);
-            completedNow = true;
-        }
-
-        refreshIfOpen(target, gid);
+        if (target == null || gameId == null) return false;
+        return new BingoProgressBatch()
+                .add(target.getUUID(), gameId, challengeId, amount)
+                .apply(target.getServer())
+                .applied > 0;
+    }
 
-        if (completedNow) {
-            checkAndHandleWin(target.getServer(), target, gid, cfg, state);
+    /**
+     * Win check for every active game the player has a board in. Run on join, so lines completed
+     * while offline (bulk progress by UUID) are rewarded.
+     */
+    public static void checkWinsOnJoin(ServerPlayer player) {
+        MinecraftServer server = player.getServer();
+        if (server == null) return;
+        BingoState state = BingoState.get(player.serverLevel());
+        for (GameHandle game : BingoRegistry.handles()) {
+            if (!game.isActive()) continue;
+            UUID owner = game.game.progressOwner(player.getUUID());
+            BingoState.GamePartition part = game.partition(state);
+            // Already won and rewarded (non-reset games): nothing left to hand out.
+            if (part.hasClaimedReward(owner)) continue;
+            if (peekBoard(owner, part) == null) continue;
+            checkAndHandleWin(server, player, game, state);
         }
-
-        return true;
     }
 
     /**
@@ -162,113 +225,92 @@ public final class BingoService {
      *     reward winner, reset game for all players (old behavior)
      * - else:
      *     no reset; reward winner only once per player until resetbingo/resetbingoall
+     * On a team, the board and claim belong to the team and every member is rewarded.
      */
-    public static void checkAndHandleWin(MinecraftServer server, ServerPlayer triggeringPlayer, String gameId, BingoConfig cfg, BingoState state) {
-        if (server == null || triggeringPlayer == null || cfg == null || state == null) return;
-
-        String gid = sanitize(gameId);
-
-        boolean allowH = false, allowV = false, allowD = false;
-        if (cfg.completion == null || cfg.completion.isEmpty()) {
-            allowH = allowV = allowD = true;
-        } else {
-            for (String s : cfg.completion) {
-                if (s == null) continue;
-                String t = s.trim().toLowerCase(Locale.ROOT);
-                if (t.equals("horizontal")) allowH = true;
-                if (t.equals("vertical")) allowV = true;
-                if (t.equals("diagonal")) allowD = true;
-            }
+    public static void checkAndHandleWin(MinecraftServer server, ServerPlayer triggeringPlayer, GameHandle game, BingoState state) {
+        long t = BingoPerf.start();
+        try {
+            handleWin(server, triggeringPlayer, game, state);
+        } finally {
+            BingoPerf.stop(BingoPerf.Section.WIN_CHECK, t);
         }
+    }
 
-        List<String> board = state.getBoard(triggeringPlayer.getUUID(), gid);
-        if (board == null || board.size() != 25) return;
+    private static void handleWin(MinecraftServer server, ServerPlayer triggeringPlayer, GameHandle game, BingoState state) {
+        if (server == null || triggeringPlayer == null || game == null || state == null) return;
 
-        boolean[] done = new boolean[25];
-        for (int i = 0; i < 25; i++) {
-            String cid = board.get(i);
-            if (cid == null || cid.isBlank()) {
-                done[i] = false;
-                continue;
-            }
-            done[i] = state.isCompleted(triggeringPlayer.getUUID(), BingoState.key(gid, cid));
-        }
+        String gid = game.id;
+        BingoConfig cfg = game.config;
+        CompiledGame compiled = game.game;
+        BingoState.GamePartition part = game.partition(state);
+        UUID uuid = compiled.progressOwner(triggeringPlayer.getUUID());
+        CompiledGame.Team team = compiled.team(uuid);
 
-        if (!hasLine(done, allowH, allowV, allowD)) return;
+        if (!BingoEngine.hasWinningLine(game, part, uuid)) return;
 
         // Default behavior: reset on completion (old behavior)
         if (cfg.doesResetOnCompletion) {
-            runWeightedCompletionCommand(server, triggeringPlayer, cfg);
+            BingoMetrics.win();
+            BingoApi.fireBingo(uuid, gid);
+            enqueueRewards(triggeringPlayer, team, game);
 
             // Reset for ALL players (online + offline) for this game
-            state.resetGameForAllPlayers(gid);
+            part.resetAll();
 
             if (cfg.disableOnCompletion) {
                 cfg.isActive = false;
             }
 
+            // Build the next boards for everyone online off-thread instead of on their next tick.
+            BingoBoardPregen.schedule(server, game);
+
             // Refresh open menus for online players
             for (ServerPlayer p : server.getPlayerList().getPlayers()) {
-                refreshIfOpen(p, gid);
+                refreshIfOpen(p, game);
             }
             return;
         }
 
         // Non-reset mode: only reward once per player until that player is reset.
-        if (!state.hasClaimedReward(triggeringPlayer.getUUID(), gid)) {
-            state.markClaimedReward(triggeringPlayer.getUUID(), gid);
-            state.setDirty();
+        if (!part.hasClaimedReward(uuid)) {
+            part.markClaimedReward(uuid);
+            BingoMetrics.win();
+            BingoApi.fireBingo(uuid, gid);
 
-            runWeightedCompletionCommand(server, triggeringPlayer, cfg);
-            broadcastCompletion(server, triggeringPlayer, gid, cfg);
-        }
+            enqueueRewards(triggeringPlayer, team, game);
+            broadcastCompletion(server, team != null ? team.name : triggeringPlayer.getName().getString(), gid, cfg);
 
-        if (cfg.disableOnCompletion) {
-            cfg.isActive = false;
+            // Only the first claim ends the game; later checks of the same line must not.
+            if (cfg.disableOnCompletion) {
+                cfg.isActive = false;
+            }
         }
 
         // Minimal refresh
-        refreshIfOpen(triggeringPlayer, gid);
+        refreshOwner(triggeringPlayer, game, uuid);
+    }
+
+    private static void enqueueRewards(ServerPlayer winner, CompiledGame.Team team, GameHandle game) {
+        if (team == null) {
+            BingoRewards.enqueue(winner, game);
+            return;
+        }
+        // One roll for the team; offline members are held until they join.
+        BingoRewards.enqueue(winner.getServer(), team.members, game);
     }
 
-    private static void broadcastCompletion(MinecraftServer server, ServerPlayer winner, String gameId, BingoConfig cfg) {
+    private static void broadcastCompletion(MinecraftServer server, String winnerName, String gameId, BingoConfig cfg) {
         if (cfg.completionMessage == null || cfg.completionMessage.isBlank()) return;
 
         String msg = cfg.completionMessage
-                .replace("%player%", winner.getName().getString())
+                .replace("%player%", winnerName)
                 .replace("%game%", gameId);
 
         msg = msg.replace("&", "§");
         server.getPlayerList().broadcastSystemMessage(Component.literal(msg), false);
     }
 
-    private static void runWeightedCompletionCommand(MinecraftServer server, ServerPlayer winner, BingoConfig cfg) {
-        if (cfg.onCompletion == null || cfg.onCompletion.isEmpty()) return;
-
-        int total = 0;
-        for (BingoConfig.WeightedCommand wc : cfg.onCompletion) {
-            if (wc == null) continue;
-            total += Math.max(1, wc.weight == null ? 1 : wc.weight);
-        }
-        if (total <= 0) return;
-
-        int r = ThreadLocalRandom.current().nextInt(total);
-        int acc = 0;
-
-        for (BingoConfig.WeightedCommand wc : cfg.onCompletion) {
-            if (wc == null || wc.command == null || wc.command.isBlank()) continue;
-            acc += Math.max(1, wc.weight == null ? 1 : wc.weight);
-            if (r < acc) {
-                server.getCommands().performPrefixedCommand(
-                        winner.createCommandSourceStack(),
-                        wc.command
-                );
-                return;
-            }
-        }
-    }
-
-    private static boolean hasLine(boolean[] done, boolean allowH, boolean allowV, boolean allowD) {
+    static boolean hasLine(boolean[] done, boolean allowH, boolean allowV, boolean allowD) {
         if (allowH) {
             for (int r = 0; r < 5; r++) {
                 boolean ok = true;
@@ -294,13 +336,22 @@ public final class BingoService {
         return false;
     }
 
-    private static SimpleContainer buildContainer(ServerPlayer player, String gameId, BingoConfig cfg) {
+    private static SimpleContainer buildContainer(ServerPlayer player, GameHandle game) {
         SimpleContainer container = new SimpleContainer(CHEST_SIZE);
-        applyContents(player, gameId, cfg, container);
+        applyContents(player, game, container);
         return container;
     }
 
-    private static void applyContents(ServerPlayer player, String gameId, BingoConfig cfg, SimpleContainer container) {
+    private static void applyContents(ServerPlayer player, GameHandle game, SimpleContainer container) {
+        long t = BingoPerf.start();
+        try {
+            fillContents(player, game, container);
+        } finally {
+            BingoPerf.stop(BingoPerf.Section.GUI_REFRESH, t);
+        }
+    }
+
+    private static void fillContents(ServerPlayer player, GameHandle game, SimpleContainer container) {
         for (int i = 0; i < CHEST_SIZE; i++) container.setItem(i, ItemStack.EMPTY);
 
         ItemStack filler = new ItemStack(Items.GRAY_STAINED_GLASS_PANE);
@@ -315,26 +366,34 @@ public final class BingoService {
         }
 
         BingoState state = BingoState.get(player.serverLevel());
-        List<String> board = ensureBoard(player, state, gameId, cfg);
+        List<String> board = ensureBoard(player, state, game);
+        BingoState.GamePartition part = game.partition(state);
+        UUID uuid = game.game.progressOwner(player.getUUID());
 
-        for (int boardSlot = 0; boardSlot < 25; boardSlot++) {
-            String challengeId = board.get(boardSlot);
-            if (challengeId == null || challengeId.isBlank()) continue;
+        fillBoard(container, game, part, uuid, board, id -> claimerName(player, game, id));
+    }
 
-            BingoConfig.BingoChallenge ch = findChallenge(cfg, challengeId);
-            if (ch == null || ch.id == null || ch.id.isBlank()) continue;
+    /** The 25 board icons for one owner. No player access, so benchmarks can drive it. */
+    static void fillBoard(SimpleContainer container, GameHandle game, BingoState.GamePartition part, UUID uuid,
+                          List<String> board, java.util.function.Function<UUID, String> claimerNames) {
+        for (int boardSlot = 0; boardSlot < 25; boardSlot++) {
+            CompiledGame.Challenge ch = game.game.challenge(board.get(boardSlot));
+            if (ch == null) continue;
 
             int chestSlot = boardSlotToChestSlot(boardSlot);
 
-            String key = BingoState.key(gameId, ch.id);
-            boolean completed = state.isCompleted(player.getUUID(), key);
+            boolean completed = part.isCompleted(uuid, ch.id);
 
-            int goal = goalFor(ch);
-            int prog = state.getProgress(player.getUUID(), key);
+            int goal = ch.goal;
+            int prog = part.getProgress(uuid, ch.id);
             if (completed) prog = Math.max(prog, goal);
 
             List<Component> extraLore = List.of(Component.literal("Progress: " + prog + " / " + goal));
-            ItemStack icon = BingoIconUtil.createIconStack(ch, extraLore);
+            UUID claimedBy = part.claimedBy(ch);
+            if (claimedBy != null && !claimedBy.equals(uuid)) {
+                extraLore = List.of(Component.literal("§cClaimed by " + claimerNames.apply(claimedBy)));
+            }
+            ItemStack icon = BingoIconUtil.createIconStack(ch.source, extraLore);
 
             if (completed) {
                 icon.set(DataComponents.ENCHANTMENT_GLINT_OVERRIDE, true);
@@ -344,6 +403,18 @@ public final class BingoService {
         }
     }
 
+    private static String claimerName(ServerPlayer viewer, GameHandle game, UUID id) {
+        CompiledGame.Team team = game.game.team(id);
+        if (team != null) return team.name;
+        MinecraftServer server = viewer.getServer();
+        if (server == null) return "another player";
+        ServerPlayer online = server.getPlayerList().getPlayer(id);
+        if (online != null) return online.getName().getString();
+        var cache = server.getProfileCache();
+        if (cache == null) return "another player";
+        return cache.get(id).map(p -> p.getName()).orElse("another player");
+    }
+
     private static int boardSlotToChestSlot(int boardSlot) {
         int row = boardSlot / 5;
         int col = boardSlot % 5;
@@ -351,8 +422,25 @@ public final class BingoService {
         return row * 9 + chestCol;
     }
 
-    private static List<String> createBoardForPlayer(ServerPlayer player, BingoConfig cfg) {
-        net.minecraft.util.RandomSource rand = player.getRandom();
+    /**
+     * Builds a 25-slot board from the config using only the given random source.
+     * Does not touch players or state, so it is safe to call off the server thread.
+     */
+    static List<String> createBoard(BingoConfig cfg, net.minecraft.util.RandomSource rand) {
+        long t = BingoPerf.start();
+        try {
+            return generateBoard(cfg, rand);
+        } finally {
+            BingoPerf.stop(BingoPerf.Section.BOARD_GEN, t);
+        }
+    }
+
+    private static List<String> generateBoard(BingoConfig cfg, net.minecraft.util.RandomSource rand) {
+        if (cfg.isRandomized && cfg.boardGenerator != null) {
+            List<String> constrained = cfg.boardGenerator.generate(rand);
+            if (constrained != null) return constrained;
+            // Budget exhausted: fall through to weight-only generation.
+        }
 
         if (cfg.isRandomized) {
             List<BingoConfig.BingoChallenge> chosen = chooseTwentyFive(cfg, rand);
@@ -385,7 +473,7 @@ public final class BingoService {
         return board;
     }
 
-    private static List<BingoConfig.BingoChallenge> chooseTwentyFive(BingoConfig cfg, net.minecraft.util.RandomSource rand) {
+    static List<BingoConfig.BingoChallenge> chooseTwentyFive(BingoConfig cfg, net.minecraft.util.RandomSource rand) {
         List<BingoConfig.BingoChallenge> all = new ArrayList<>();
         for (var ch : cfg.challenges) if (ch != null && ch.id != null && !ch.id.isBlank()) all.add(ch);
 
@@ -438,16 +526,4 @@ public final class BingoService {
         }
         return options.get(options.size() - 1);
     }
-
-    private static String sanitize(String s) {
-        if (s == null || s.isBlank()) return "default";
-        String t = s.trim().toLowerCase(Locale.ROOT);
-        t = t.replaceAll("[^a-z0-9._-]", "_");
-        if (t.length() > 64) t = t.substring(0, 64);
-        return t;
-    }
-
-    private static String nullToEmpty(String s) {
-        return s == null ? "" : s;
-    }
-}
\ No newline at end of file
+}
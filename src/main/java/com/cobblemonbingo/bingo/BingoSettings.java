@@ -0,0 +1,84 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Server-wide settings from config/bingo-settings.json (not config/bingo: every file there is a game).
+ * Read once on server start; a missing file is written with defaults.
+ */
+public final class BingoSettings {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Path FILE = FabricLoader.getInstance().getConfigDir().resolve("bingo-settings.json");
+
+    /** Start with /bingo perf timings collected (can be toggled with /bingo perf on|off). */
+    public boolean profiling = false;
+
+    public Replication replication = new Replication();
+
+    public Metrics metrics = new Metrics();
+
+    /** Prometheus text metrics. Off by default. */
+    public static final class Metrics {
+        public boolean enabled = false;
+
+        /** "http" (serve /metrics) or "file" (rewrite a file periodically). */
+        public String mode = "http";
+
+        /** http: keep this on localhost unless the port is firewalled. */
+        public String host = "127.0.0.1";
+        public int port = 9464;
+
+        /** file: path relative to the server directory. */
+        public String file = "bingo-metrics.prom";
+        public int intervalSeconds = 15;
+    }
+
+    /** Progress sharing between backends behind one proxy. Off by default. */
+    public static final class Replication {
+        public boolean enabled = false;
+
+        /** Unique per backend. Blank => a random id per start (fine unless you read the logs). */
+        public String serverId = "";
+
+        /** "socket" or "loopback" (in-process, for tests). */
+        public String transport = "socket";
+
+        /** socket: exactly one backend listens, the others connect to it. */
+        public boolean listen = false;
+        public String host = "127.0.0.1";
+        public int port = 25590;
+
+        /** loopback: transports on the same channel see each other. */
+        public String channel = "bingo";
+
+        /** Changes are coalesced and sent once per interval. */
+        public int flushIntervalTicks = 10;
+    }
+
+    public static BingoSettings load() {
+        try {
+            if (Files.exists(FILE)) {
+                BingoSettings s = GSON.fromJson(Files.readString(FILE, StandardCharsets.UTF_8), BingoSettings.class);
+                if (s != null) {
+                    if (s.replication == null) s.replication = new Replication();
+                    if (s.metrics == null) s.metrics = new Metrics();
+                    return s;
+                }
+            } else {
+                Files.createDirectories(FILE.getParent());
+                Files.writeString(FILE, GSON.toJson(new BingoSettings()), StandardCharsets.UTF_8);
+            }
+        } catch (Exception e) {
+            Cobblemonbingo.LOGGER.error("Failed to read {}, using defaults", FILE.getFileName(), e);
+        }
+        return new BingoSettings();
+    }
+}
@@ -0,0 +1,229 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain TCP transport in a star layout: one backend listens and relays every frame to the other
+ * connections, the rest connect to it and reconnect with backoff. Frames are length-prefixed.
+ *
+ * Each connection has its own reader and writer thread; a peer that stops reading fills its
+ * queue and is disconnected rather than holding memory (it catches up when it reconnects).
+ * Closing lets each writer drain its queue for up to CLOSE_TIMEOUT_MILLIS before the sockets go.
+ */
+public final class BingoSocketTransport implements BingoTransport {
+
+    private static final int MAX_FRAME = 16 << 20;
+    private static final int MAX_QUEUED = 1024;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 2_000;
+    // Queued after the last frame on close; the writer flushes and stops when it sees it.
+    private static final byte[] END = new byte[0];
+
+    private final String host;
+    private final int port;
+    private final boolean listen;
+
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private volatile Receiver receiver;
+    private volatile boolean closed;
+    private ServerSocket serverSocket;
+    private Thread thread;
+
+    public BingoSocketTransport(String host, int port, boolean listen) {
+        this.host = (host == null || host.isBlank()) ? "127.0.0.1" : host;
+        this.port = port;
+        this.listen = listen;
+    }
+
+    @Override
+    public synchronized void start(Receiver receiver) {
+        this.receiver = receiver;
+        if (listen) {
+            try {
+                serverSocket = new ServerSocket(port, 50, InetAddress.getByName(host));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Bingo sync: cannot listen on " + host + ":" + port, e);
+            }
+            thread = new Thread(this::acceptLoop, "Bingo-Sync-Accept");
+        } else {
+            thread = new Thread(this::connectLoop, "Bingo-Sync-Connect");
+        }
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void send(byte[] message) {
+        for (Connection c : connections) c.offer(message);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException ignored) {}
+        }
+        if (thread != null) thread.interrupt();
+
+        long deadline = System.nanoTime() + CLOSE_TIMEOUT_MILLIS * 1_000_000L;
+        for (Connection c : connections) c.drain(deadline);
+        for (Connection c : connections) c.close();
+    }
+
+    // -----------------
+    // Connection management
+    // -----------------
+
+    private void acceptLoop() {
+        Cobblemonbingo.LOGGER.info("Bingo sync listening on {}:{}", host, port);
+        while (!closed) {
+            try {
+                Socket s = serverSocket.accept();
+                open(s);
+                Cobblemonbingo.LOGGER.info("Bingo sync peer connected: {}", s.getRemoteSocketAddress());
+                receiver.onPeerConnected();
+            } catch (IOException e) {
+                if (!closed) Cobblemonbingo.LOGGER.warn("Bingo sync accept failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void connectLoop() {
+        long backoff = 1_000;
+        while (!closed) {
+            try {
+                Socket s = new Socket();
+                s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+                Connection c = open(s);
+                Cobblemonbingo.LOGGER.info("Bingo sync connected to {}:{}", host, port);
+                backoff = 1_000;
+                receiver.onPeerConnected();
+                c.reader.join();
+                if (!closed) Cobblemonbingo.LOGGER.warn("Bingo sync lost connection to {}:{}", host, port);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                Cobblemonbingo.LOGGER.debug("Bingo sync connect failed: {}", e.toString());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+        }
+    }
+
+    private Connection open(Socket s) throws IOException {
+        s.setTcpNoDelay(true);
+        Connection c = new Connection(s);
+        connections.add(c);
+        c.reader.start();
+        c.writer.start();
+        return c;
+    }
+
+    private final class Connection {
+        final Socket socket;
+        final LinkedBlockingQueue<byte[]> out = new LinkedBlockingQueue<>(MAX_QUEUED);
+        final Thread reader;
+        final Thread writer;
+        volatile boolean dead;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+            this.reader = new Thread(this::read, "Bingo-Sync-Read");
+            this.writer = new Thread(this::write, "Bingo-Sync-Write");
+            reader.setDaemon(true);
+            writer.setDaemon(true);
+        }
+
+        void offer(byte[] message) {
+            if (dead) return;
+            if (!out.offer(message)) {
+                Cobblemonbingo.LOGGER.warn("Bingo sync peer {} is not keeping up; disconnecting", socket.getRemoteSocketAddress());
+                close();
+            }
+        }
+
+        private void read() {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                while (!dead) {
+                    int len = in.readInt();
+                    if (len < 0 || len > MAX_FRAME) throw new IOException("bad frame length " + len);
+                    byte[] frame = new byte[len];
+                    in.readFully(frame);
+
+                    Receiver r = receiver;
+                    if (r != null) r.onMessage(frame);
+                    // Hub: relay to everyone else.
+                    if (listen) {
+                        for (Connection c : connections) {
+                            if (c != this) c.offer(frame);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                if (!dead && !closed) Cobblemonbingo.LOGGER.debug("Bingo sync read ended: {}", e.toString());
+            } finally {
+                close();
+            }
+        }
+
+        private void write() {
+            try {
+                DataOutputStream os = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                while (!dead) {
+                    byte[] frame = out.take();
+                    if (frame == END) {
+                        os.flush();
+                        return;
+                    }
+                    os.writeInt(frame.length);
+                    os.write(frame);
+                    if (out.isEmpty()) os.flush();
+                }
+            } catch (InterruptedException | IOException e) {
+                // closed
+            } finally {
+                close();
+            }
+        }
+
+        /** Waits (until deadline) for the writer to send everything queued so far. */
+        void drain(long deadline) {
+            if (dead) return;
+            try {
+                long left = deadline - System.nanoTime();
+                if (left <= 0 || !out.offer(END, left, TimeUnit.NANOSECONDS)) return;
+                left = deadline - System.nanoTime();
+                if (left > 0) writer.join(Math.max(1, left / 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void close() {
+            if (dead) return;
+            dead = true;
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException ignored) {}
+            writer.interrupt();
+        }
+    }
+}
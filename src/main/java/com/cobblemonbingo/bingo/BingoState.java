@@ -5,82 +5,446 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
 import net.minecraft.util.datafix.DataFixTypes;
 import net.minecraft.world.level.saveddata.SavedData;
 
 import java.util.*;
 
+/**
+ * Persistent bingo progress, partitioned by game.
+ *
+ * In memory every game owns a {@link GamePartition} (players, boards, progress, epoch), so hot
+ * paths holding a {@link GameHandle} never build "gameId|challengeId" keys. On disk the original
+ * flat layout (progress / completed / boards / claimedRewards keyed by UUID) is kept unchanged.
+ */
 public final class BingoState extends SavedData {
 
     private static final String NAME = "cobblemon_bingo";
 
-    // UUID -> (key -> progress) where key = "gameId|challengeId"
-    private final Map<UUID, Map<String, Integer>> progress = new HashMap<>();
+    // gameId -> partition
+    private final Map<String, GamePartition> games = new HashMap<>();
 
-    // UUID -> completed keys (same key format)
-    private final Map<UUID, Set<String>> completed = new HashMap<>();
+    // Rolled rewards not yet granted (winner offline, or server stopped first); see BingoRewards.
+    private final Map<UUID, List<HeldReward>> heldRewards = new HashMap<>();
 
-    // UUID -> (gameId -> board[25] challengeIds)
-    private final Map<UUID, Map<String, List<String>>> boards = new HashMap<>();
+    /** A reward entry by game and index in that game's reward table. */
+    public record HeldReward(String gameId, int index) {}
 
-    // NEW: UUID -> set(gameId) where player has already received completion reward for that game
-    private final Map<UUID, Set<String>> claimedRewards = new HashMap<>();
+    // Last Lamport clock used by BingoReplication, so a restart never reuses clock values.
+    private long replicationClock;
 
-    public static BingoState get(ServerLevel level) {
-        ServerLevel overworld = level.getServer().overworld();
-        return overworld.getDataStorage().computeIfAbsent(
-                new Factory<>(BingoState::new, BingoState::load, DataFixTypes.LEVEL),
-                NAME
-        );
+    /** All data for one game. Owned by the state; never replaced, only cleared. */
+    public static final class GamePartition {
+        public final String gameId;
+        private final BingoState owner;
+        private final Map<UUID, PlayerGame> players = new HashMap<>();
+        // reset epoch (bumped on every global reset; input to seeded boards)
+        private int epoch;
+        private final BingoLeaderboard leaderboard = new BingoLeaderboard(this);
+
+        // Compiled game last bound by a GameHandle (server thread only).
+        private CompiledGame compiled;
+        // Lockout: challenge index -> owner. Derived from completions, rebuilt lazily when null.
+        private UUID[] owners;
+
+        private GamePartition(BingoState owner, String gameId) {
+            this.owner = owner;
+            this.gameId = gameId;
+        }
+
+        private PlayerGame player(UUID playerId) {
+            return players.computeIfAbsent(playerId, k -> new PlayerGame());
+        }
+
+        // -----------------
+        // Progress / completion
+        // -----------------
+
+        public int getProgress(UUID playerId, String challengeId) {
+            PlayerGame pg = players.get(playerId);
+            if (pg == null) return 0;
+            return pg.progress.getOrDefault(challengeId, 0);
+        }
+
+        public void addProgress(UUID playerId, String challengeId, int amount) {
+            if (amount <= 0) return;
+            player(playerId).progress.merge(challengeId, amount, Integer::sum);
+            owner.setDirty();
+            replicate(playerId, challengeId);
+        }
+
+        public void setProgress(UUID playerId, String challengeId, int value) {
+            if (value < 0) value = 0;
+            player(playerId).progress.put(challengeId, value);
+            owner.setDirty();
+            replicate(playerId, challengeId);
+        }
+
+        public boolean isCompleted(UUID playerId, String challengeId) {
+            PlayerGame pg = players.get(playerId);
+            return pg != null && pg.completed.contains(challengeId);
+        }
+
+        /** Returns false if already completed, or (lockout) claimed by someone else. */
+        public boolean markCompleted(UUID playerId, String challengeId) {
+            UUID[] own = owners();
+            CompiledGame.Challenge ch = own == null ? null : compiled.challenge(challengeId);
+            if (ch != null && own[ch.index] != null && !own[ch.index].equals(playerId)) return false;
+
+            if (!player(playerId).completed.add(challengeId)) return false;
+            if (ch != null) own[ch.index] = playerId; // claim
+            owner.setDirty();
+            leaderboard.update(playerId);
+            BingoMetrics.completed();
+            replicate(playerId, challengeId);
+            BingoApi.fireCompleted(playerId, gameId, challengeId);
+            return true;
+        }
+
+        private void replicate(UUID playerId, String challengeId) {
+            if (!BingoReplication.capturing()) return;
+            PlayerGame pg = players.get(playerId);
+            BingoReplication.progress(gameId, epoch, playerId, challengeId,
+                    pg.progress.getOrDefault(challengeId, 0), pg.completed.contains(challengeId));
+        }
+
+        // -----------------
+        // Boards
+        // -----------------
+
+        public List<String> getBoard(UUID playerId) {
+            PlayerGame pg = players.get(playerId);
+            return pg == null ? null : pg.board;
+        }
+
+        public void setBoard(UUID playerId, List<String> board25) {
+            if (board25 == null || board25.size() != 25) return;
+            PlayerGame pg = player(playerId);
+            pg.board = new ArrayList<>(board25);
+            pg.boardDerived = false;
+            owner.setDirty();
+            leaderboard.update(playerId);
+            if (BingoReplication.capturing()) BingoReplication.board(gameId, epoch, playerId, pg.board);
+        }
+
+        /** Caches a seeded board in memory only. Does not mark the state dirty. */
+        public void cacheDerivedBoard(UUID playerId, List<String> board25) {
+            if (board25 == null || board25.size() != 25) return;
+            PlayerGame pg = player(playerId);
+            pg.board = List.copyOf(board25);
+            pg.boardDerived = true;
+            leaderboard.update(playerId);
+        }
+
+        /** Forgets all in-memory seeded boards; they are re-derived on next access. Returns how many. */
+        public int dropDerivedBoards() {
+            int dropped = 0;
+            for (PlayerGame pg : players.values()) {
+                if (pg.boardDerived && pg.board != null) {
+                    pg.board = null;
+                    pg.boardDerived = false;
+                    dropped++;
+                }
+            }
+            if (dropped > 0) leaderboard.invalidate();
+            return dropped;
+        }
+
+        public int epoch() {
+            return epoch;
+        }
+
+        // -----------------
+        // Leaderboard
+        // -----------------
+
+        public BingoLeaderboard leaderboard() {
+            return leaderboard;
+        }
+
+        /** Binds the current compiled game: line rules for the leaderboard, lockout ownership. */
+        void bind(CompiledGame game) {
+            leaderboard.setLines(game.lineMasks);
+            if (game != compiled) {
+                compiled = game;
+                owners = null;
+            }
+        }
+
+        // -----------------
+        // Lockout
+        // -----------------
+
+        /** Owner of a square in a lockout game, else null. */
+        public UUID claimedBy(CompiledGame.Challenge ch) {
+            UUID[] own = owners();
+            return own == null ? null : own[ch.index];
+        }
+
+        /** Fast rejection: true if the square is claimed by someone other than playerId. */
+        public boolean isLockedFor(UUID playerId, CompiledGame.Challenge ch) {
+            UUID[] own = owners();
+            if (own == null) return false;
+            UUID o = own[ch.index];
+            return o != null && !o.equals(playerId);
+        }
+
+        private UUID[] owners() {
+            if (compiled == null || !compiled.lockout) return null;
+            if (owners == null) {
+                UUID[] own = new UUID[compiled.challenges.size()];
+                for (var e : players.entrySet()) {
+                    for (String id : e.getValue().completed) {
+                        CompiledGame.Challenge ch = compiled.challenge(id);
+                        if (ch != null && own[ch.index] == null) own[ch.index] = e.getKey();
+                    }
+                }
+                owners = own;
+            }
+            return owners;
+        }
+
+        /**
+         * Packed leaderboard score from the player's board and completions. Seeded boards are not
+         * saved, so after a restart (or reload) one is derived here if the player has completions.
+         */
+        int score(UUID playerId, int[] lineMasks) {
+            PlayerGame pg = players.get(playerId);
+            if (pg == null || pg.completed.isEmpty()) return 0;
+            List<String> board = pg.board;
+            if (board == null) board = derive(playerId, pg);
+            if (board == null) return 0;
+
+            int mask = 0;
+            for (int i = 0; i < 25 && i < board.size(); i++) {
+                String id = board.get(i);
+                if (id == null || id.isEmpty()) continue;
+                // Boards hold raw ids, completions trimmed ones.
+                if (pg.completed.contains(id) || pg.completed.contains(id.trim())) mask |= 1 << i;
+            }
+            if (mask == 0) return 0;
+
+            int best = 0;
+            for (int line : lineMasks) best = Math.max(best, Integer.bitCount(mask & line));
+            return BingoLeaderboard.pack(best, Integer.bitCount(mask));
+        }
+
+        /** The seeded board ensureBoard would deal, cached like one; null if the game isn't seeded. */
+        private List<String> derive(UUID playerId, PlayerGame pg) {
+            if (compiled == null || !compiled.config.isSeeded) return null;
+            BingoConfig cfg = compiled.config;
+            long seed = BingoService.boardSeed(cfg, gameId, playerId, epoch);
+            List<String> board = BingoService.createBoard(cfg, RandomSource.create(seed));
+            if (board == null || board.size() != 25) return null;
+            // Not via cacheDerivedBoard: that would update the leaderboard, which is what called us.
+            pg.board = List.copyOf(board);
+            pg.boardDerived = true;
+            return pg.board;
+        }
+
+        // -----------------
+        // Reward claim tracking
+        // -----------------
+
+        public boolean hasClaimedReward(UUID playerId) {
+            PlayerGame pg = players.get(playerId);
+            return pg != null && pg.claimedReward;
+        }
+
+        public void markClaimedReward(UUID playerId) {
+            player(playerId).claimedReward = true;
+            owner.setDirty();
+            if (BingoReplication.capturing()) BingoReplication.claim(gameId, epoch, playerId);
+        }
+
+        public void clearClaimedReward(UUID playerId) {
+            PlayerGame pg = players.get(playerId);
+            if (pg == null || !pg.claimedReward) return;
+            pg.claimedReward = false;
+            owner.setDirty();
+        }
+
+        // -----------------
+        // Resets
+        // -----------------
+
+        public Set<UUID> players() {
+            return Collections.unmodifiableSet(players.keySet());
+        }
+
+        /** Clears progress, board and claimed reward for one player. */
+        public void resetPlayer(UUID playerId) {
+            long t = BingoMetrics.now();
+            if (players.remove(playerId) != null) {
+                owner.setDirty();
+                leaderboard.remove(playerId);
+                owners = null;
+                BingoMetrics.reset(t);
+            }
+            if (BingoReplication.capturing()) BingoReplication.resetPlayer(gameId, epoch, playerId);
+        }
+
+        /** Clears the game for everyone and advances the epoch, so seeded games deal new boards. */
+        public void resetAll() {
+            long t = BingoMetrics.now();
+            players.clear();
+            epoch++;
+            owner.setDirty();
+            leaderboard.clear();
+            owners = null;
+            if (BingoReplication.capturing()) BingoReplication.resetGame(gameId, epoch);
+            BingoMetrics.reset(t);
+        }
+
+        /** Replication: a lockout square went to an earlier claim elsewhere. Progress is kept. */
+        void revokeCompletion(UUID playerId, String challengeId) {
+            PlayerGame pg = players.get(playerId);
+            if (pg == null || !pg.completed.remove(challengeId)) return;
+            owner.setDirty();
+            leaderboard.update(playerId);
+            owners = null;
+        }
+
+        /** Replication: challenge ids the player has progress or a completion for. */
+        Set<String> challengeIds(UUID playerId) {
+            PlayerGame pg = players.get(playerId);
+            if (pg == null) return Set.of();
+            Set<String> ids = new HashSet<>(pg.progress.keySet());
+            ids.addAll(pg.completed);
+            return ids;
+        }
+
+        /** Replication: another backend reset this game; adopt its (newer) epoch. */
+        void resetTo(int newEpoch) {
+            players.clear();
+            epoch = newEpoch;
+            owner.setDirty();
+            leaderboard.clear();
+            owners = null;
+        }
+
+        /** Rough resident size of this game's records, for metrics. O(records). */
+        long estimateBytes() {
+            // HashMap entry + PlayerGame + its maps; per progress entry (boxed int, string key shared
+            // with the config) and per completion; a saved board is a 25-slot list.
+            long bytes = 0;
+            for (PlayerGame pg : players.values()) {
+                bytes += 200 + pg.progress.size() * 56L + pg.completed.size() * 40L;
+                if (pg.board != null) bytes += 140;
+            }
+            return bytes;
+        }
+
+        /** Replication catch-up: every stored record. Seeded (derived) boards are not exported. */
+        void exportTo(BingoReplication.Exporter out) {
+            for (var e : players.entrySet()) {
+                PlayerGame pg = e.getValue();
+                out.record(e.getKey(), pg.progress, pg.completed, pg.boardDerived ? null : pg.board, pg.claimedReward);
+            }
+        }
+
+        /**
+         * Drops players with no progress, completions or claimed reward (boards created but never
+         * played), except those in keep. Returns how many were removed.
+         */
+        public int compact(Set<UUID> keep) {
+            int removed = 0;
+            Iterator<Map.Entry<UUID, PlayerGame>> it = players.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<UUID, PlayerGame> e = it.next();
+                if (keep.contains(e.getKey()) || !e.getValue().isUntouched()) continue;
+                it.remove();
+                removed++;
+            }
+            if (removed > 0) owner.setDirty();
+            return removed;
+        }
+
+        /** Resets one challenge's progress/completion. Does NOT clear claimed rewards. */
+        public void resetChallenge(UUID playerId, String challengeId) {
+            PlayerGame pg = players.get(playerId);
+            if (pg == null) return;
+            if (BingoReplication.capturing()) BingoReplication.resetChallenge(gameId, epoch, playerId, challengeId);
+            boolean changed = pg.progress.remove(challengeId) != null;
+            boolean uncompleted = pg.completed.remove(challengeId);
+            changed |= uncompleted;
+            if (changed) owner.setDirty();
+            if (uncompleted) {
+                leaderboard.update(playerId);
+                owners = null;
+            }
+        }
     }
 
-    // -----------------
-    // Progress / completion
-    // -----------------
+    /** One player's data in one game. Keys are raw challenge ids. */
+    private static final class PlayerGame {
+        final Map<String, Integer> progress = new HashMap<>();
+        final Set<String> completed = new HashSet<>();
+        List<String> board;
+        boolean boardDerived;
+        boolean claimedReward;
+
+        boolean isUntouched() {
+            if (claimedReward || !completed.isEmpty()) return false;
+            for (int v : progress.values()) {
+                if (v > 0) return false;
+            }
+            return true;
+        }
+    }
 
-    public int getProgress(UUID playerId, String key) {
-        Map<String, Integer> m = progress.get(playerId);
-        if (m == null) return 0;
-        return m.getOrDefault(key, 0);
+    /** Cached per running server (see {@link BingoRuntime}); falls back to a data-storage lookup. */
+    public static BingoState get(ServerLevel level) {
+        BingoRuntime rt = BingoRuntime.of(level.getServer());
+        return rt != null ? rt.state() : lookup(level.getServer());
     }
 
-    public void addProgress(UUID playerId, String key, int amount) {
-        if (amount <= 0) return;
-        progress.computeIfAbsent(playerId, k -> new HashMap<>()).merge(key, amount, Integer::sum);
-        setDirty();
+    static BingoState lookup(MinecraftServer server) {
+        ServerLevel overworld = server.overworld();
+        return overworld.getDataStorage().computeIfAbsent(
+                new Factory<>(BingoState::new, BingoState::load, DataFixTypes.LEVEL),
+                NAME
+        );
     }
 
-    public void setProgress(UUID playerId, String key, int value) {
-        if (value < 0) value = 0;
-        progress.computeIfAbsent(playerId, k -> new HashMap<>()).put(key, value);
-        setDirty();
+    /** Partition for a canonical game id, created on first use. */
+    public GamePartition partition(String gameId) {
+        return games.computeIfAbsent(gameId, k -> new GamePartition(this, k));
     }
 
-    public boolean isCompleted(UUID playerId, String key) {
-        Set<String> s = completed.get(playerId);
-        return s != null && s.contains(key);
+    /** Every partition, including games whose config is no longer loaded. */
+    public Collection<GamePartition> partitions() {
+        return Collections.unmodifiableCollection(games.values());
     }
 
-    public void markCompleted(UUID playerId, String key) {
-        completed.computeIfAbsent(playerId, k -> new HashSet<>()).add(key);
-        setDirty();
+    private static String norm(String gameId) {
+        return gameId.trim().toLowerCase(Locale.ROOT);
     }
 
     // -----------------
-    // Boards
+    // Boards (by game id)
     // -----------------
 
     public List<String> getBoard(UUID playerId, String gameId) {
-        Map<String, List<String>> per = boards.get(playerId);
-        if (per == null) return null;
-        return per.get(gameId);
+        GamePartition part = games.get(gameId);
+        return part == null ? null : part.getBoard(playerId);
     }
 
     public void setBoard(UUID playerId, String gameId, List<String> board25) {
-        if (board25 == null || board25.size() != 25) return;
-        boards.computeIfAbsent(playerId, k -> new HashMap<>()).put(gameId, new ArrayList<>(board25));
-        setDirty();
+        partition(gameId).setBoard(playerId, board25);
+    }
+
+    public void cacheDerivedBoard(UUID playerId, String gameId, List<String> board25) {
+        partition(gameId).cacheDerivedBoard(playerId, board25);
+    }
+
+    public int getEpoch(String gameId) {
+        if (gameId == null || gameId.isBlank()) return 0;
+        GamePartition part = games.get(norm(gameId));
+        return part == null ? 0 : part.epoch;
     }
 
     // -----------------
@@ -89,27 +453,49 @@ public final class BingoState extends SavedData {
 
     public boolean hasClaimedReward(UUID playerId, String gameId) {
         if (playerId == null || gameId == null || gameId.isBlank()) return false;
-        String gid = gameId.trim().toLowerCase(Locale.ROOT);
-        Set<String> s = claimedRewards.get(playerId);
-        return s != null && s.contains(gid);
+        GamePartition part = games.get(norm(gameId));
+        return part != null && part.hasClaimedReward(playerId);
     }
 
     public void markClaimedReward(UUID playerId, String gameId) {
         if (playerId == null || gameId == null || gameId.isBlank()) return;
-        String gid = gameId.trim().toLowerCase(Locale.ROOT);
-        claimedRewards.computeIfAbsent(playerId, k -> new HashSet<>()).add(gid);
-        setDirty();
+        partition(norm(gameId)).markClaimedReward(playerId);
     }
 
     public void clearClaimedReward(UUID playerId, String gameId) {
         if (playerId == null || gameId == null || gameId.isBlank()) return;
-        String gid = gameId.trim().toLowerCase(Locale.ROOT);
-        Set<String> s = claimedRewards.get(playerId);
-        if (s == null) return;
-        if (s.remove(gid)) {
-            if (s.isEmpty()) claimedRewards.remove(playerId);
-            setDirty();
-        }
+        GamePartition part = games.get(norm(gameId));
+        if (part != null) part.clearClaimedReward(playerId);
+    }
+
+    // -----------------
+    // Held rewards
+    // -----------------
+
+    public void holdReward(UUID playerId, String gameId, int index) {
+        heldRewards.computeIfAbsent(playerId, k -> new ArrayList<>()).add(new HeldReward(gameId, index));
+        setDirty();
+    }
+
+    /** Removes and returns the player's held rewards, or null if there are none. */
+    public List<HeldReward> takeHeldRewards(UUID playerId) {
+        List<HeldReward> held = heldRewards.remove(playerId);
+        if (held != null) setDirty();
+        return held;
+    }
+
+    // -----------------
+    // Replication clock
+    // -----------------
+
+    long replicationClock() {
+        return replicationClock;
+    }
+
+    void advanceReplicationClock(long clock) {
+        if (clock <= replicationClock) return;
+        replicationClock = clock;
+        setDirty();
     }
 
     // -----------------
@@ -118,10 +504,7 @@ public final class BingoState extends SavedData {
 
     public Set<UUID> allKnownPlayers() {
         Set<UUID> out = new HashSet<>();
-        out.addAll(progress.keySet());
-        out.addAll(completed.keySet());
-        out.addAll(boards.keySet());
-        out.addAll(claimedRewards.keySet());
+        for (GamePartition part : games.values()) out.addAll(part.players.keySet());
         return out;
     }
 
@@ -129,48 +512,25 @@ public final class BingoState extends SavedData {
         if (playerId == null) return;
         if (gameId == null || gameId.isBlank()) return;
 
-        String gid = gameId.trim().toLowerCase(Locale.ROOT);
-        String prefix = gid + "|";
-
-        Map<String, Integer> pm = progress.get(playerId);
-        if (pm != null) {
-            pm.keySet().removeIf(k -> k.startsWith(prefix));
-            if (pm.isEmpty()) progress.remove(playerId);
-        }
-
-        Set<String> cs = completed.get(playerId);
-        if (cs != null) {
-            cs.removeIf(k -> k.startsWith(prefix));
-            if (cs.isEmpty()) completed.remove(playerId);
-        }
-
-        Map<String, List<String>> b = boards.get(playerId);
-        if (b != null) {
-            b.remove(gid);
-            if (b.isEmpty()) boards.remove(playerId);
-        }
-
-        // IMPORTANT: resetbingo should allow re-earning completion reward
-        clearClaimedReward(playerId, gid);
+        // IMPORTANT: resetbingo should allow re-earning completion reward (cleared with the player record)
+        GamePartition part = games.get(norm(gameId));
+        if (part != null) part.resetPlayer(playerId);
 
         setDirty();
     }
 
     public void resetAllGamesForPlayer(UUID playerId) {
         if (playerId == null) return;
-        progress.remove(playerId);
-        completed.remove(playerId);
-        boards.remove(playerId);
-        claimedRewards.remove(playerId);
+        for (GamePartition part : games.values()) part.resetPlayer(playerId);
         setDirty();
     }
 
+    /** Also bumps the game's epoch, so seeded games deal everyone a new board. */
+    /** No-op for a game that has no partition yet (nothing to clear, and no epoch to advance). */
     public void resetGameForAllPlayers(String gameId) {
         if (gameId == null || gameId.isBlank()) return;
-        for (UUID id : allKnownPlayers()) {
-            resetGameForPlayer(id, gameId);
-        }
-        setDirty();
+        GamePartition part = games.get(norm(gameId));
+        if (part != null) part.resetAll();
     }
 
     // -----------------
@@ -188,43 +548,16 @@ public final class BingoState extends SavedData {
         if (challengeId == null || challengeId.isBlank()) return;
 
         String cid = challengeId.trim();
-        String suffix = "|" + cid;
 
         if (gameIdOrNull != null && !gameIdOrNull.isBlank()) {
-            String gid = gameIdOrNull.trim().toLowerCase(Locale.ROOT);
-            String key = gid + "|" + cid;
-
-            Map<String, Integer> pm = progress.get(playerId);
-            if (pm != null) {
-                if (pm.remove(key) != null) {
-                    if (pm.isEmpty()) progress.remove(playerId);
-                }
-            }
-
-            Set<String> cs = completed.get(playerId);
-            if (cs != null) {
-                if (cs.remove(key)) {
-                    if (cs.isEmpty()) completed.remove(playerId);
-                }
-            }
-
+            GamePartition part = games.get(norm(gameIdOrNull));
+            if (part != null) part.resetChallenge(playerId, cid);
             setDirty();
             return;
         }
 
-        // Across ALL games: remove any key that ends with "|<cid>"
-        Map<String, Integer> pm = progress.get(playerId);
-        if (pm != null) {
-            pm.keySet().removeIf(k -> k.endsWith(suffix));
-            if (pm.isEmpty()) progress.remove(playerId);
-        }
-
-        Set<String> cs = completed.get(playerId);
-        if (cs != null) {
-            cs.removeIf(k -> k.endsWith(suffix));
-            if (cs.isEmpty()) completed.remove(playerId);
-        }
-
+        // Across ALL games
+        for (GamePartition part : games.values()) part.resetChallenge(playerId, cid);
         setDirty();
     }
 
@@ -241,10 +574,10 @@ public final class BingoState extends SavedData {
     }
 
     // -----------------
-    // NBT persistence
+    // NBT persistence (flat legacy layout; keys are "gameId|challengeId")
     // -----------------
 
-    private static BingoState load(CompoundTag tag, HolderLookup.Provider provider) {
+    static BingoState load(CompoundTag tag, HolderLookup.Provider provider) {
         BingoState state = new BingoState();
 
         // progress
@@ -253,11 +586,11 @@ public final class BingoState extends SavedData {
             try {
                 UUID uuid = UUID.fromString(uuidStr);
                 CompoundTag per = pRoot.getCompound(uuidStr);
-                Map<String, Integer> map = new HashMap<>();
                 for (String k : per.getAllKeys()) {
-                    map.put(k, per.getInt(k));
+                    int sep = k.indexOf('|');
+                    if (sep <= 0) continue;
+                    state.partition(k.substring(0, sep)).player(uuid).progress.put(k.substring(sep + 1), per.getInt(k));
                 }
-                if (!map.isEmpty()) state.progress.put(uuid, map);
             } catch (Exception ignored) {}
         }
 
@@ -267,11 +600,12 @@ public final class BingoState extends SavedData {
             try {
                 UUID uuid = UUID.fromString(uuidStr);
                 ListTag list = cRoot.getList(uuidStr, Tag.TAG_STRING);
-                Set<String> set = new HashSet<>();
                 for (int i = 0; i < list.size(); i++) {
-                    set.add(list.getString(i));
+                    String k = list.getString(i);
+                    int sep = k.indexOf('|');
+                    if (sep <= 0) continue;
+                    state.partition(k.substring(0, sep)).player(uuid).completed.add(k.substring(sep + 1));
                 }
-                if (!set.isEmpty()) state.completed.put(uuid, set);
             } catch (Exception ignored) {}
         }
 
@@ -282,16 +616,13 @@ public final class BingoState extends SavedData {
                 UUID uuid = UUID.fromString(uuidStr);
                 CompoundTag per = bRoot.getCompound(uuidStr);
 
-                Map<String, List<String>> games = new HashMap<>();
                 for (String gameId : per.getAllKeys()) {
                     ListTag list = per.getList(gameId, Tag.TAG_STRING);
                     if (list.size() != 25) continue;
                     List<String> board = new ArrayList<>(25);
                     for (int i = 0; i < 25; i++) board.add(list.getString(i));
-                    games.put(gameId, board);
+                    state.partition(gameId).player(uuid).board = board;
                 }
-
-                if (!games.isEmpty()) state.boards.put(uuid, games);
             } catch (Exception ignored) {}
         }
 
@@ -301,69 +632,116 @@ public final class BingoState extends SavedData {
             try {
                 UUID uuid = UUID.fromString(uuidStr);
                 ListTag list = rRoot.getList(uuidStr, Tag.TAG_STRING);
-                Set<String> set = new HashSet<>();
                 for (int i = 0; i < list.size(); i++) {
                     String gid = list.getString(i);
-                    if (gid != null && !gid.isBlank()) set.add(gid.trim().toLowerCase(Locale.ROOT));
+                    if (gid != null && !gid.isBlank()) state.partition(norm(gid)).player(uuid).claimedReward = true;
                 }
-                if (!set.isEmpty()) state.claimedRewards.put(uuid, set);
             } catch (Exception ignored) {}
         }
 
+        // gameEpochs
+        CompoundTag eRoot = tag.getCompound("gameEpochs");
+        for (String gid : eRoot.getAllKeys()) {
+            state.partition(gid).epoch = eRoot.getInt(gid);
+        }
+
+        // heldRewards: "gameId|index" per player
+        CompoundTag hRoot = tag.getCompound("heldRewards");
+        for (String uuidStr : hRoot.getAllKeys()) {
+            try {
+                UUID uuid = UUID.fromString(uuidStr);
+                ListTag list = hRoot.getList(uuidStr, Tag.TAG_STRING);
+                for (int i = 0; i < list.size(); i++) {
+                    String k = list.getString(i);
+                    int sep = k.lastIndexOf('|');
+                    if (sep <= 0) continue;
+                    state.heldRewards.computeIfAbsent(uuid, x -> new ArrayList<>())
+                            .add(new HeldReward(k.substring(0, sep), Integer.parseInt(k.substring(sep + 1))));
+                }
+            } catch (Exception ignored) {}
+        }
+
+        state.replicationClock = tag.getLong("replicationClock");
+
         return state;
     }
 
     @Override
     public CompoundTag save(CompoundTag tag, HolderLookup.Provider provider) {
-        CompoundTag pRoot = new CompoundTag();
-        for (var e : progress.entrySet()) {
-            CompoundTag per = new CompoundTag();
-            for (var pe : e.getValue().entrySet()) {
-                per.putInt(pe.getKey(), pe.getValue());
+        long t = BingoPerf.start();
+        try {
+            CompoundTag out = write(tag);
+            if (BingoMetrics.enabled && t != 0L) BingoMetrics.saved(System.nanoTime() - t, out.sizeInBytes());
+            return out;
+        } finally {
+            BingoPerf.stop(BingoPerf.Section.SAVE, t);
+        }
+    }
+
+    private CompoundTag write(CompoundTag tag) {
+        Map<UUID, CompoundTag> progressByPlayer = new HashMap<>();
+        Map<UUID, ListTag> completedByPlayer = new HashMap<>();
+        Map<UUID, CompoundTag> boardsByPlayer = new HashMap<>();
+        Map<UUID, ListTag> rewardsByPlayer = new HashMap<>();
+        CompoundTag eRoot = new CompoundTag();
+
+        for (GamePartition part : games.values()) {
+            String prefix = part.gameId + "|";
+            if (part.epoch != 0) eRoot.putInt(part.gameId, part.epoch);
+
+            for (var e : part.players.entrySet()) {
+                UUID uuid = e.getKey();
+                PlayerGame pg = e.getValue();
+
+                if (!pg.progress.isEmpty()) {
+                    CompoundTag per = progressByPlayer.computeIfAbsent(uuid, k -> new CompoundTag());
+                    for (var pe : pg.progress.entrySet()) per.putInt(prefix + pe.getKey(), pe.getValue());
+                }
+                if (!pg.completed.isEmpty()) {
+                    ListTag list = completedByPlayer.computeIfAbsent(uuid, k -> new ListTag());
+                    for (String cid : pg.completed) list.add(StringTag.valueOf(prefix + cid));
+                }
+                // Seeded boards are recomputed on demand, never saved.
+                if (pg.board != null && !pg.boardDerived) {
+                    ListTag list = new ListTag();
+                    for (String cid : pg.board) list.add(StringTag.valueOf(cid));
+                    boardsByPlayer.computeIfAbsent(uuid, k -> new CompoundTag()).put(part.gameId, list);
+                }
+                if (pg.claimedReward) {
+                    rewardsByPlayer.computeIfAbsent(uuid, k -> new ListTag()).add(StringTag.valueOf(part.gameId));
+                }
             }
-            pRoot.put(e.getKey().toString(), per);
         }
+
+        CompoundTag pRoot = new CompoundTag();
+        progressByPlayer.forEach((uuid, per) -> pRoot.put(uuid.toString(), per));
         tag.put("progress", pRoot);
 
         CompoundTag cRoot = new CompoundTag();
-        for (var e : completed.entrySet()) {
-            ListTag list = new ListTag();
-            for (String k : e.getValue()) {
-                list.add(StringTag.valueOf(k));
-            }
-            cRoot.put(e.getKey().toString(), list);
-        }
+        completedByPlayer.forEach((uuid, list) -> cRoot.put(uuid.toString(), list));
         tag.put("completed", cRoot);
 
         CompoundTag bRoot = new CompoundTag();
-        for (var e : boards.entrySet()) {
-            CompoundTag per = new CompoundTag();
-            for (var ge : e.getValue().entrySet()) {
-                ListTag list = new ListTag();
-                for (String cid : ge.getValue()) list.add(StringTag.valueOf(cid));
-                per.put(ge.getKey(), list);
-            }
-            bRoot.put(e.getKey().toString(), per);
-        }
+        boardsByPlayer.forEach((uuid, per) -> bRoot.put(uuid.toString(), per));
         tag.put("boards", bRoot);
 
         // claimedRewards (NEW)
         CompoundTag rRoot = new CompoundTag();
-        for (var e : claimedRewards.entrySet()) {
-            ListTag list = new ListTag();
-            for (String gid : e.getValue()) {
-                list.add(StringTag.valueOf(gid));
-            }
-            rRoot.put(e.getKey().toString(), list);
-        }
+        rewardsByPlayer.forEach((uuid, list) -> rRoot.put(uuid.toString(), list));
         tag.put("claimedRewards", rRoot);
 
-        return tag;
-    }
+        tag.put("gameEpochs", eRoot);
+
+        CompoundTag hRoot = new CompoundTag();
+        heldRewards.forEach((uuid, held) -> {
+            ListTag list = new ListTag();
+            for (HeldReward h : held) list.add(StringTag.valueOf(h.gameId() + "|" + h.index()));
+            hRoot.put(uuid.toString(), list);
+        });
+        tag.put("heldRewards", hRoot);
 
-    public static String key(String gameId, String challengeId) {
-        String gid = (gameId == null ? "default" : gameId.trim().toLowerCase(Locale.ROOT));
-        String cid = (challengeId == null ? "" : challengeId.trim());
-        return gid + "|" + cid;
+        if (replicationClock != 0L) tag.putLong("replicationClock", replicationClock);
+
+        return tag;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,661 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in recording of the events bingo reacts to (/bingo trace start|stop), for offline replay
+ * against another build (src/jmh BingoReplay).
+ *
+ * Records catches, block moves, inventory changes (item totals, only when they differ from the
+ * player's last record), joins/leaves and admin commands. Catches and moves carry what the
+ * environment filters look at: dimension, rain, thunder, time of day, biome and light; catches
+ * also carry every attribute the catch filters test. Players, strings and item ids are
+ * written once and referenced by index; numbers are varints. The server thread only appends to
+ * a byte array; full chunks are gzipped and written on a background thread. When not recording,
+ * every hook is one static read.
+ *
+ * Server thread only, except the writer.
+ */
+public final class BingoTrace {
+    private BingoTrace() {}
+
+    static final int MAGIC = 0x42545243; // "BTRC"
+    /** Format version; the reader accepts only this one. */
+    static final byte VERSION = 1;
+
+    // Record types
+    static final byte TICK = 0;
+    static final byte DEF_PLAYER = 1;
+    static final byte DEF_STRING = 2;
+    static final byte JOIN = 3;
+    static final byte LEAVE = 4;
+    static final byte CATCH = 5;
+    static final byte MOVE = 6;
+    static final byte INVENTORY = 7;
+    static final byte ENABLE = 8;
+    static final byte DISABLE = 9;
+    static final byte RESET_GAME = 10;
+    static final byte RESET_PLAYER = 11;
+    static final byte RESET_CHALLENGE = 12;
+    static final byte RESET_CHALLENGE_ALL = 13;
+    static final byte PROGRESS = 14;
+
+    private static final int CHUNK = 64 * 1024;
+    private static final int FLUSH_INTERVAL_TICKS = 100;
+    private static final int DAY_LENGTH = 24000;
+
+    static volatile boolean recording;
+
+    private static Path file;
+    private static ExecutorService writer;
+    private static OutputStream out; // writer thread only
+
+    private static byte[] buf;
+    private static int pos;
+    private static long bytes;
+    private static long records;
+
+    private static long tick;
+    private static long lastWrittenTick;
+
+    private static final Map<UUID, Integer> PLAYERS = new HashMap<>();
+    private static final Map<String, Integer> STRINGS = new HashMap<>();
+    private static final Map<Item, Integer> ITEMS = new IdentityHashMap<>();
+    private static final Map<ResourceKey<Level>, Integer> DIMENSIONS = new IdentityHashMap<>();
+    private static final Map<ResourceKey<Biome>, Integer> BIOMES = new IdentityHashMap<>();
+    // player -> hash of the last inventory summary written
+    private static final Map<UUID, Long> LAST_INVENTORY = new HashMap<>();
+
+    // Scratch for inventory summaries (slots collapse to distinct items).
+    private static final Item[] INV_ITEMS = new Item[64];
+    private static final int[] INV_COUNTS = new int[64];
+
+    // -----------------
+    // Lifecycle
+    // -----------------
+
+    /** Starts recording to {@code path} (gzip). Returns false if already recording or the file can't be opened. */
+    static synchronized boolean start(Path path) {
+        if (recording) return false;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(path), CHUNK), CHUNK);
+        } catch (IOException e) {
+            Cobblemonbingo.LOGGER.error("Bingo trace: could not open {}: {}", path, e.toString());
+            return false;
+        }
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Bingo-Trace-Writer");
+            t.setDaemon(true);
+            return t;
+        });
+        file = path;
+        buf = new byte[CHUNK];
+        pos = 0;
+        bytes = 0;
+        records = 0;
+        tick = 0;
+        lastWrittenTick = 0;
+        PLAYERS.clear();
+        STRINGS.clear();
+        ITEMS.clear();
+        DIMENSIONS.clear();
+        BIOMES.clear();
+        LAST_INVENTORY.clear();
+
+        writeInt(MAGIC);
+        writeByte(VERSION);
+        writeLong(System.currentTimeMillis());
+        recording = true;
+        Cobblemonbingo.LOGGER.info("Bingo trace: recording to {}", path.toAbsolutePath());
+        return true;
+    }
+
+    /** Stops recording and closes the file (waits for the writer). Safe to call when idle. */
+    static synchronized void stop() {
+        if (!recording) return;
+        recording = false;
+        handOff();
+        ExecutorService w = writer;
+        w.execute(() -> {
+            try {
+                out.close();
+            } catch (IOException e) {
+                Cobblemonbingo.LOGGER.warn("Bingo trace: close failed: {}", e.toString());
+            }
+        });
+        w.shutdown();
+        try {
+            if (!w.awaitTermination(10, TimeUnit.SECONDS)) {
+                Cobblemonbingo.LOGGER.warn("Bingo trace: writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Cobblemonbingo.LOGGER.info("Bingo trace: stopped, {} records, {} KB before compression -> {}",
+                records, bytes / 1024, file.toAbsolutePath());
+        writer = null;
+        buf = null;
+        PLAYERS.clear();
+        STRINGS.clear();
+        ITEMS.clear();
+        DIMENSIONS.clear();
+        BIOMES.clear();
+        LAST_INVENTORY.clear();
+    }
+
+    static String status() {
+        if (!recording) return "[Bingo] Trace: not recording.";
+        return String.format(Locale.ROOT, "[Bingo] Trace: recording to %s, %d records, %d KB (uncompressed), %d ticks.",
+                file, records, (bytes + pos) / 1024, tick);
+    }
+
+    /** Start of every server tick. */
+    static void tick() {
+        if (!recording) return;
+        tick++;
+        if (tick % FLUSH_INTERVAL_TICKS == 0 && pos > 0) handOff();
+    }
+
+    // -----------------
+    // Hooks
+    // -----------------
+
+    static void join(UUID player) {
+        if (!recording) return;
+        int p = player(player);
+        begin(JOIN);
+        writeVarInt(p);
+    }
+
+    static void leave(UUID player) {
+        if (!recording) return;
+        int p = player(player);
+        begin(LEAVE);
+        writeVarInt(p);
+        LAST_INVENTORY.remove(player);
+    }
+
+    static void capture(BingoPlayer player, CatchAttributes caught) {
+        if (!recording) return;
+        int p = player(player.id());
+        int w = world(player.world());
+        int b = biome(player.biome());
+        int s = optString(caught.species);
+        int[] t = new int[caught.types.size()];
+        int i = 0;
+        for (String type : caught.types) t[i++] = string(type);
+        int nature = optString(caught.nature);
+        int ball = optString(caught.ball);
+        int form = optString(caught.form);
+        int[] aspects = new int[caught.formAspects.size()];
+        i = 0;
+        for (String aspect : caught.formAspects) aspects[i++] = string(aspect);
+
+        begin(CATCH);
+        writeVarInt(p);
+        writeVarInt(w);
+        writeSurroundings(player, b);
+        writeVarInt(zigzag(player.blockY()));
+        writeVarInt(s);
+        writeVarInt(t.length);
+        for (int v : t) writeVarInt(v);
+        writeByte(caught.shiny ? 1 : 0);
+        writeVarInt(caught.level);
+        writeVarInt(nature);
+        writeVarInt(ball);
+        writeVarInt(form);
+        writeVarInt(aspects.length);
+        for (int v : aspects) writeVarInt(v);
+        writeVarInt(caught.ivTotal);
+        writeVarInt(caught.perfectIvs);
+    }
+
+    static void move(BingoPlayer player) {
+        if (!recording) return;
+        int p = player(player.id());
+        int w = world(player.world());
+        int b = biome(player.biome());
+        begin(MOVE);
+        writeVarInt(p);
+        writeVarInt(w);
+        writeSurroundings(player, b);
+        writeVarInt(zigzag(player.blockX()));
+        writeVarInt(zigzag(player.blockY()));
+        writeVarInt(zigzag(player.blockZ()));
+    }
+
+    /** Called on every collect scan; writes only if the player's item totals changed. */
+    static void inventory(BingoPlayer player) {
+        if (!recording) return;
+        BingoInventory inv = player.inventory();
+        int n = 0;
+        for (int slot = 0, size = inv.size(); slot < size; slot++) {
+            int count = inv.count(slot);
+            if (count <= 0) continue;
+            Item item = inv.item(slot);
+            int j = 0;
+            while (j < n && INV_ITEMS[j] != item) j++;
+            if (j == n) {
+                if (n == INV_ITEMS.length) break;
+                INV_ITEMS[n] = item;
+                INV_COUNTS[n++] = count;
+            } else {
+                INV_COUNTS[j] += count;
+            }
+        }
+        // Order-independent so reordered slots don't count as a change.
+        long hash = n;
+        for (int j = 0; j < n; j++) hash += mix(System.identityHashCode(INV_ITEMS[j]) * 0x9E3779B97F4A7C15L + INV_COUNTS[j]);
+
+        Long last = LAST_INVENTORY.put(player.id(), hash);
+        if (last != null && last == hash) return;
+
+        int p = player(player.id());
+        int[] ids = new int[n];
+        for (int j = 0; j < n; j++) ids[j] = item(INV_ITEMS[j]);
+
+        begin(INVENTORY);
+        writeVarInt(p);
+        writeVarInt(n);
+        for (int j = 0; j < n; j++) {
+            writeVarInt(ids[j]);
+            writeVarInt(INV_COUNTS[j]);
+        }
+        Arrays.fill(INV_ITEMS, 0, n, null);
+    }
+
+    static void enable(String gameId) {
+        gameOp(ENABLE, gameId);
+    }
+
+    static void disable(String gameId) {
+        gameOp(DISABLE, gameId);
+    }
+
+    static void resetGame(String gameId) {
+        gameOp(RESET_GAME, gameId);
+    }
+
+    /** player is the target, not the owner: replay resolves teams itself. */
+    static void resetPlayer(UUID player, String gameId) {
+        if (!recording) return;
+        int p = player(player);
+        int g = string(gameId);
+        begin(RESET_PLAYER);
+        writeVarInt(p);
+        writeVarInt(g);
+    }
+
+    static void resetChallenge(UUID player, String challengeId, String gameIdOrNull) {
+        if (!recording) return;
+        int p = player(player);
+        int c = string(challengeId);
+        int g = gameIdOrNull == null ? 0 : string(gameIdOrNull) + 1;
+        begin(RESET_CHALLENGE);
+        writeVarInt(p);
+        writeVarInt(c);
+        writeVarInt(g);
+    }
+
+    static void resetChallengeAll(String challengeId, String gameIdOrNull) {
+        if (!recording) return;
+        int c = string(challengeId);
+        int g = gameIdOrNull == null ? 0 : string(gameIdOrNull) + 1;
+        begin(RESET_CHALLENGE_ALL);
+        writeVarInt(c);
+        writeVarInt(g);
+    }
+
+    static void progress(UUID player, String gameIdOrNull, String challengeId, int amount) {
+        if (!recording) return;
+        int p = player(player);
+        int g = gameIdOrNull == null ? 0 : string(gameIdOrNull) + 1;
+        int c = string(challengeId);
+        begin(PROGRESS);
+        writeVarInt(p);
+        writeVarInt(g);
+        writeVarInt(c);
+        writeVarInt(amount);
+    }
+
+    private static void gameOp(byte type, String gameId) {
+        if (!recording) return;
+        int g = string(gameId);
+        begin(type);
+        writeVarInt(g);
+    }
+
+    // -----------------
+    // Encoding
+    // -----------------
+
+    /** Record header; emits a TICK first if the server ticked since the last record. */
+    private static void begin(byte type) {
+        if (tick != lastWrittenTick) {
+            writeByte(TICK);
+            writeVarLong(tick - lastWrittenTick);
+            lastWrittenTick = tick;
+        }
+        writeByte(type);
+        records++;
+    }
+
+    private static int player(UUID id) {
+        Integer idx = PLAYERS.get(id);
+        if (idx != null) return idx;
+        int i = PLAYERS.size();
+        PLAYERS.put(id, i);
+        writeByte(DEF_PLAYER);
+        writeLong(id.getMostSignificantBits());
+        writeLong(id.getLeastSignificantBits());
+        return i;
+    }
+
+    private static int string(String s) {
+        Integer idx = STRINGS.get(s);
+        if (idx != null) return idx;
+        int i = STRINGS.size();
+        STRINGS.put(s, i);
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeByte(DEF_STRING);
+        writeVarInt(b.length);
+        ensure(b.length);
+        System.arraycopy(b, 0, buf, pos, b.length);
+        pos += b.length;
+        return i;
+    }
+
+    /** String index + 1, or 0 for null. */
+    private static int optString(String s) {
+        return s == null ? 0 : string(s) + 1;
+    }
+
+    private static int item(Item item) {
+        Integer idx = ITEMS.get(item);
+        if (idx == null) {
+            idx = string(BuiltInRegistries.ITEM.getKey(item).toString());
+            ITEMS.put(item, idx);
+        }
+        return idx;
+    }
+
+    /** Dimension and weather in one number: string index << 2 | thundering << 1 | raining. */
+    private static int world(BingoWorld world) {
+        ResourceKey<Level> dim = world.dimension();
+        Integer idx = DIMENSIONS.get(dim);
+        if (idx == null) {
+            idx = string(dim.location().toString());
+            DIMENSIONS.put(dim, idx);
+        }
+        return (idx << 2) | (world.isThundering() ? 2 : 0) | (world.isRaining() ? 1 : 0);
+    }
+
+    /** String index + 1, or 0 when the biome is unknown. */
+    private static int biome(ResourceKey<Biome> biome) {
+        if (biome == null) return 0;
+        Integer idx = BIOMES.get(biome);
+        if (idx == null) {
+            idx = string(biome.location().toString());
+            BIOMES.put(biome, idx);
+        }
+        return idx + 1;
+    }
+
+    /** Time of day (0..23999), biome (from {@link #biome}) and light level. */
+    private static void writeSurroundings(BingoPlayer player, int biome) {
+        writeVarInt((int) Math.floorMod(player.world().dayTime(), (long) DAY_LENGTH));
+        writeVarInt(biome);
+        writeVarInt(player.light());
+    }
+
+    private static void ensure(int n) {
+        if (pos + n <= buf.length) return;
+        handOff();
+        if (n > buf.length) buf = new byte[n];
+    }
+
+    /** Passes the filled part of the buffer to the writer and starts a fresh one. */
+    private static void handOff() {
+        if (pos == 0) return;
+        byte[] chunk = buf;
+        int len = pos;
+        bytes += len;
+        buf = new byte[CHUNK];
+        pos = 0;
+        writer.execute(() -> {
+            try {
+                out.write(chunk, 0, len);
+            } catch (IOException e) {
+                Cobblemonbingo.LOGGER.warn("Bingo trace: write failed: {}", e.toString());
+            }
+        });
+    }
+
+    private static void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    private static void writeInt(int v) {
+        ensure(4);
+        for (int s = 24; s >= 0; s -= 8) buf[pos++] = (byte) (v >>> s);
+    }
+
+    private static void writeLong(long v) {
+        ensure(8);
+        for (int s = 56; s >= 0; s -= 8) buf[pos++] = (byte) (v >>> s);
+    }
+
+    private static void writeVarInt(int v) {
+        ensure(5);
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    private static void writeVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        return z ^ (z >>> 33);
+    }
+
+    // -----------------
+    // Reading
+    // -----------------
+
+    /** Where a catch or move happened. biome is null when the server did not know it. */
+    public record Surroundings(String dimension, boolean raining, boolean thundering, int dayTime, String biome, int light) {}
+
+    /** Receives decoded records in file order. Ids are already resolved. */
+    public interface Visitor {
+        void tick(long ticks);
+
+        void join(UUID player);
+
+        void leave(UUID player);
+
+        void capture(UUID player, Surroundings where, int y, CatchAttributes caught);
+
+        void move(UUID player, Surroundings where, int x, int y, int z);
+
+        /** Item ids and their totals over the main inventory. */
+        void inventory(UUID player, String[] items, int[] counts);
+
+        void enable(String gameId);
+
+        void disable(String gameId);
+
+        void resetGame(String gameId);
+
+        void resetPlayer(UUID player, String gameId);
+
+        void resetChallenge(UUID player, String challengeId, String gameIdOrNull);
+
+        void resetChallengeAll(String challengeId, String gameIdOrNull);
+
+        void progress(UUID player, String gameIdOrNull, String challengeId, int amount);
+    }
+
+    /** Decodes a trace file. Returns the recording start time (epoch millis). */
+    public static long read(Path path, Visitor v) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path), CHUNK), CHUNK))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a bingo trace: " + path);
+            int version = in.readByte();
+            if (version != VERSION) throw new IOException("Unsupported trace version " + version);
+            long started = in.readLong();
+
+            List<UUID> players = new ArrayList<>();
+            List<String> strings = new ArrayList<>();
+
+            int type;
+            while ((type = in.read()) != -1) {
+                switch (type) {
+                    case TICK -> v.tick(readVarLong(in));
+                    case DEF_PLAYER -> players.add(new UUID(in.readLong(), in.readLong()));
+                    case DEF_STRING -> {
+                        byte[] b = new byte[readVarInt(in)];
+                        in.readFully(b);
+                        strings.add(new String(b, StandardCharsets.UTF_8));
+                    }
+                    case JOIN -> v.join(players.get(readVarInt(in)));
+                    case LEAVE -> v.leave(players.get(readVarInt(in)));
+                    case CATCH -> {
+                        UUID p = players.get(readVarInt(in));
+                        Surroundings where = readSurroundings(in, strings);
+                        int y = unzigzag(readVarInt(in));
+                        v.capture(p, where, y, readCatch(in, strings));
+                    }
+                    case MOVE -> {
+                        UUID p = players.get(readVarInt(in));
+                        Surroundings where = readSurroundings(in, strings);
+                        int x = unzigzag(readVarInt(in));
+                        int y = unzigzag(readVarInt(in));
+                        int z = unzigzag(readVarInt(in));
+                        v.move(p, where, x, y, z);
+                    }
+                    case INVENTORY -> {
+                        UUID p = players.get(readVarInt(in));
+                        int n = readVarInt(in);
+                        String[] items = new String[n];
+                        int[] counts = new int[n];
+                        for (int i = 0; i < n; i++) {
+                            items[i] = strings.get(readVarInt(in));
+                            counts[i] = readVarInt(in);
+                        }
+                        v.inventory(p, items, counts);
+                    }
+                    case ENABLE -> v.enable(strings.get(readVarInt(in)));
+                    case DISABLE -> v.disable(strings.get(readVarInt(in)));
+                    case RESET_GAME -> v.resetGame(strings.get(readVarInt(in)));
+                    case RESET_PLAYER -> v.resetPlayer(players.get(readVarInt(in)), strings.get(readVarInt(in)));
+                    case RESET_CHALLENGE -> {
+                        UUID p = players.get(readVarInt(in));
+                        String c = strings.get(readVarInt(in));
+                        v.resetChallenge(p, c, optString(strings, readVarInt(in)));
+                    }
+                    case RESET_CHALLENGE_ALL -> {
+                        String c = strings.get(readVarInt(in));
+                        v.resetChallengeAll(c, optString(strings, readVarInt(in)));
+                    }
+                    case PROGRESS -> {
+                        UUID p = players.get(readVarInt(in));
+                        String g = optString(strings, readVarInt(in));
+                        String c = strings.get(readVarInt(in));
+                        v.progress(p, g, c, readVarInt(in));
+                    }
+                    default -> throw new IOException("Unknown trace record type " + type);
+                }
+            }
+            return started;
+        }
+    }
+
+    private static Surroundings readSurroundings(DataInputStream in, List<String> strings) throws IOException {
+        int w = readVarInt(in);
+        int time = readVarInt(in);
+        String biome = optString(strings, readVarInt(in));
+        int light = readVarInt(in);
+        return new Surroundings(strings.get(w >>> 2), (w & 1) != 0, (w & 2) != 0, time, biome, light);
+    }
+
+    private static CatchAttributes readCatch(DataInputStream in, List<String> strings) throws IOException {
+        String species = optString(strings, readVarInt(in));
+        CatchAttributes c = new CatchAttributes().set(species, readNames(in, strings));
+        c.shiny = in.readByte() != 0;
+        c.level = readVarInt(in);
+        c.nature = optString(strings, readVarInt(in));
+        c.ball = optString(strings, readVarInt(in));
+        c.form = optString(strings, readVarInt(in));
+        c.formAspects = readNames(in, strings);
+        c.ivTotal = readVarInt(in);
+        c.perfectIvs = readVarInt(in);
+        return c;
+    }
+
+    private static Set<String> readNames(DataInputStream in, List<String> strings) throws IOException {
+        int n = readVarInt(in);
+        Set<String> out = new HashSet<>(n * 2);
+        for (int i = 0; i < n; i++) out.add(strings.get(readVarInt(in)));
+        return Set.copyOf(out);
+    }
+
+    private static String optString(List<String> strings, int idx) {
+        return idx == 0 ? null : strings.get(idx - 1);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
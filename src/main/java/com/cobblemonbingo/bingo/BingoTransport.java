@@ -0,0 +1,34 @@
+package com.cobblemonbingo.bingo;
+
+/**
+ * Carries encoded {@link BingoReplication} batches between backends. Implementations only move
+ * opaque byte arrays; batching, ordering and merging are the replication layer's job.
+ *
+ * Receiver callbacks may come from any thread.
+ */
+public interface BingoTransport {
+
+    interface Receiver {
+        /** A batch from another backend. */
+        void onMessage(byte[] message);
+
+        /** A peer (re)connected and should be brought up to date. */
+        void onPeerConnected();
+    }
+
+    void start(Receiver receiver);
+
+    /** Sends to every connected peer. Never blocks the caller on the network. */
+    void send(byte[] message);
+
+    /** Delivers what was already sent where it can within a short bound, then disconnects. */
+    void close();
+
+    static BingoTransport create(BingoSettings.Replication cfg) {
+        return switch (cfg.transport == null ? "" : cfg.transport.trim().toLowerCase(java.util.Locale.ROOT)) {
+            case "loopback" -> new BingoLoopbackTransport(cfg.channel);
+            case "socket" -> new BingoSocketTransport(cfg.host, cfg.port, cfg.listen);
+            default -> throw new IllegalArgumentException("Unknown bingo transport: " + cfg.transport);
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+/** The level a {@link BingoPlayer} is in, as far as challenge environment filters care. */
+public interface BingoWorld {
+
+    ResourceKey<Level> dimension();
+
+    boolean isRaining();
+
+    boolean isThundering();
+
+    /** Level day time; filters use it modulo 24000. */
+    long dayTime();
+}
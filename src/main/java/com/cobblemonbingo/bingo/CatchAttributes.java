@@ -0,0 +1,56 @@
+package com.cobblemonbingo.bingo;
+
+import java.util.Set;
+
+/**
+ * A caught Pokémon as catch challenges see it, extracted once per capture event and shared by
+ * every candidate challenge in every game. Ids are normalized the way {@link CatchFilter} compiles
+ * them ("cobblemon:..."), names lowercase.
+ *
+ * Mutable so the server can refill one instance per event; {@link #reset} restores the "nothing
+ * known" state (no species, no types, default form, zeroes), which is also what a trace replay
+ * without the extra attributes uses.
+ */
+public final class CatchAttributes {
+
+    /** Normalized species id, or null if unknown. */
+    public String species;
+    /** Lowercase type names. */
+    public Set<String> types = Set.of();
+
+    public boolean shiny;
+    public int level;
+    /** Normalized nature id, or null. */
+    public String nature;
+    /** Ball it was caught with (normalized id), or null. */
+    public String ball;
+    /** Lowercase form name ("normal" for the base form) and the form's aspects. */
+    public String form;
+    public Set<String> formAspects = Set.of();
+
+    /** Sum of the six IVs (0-186) and how many are 31. */
+    public int ivTotal;
+    public int perfectIvs;
+
+    public CatchAttributes reset() {
+        species = null;
+        types = Set.of();
+        shiny = false;
+        level = 0;
+        nature = null;
+        ball = null;
+        form = null;
+        formAspects = Set.of();
+        ivTotal = 0;
+        perfectIvs = 0;
+        return this;
+    }
+
+    /** Species and types only (simulator, replays). */
+    public CatchAttributes set(String species, Set<String> types) {
+        reset();
+        this.species = species;
+        this.types = types;
+        return this;
+    }
+}
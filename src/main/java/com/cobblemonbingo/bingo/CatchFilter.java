@@ -0,0 +1,135 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+
+import java.util.*;
+
+/**
+ * What a catch challenge accepts (species, types, shiny, level, nature, IVs, ball, form),
+ * compiled into a chain of checks that must all pass.
+ *
+ * The chain is ordered by estimated cost / (1 - pass rate), so cheap checks that reject most
+ * catches come first: "shiny" turns away all but one catch in thousands for the price of a
+ * boolean compare and runs before any set lookup. Pass rates are rough priors (a typical spread
+ * of species, levels and balls), not measured; they only decide order, never the result.
+ */
+final class CatchFilter {
+    private CatchFilter() {}
+
+    static final Check[] NONE = new Check[0];
+
+    enum Kind { SHINY, LEVEL, PERFECT_IVS, IV_TOTAL, SPECIES, NATURE, BALL, TYPE, FORM }
+
+    /**
+     * One check. {@code key} is the accepted id set (SPECIES, NATURE, BALL) or name array (TYPE,
+     * FORM); {@code min}/{@code max} are inclusive bounds (SHINY uses min as the expected value).
+     */
+    record Check(Kind kind, Object key, int min, int max) {
+
+        boolean test(CatchAttributes c) {
+            return switch (kind) {
+                case SHINY -> c.shiny == (min != 0);
+                case LEVEL -> c.level >= min && c.level <= max;
+                case PERFECT_IVS -> c.perfectIvs >= min;
+                case IV_TOTAL -> c.ivTotal >= min;
+                case SPECIES -> c.species != null && ((Set<?>) key).contains(c.species);
+                case NATURE -> c.nature != null && ((Set<?>) key).contains(c.nature);
+                case BALL -> c.ball != null && ((Set<?>) key).contains(c.ball);
+                case TYPE -> {
+                    for (String t : (String[]) key) if (c.types.contains(t)) yield true;
+                    yield false;
+                }
+                case FORM -> {
+                    if (c.form == null) yield false;
+                    for (String f : (String[]) key) {
+                        if (f.equals(c.form) || c.formAspects.contains(f)) yield true;
+                    }
+                    yield false;
+                }
+            };
+        }
+
+        /** Relative cost of one test: compares 1, hash lookups 2, loops over names 3. */
+        private double cost() {
+            return switch (kind) {
+                case SHINY, LEVEL, PERFECT_IVS, IV_TOTAL -> 1;
+                case SPECIES, NATURE, BALL -> 2;
+                case TYPE, FORM -> 3;
+            };
+        }
+
+        /** Rough share of catches that pass. */
+        private double passRate() {
+            int n = key instanceof Set<?> s ? s.size() : key instanceof String[] a ? a.length : 0;
+            return switch (kind) {
+                case SHINY -> min != 0 ? 1.0 / 4096 : 1.0;
+                case LEVEL -> Math.min(1.0, (Math.min(max, 100) - Math.max(min, 1) + 1) / 100.0);
+                case PERFECT_IVS -> Math.pow(6.0 / 32, min);
+                case IV_TOTAL -> Math.max(0.0, (186.0 - min) / 186.0);
+                case SPECIES -> Math.min(1.0, n / 1000.0);
+                case NATURE -> Math.min(1.0, n / 25.0);
+                case BALL -> Math.min(1.0, n / 10.0);
+                case TYPE -> Math.min(1.0, n / 9.0);
+                case FORM -> Math.min(1.0, n / 10.0);
+            };
+        }
+
+        private double rank() {
+            return cost() / Math.max(1e-6, 1.0 - Math.max(0.0, passRate()));
+        }
+    }
+
+    /** All checks a catch challenge needs, cheapest-most-selective first; empty = matches nothing. */
+    static Check[] compile(String gameId, String challengeId, BingoConfig.BingoChallenge.Properties p) {
+        if (p == null) return NONE;
+
+        boolean hasPokemon = p.pokemon != null && !p.pokemon.isEmpty();
+        boolean hasTypes = p.pokemonType != null && !p.pokemonType.isEmpty();
+        // Species and type are alternatives; a challenge listing both never matched and still doesn't.
+        if (hasPokemon && hasTypes) {
+            Cobblemonbingo.LOGGER.warn("Bingo game {}: challenge {} sets both pokemon and pokemonType; it can't be completed",
+                    gameId, challengeId);
+            return NONE;
+        }
+
+        List<Check> out = new ArrayList<>();
+        if (hasPokemon) out.add(new Check(Kind.SPECIES, ids(p.pokemon), 0, 0));
+        if (hasTypes) out.add(new Check(Kind.TYPE, names(p.pokemonType), 0, 0));
+        if (p.shiny != null) out.add(new Check(Kind.SHINY, null, p.shiny ? 1 : 0, 0));
+        if (p.minLevel != null || p.maxLevel != null) {
+            out.add(new Check(Kind.LEVEL, null,
+                    p.minLevel == null ? Integer.MIN_VALUE : p.minLevel,
+                    p.maxLevel == null ? Integer.MAX_VALUE : p.maxLevel));
+        }
+        if (p.minPerfectIvs != null && p.minPerfectIvs > 0) out.add(new Check(Kind.PERFECT_IVS, null, p.minPerfectIvs, 0));
+        if (p.minIvTotal != null && p.minIvTotal > 0) out.add(new Check(Kind.IV_TOTAL, null, p.minIvTotal, 0));
+        if (p.nature != null && !p.nature.isEmpty()) out.add(new Check(Kind.NATURE, ids(p.nature), 0, 0));
+        if (p.ball != null && !p.ball.isEmpty()) out.add(new Check(Kind.BALL, ids(p.ball), 0, 0));
+        if (p.form != null && !p.form.isEmpty()) out.add(new Check(Kind.FORM, names(p.form), 0, 0));
+
+        // No filter at all: the challenge can't match anything.
+        if (out.isEmpty()) return NONE;
+
+        out.sort(Comparator.comparingDouble(Check::rank));
+        return out.toArray(NONE);
+    }
+
+    /** Namespaced the same way as species: "great_ball" means "cobblemon:great_ball". */
+    private static Set<String> ids(List<String> raw) {
+        Set<String> out = new HashSet<>();
+        for (String s : raw) {
+            String n = CompiledGame.normalizeSpecies(s);
+            if (n != null) out.add(n);
+        }
+        return Set.copyOf(out);
+    }
+
+    private static String[] names(List<String> raw) {
+        Set<String> out = new LinkedHashSet<>();
+        for (String s : raw) {
+            String n = CompiledGame.normalizeType(s);
+            if (n != null) out.add(n);
+        }
+        return out.toArray(new String[0]);
+    }
+}
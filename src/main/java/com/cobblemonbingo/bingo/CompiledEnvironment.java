@@ -0,0 +1,163 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.*;
+
+/**
+ * The environment filters of one game (dimension, weather, biome, time of day, Y range, light),
+ * compiled into a condition table.
+ *
+ * Every distinct predicate across the game's challenges gets one bit. {@link #evaluate} tests
+ * them all once per player per event; a challenge's filter is then a single mask comparison
+ * ({@link CompiledGame.Challenge#environmentMatches}). Identical filters on different squares
+ * share bits, so the per-event cost depends on how many distinct filters a game has, not on how
+ * many squares use them.
+ */
+final class CompiledEnvironment {
+
+    /** Bits in a {@code long}. Conditions past this are tested per square instead. */
+    static final int MAX_CONDITIONS = 64;
+
+    static final CompiledEnvironment EMPTY = new CompiledEnvironment(new Condition[0]);
+
+    private static final int DAY_LENGTH = 24000;
+
+    enum Kind { NEVER, DIMENSION, RAINING, THUNDERING, BIOME, TIME, Y, LIGHT }
+
+    /**
+     * One predicate. {@code key} is the dimension or biome set; {@code min}/{@code max} are the
+     * inclusive range (TIME wraps past midnight when min > max; RAINING/THUNDERING use min as
+     * the expected value).
+     */
+    record Condition(Kind kind, Object key, int min, int max) {
+
+        boolean test(BingoPlayer player) {
+            return switch (kind) {
+                case NEVER -> false;
+                case DIMENSION -> player.world().dimension() == key;
+                case RAINING -> player.world().isRaining() == (min != 0);
+                case THUNDERING -> player.world().isThundering() == (min != 0);
+                case BIOME -> {
+                    ResourceKey<Biome> b = player.biome();
+                    yield b != null && ((Set<?>) key).contains(b);
+                }
+                case TIME -> {
+                    int t = (int) Math.floorMod(player.world().dayTime(), (long) DAY_LENGTH);
+                    yield min <= max ? (t >= min && t <= max) : (t >= min || t <= max);
+                }
+                case Y -> {
+                    int y = player.blockY();
+                    yield y >= min && y <= max;
+                }
+                case LIGHT -> {
+                    int l = player.light();
+                    yield l >= min && l <= max;
+                }
+            };
+        }
+    }
+
+    private final Condition[] conditions;
+
+    private CompiledEnvironment(Condition[] conditions) {
+        this.conditions = conditions;
+    }
+
+    boolean isEmpty() {
+        return conditions.length == 0;
+    }
+
+    int size() {
+        return conditions.length;
+    }
+
+    /** Bit i set = condition i holds for this player right now. */
+    long evaluate(BingoPlayer player) {
+        long bits = 0L;
+        for (int i = 0; i < conditions.length; i++) {
+            if (conditions[i].test(player)) bits |= 1L << i;
+        }
+        return bits;
+    }
+
+    // -----------------
+    // Compilation
+    // -----------------
+
+    /** The conditions a challenge's properties ask for (empty = no filter). */
+    static List<Condition> conditionsOf(String gameId, String challengeId, BingoConfig.BingoChallenge.Properties p) {
+        if (p == null) return List.of();
+        List<Condition> out = new ArrayList<>();
+
+        if (p.dimension != null && !p.dimension.isBlank()) {
+            ResourceLocation rl = ResourceLocation.tryParse(p.dimension.trim());
+            // Unparsable id never matches.
+            if (rl == null) out.add(new Condition(Kind.NEVER, null, 0, 0));
+            else out.add(new Condition(Kind.DIMENSION, ResourceKey.create(Registries.DIMENSION, rl), 0, 0));
+        }
+        if (p.isRaining != null) out.add(new Condition(Kind.RAINING, null, p.isRaining ? 1 : 0, 0));
+        if (p.isThundering != null) out.add(new Condition(Kind.THUNDERING, null, p.isThundering ? 1 : 0, 0));
+
+        if (p.biome != null && !p.biome.isEmpty()) {
+            Set<ResourceKey<Biome>> keys = new HashSet<>();
+            for (String s : p.biome) {
+                ResourceLocation rl = (s == null) ? null : ResourceLocation.tryParse(s.trim());
+                if (rl == null) {
+                    Cobblemonbingo.LOGGER.warn("Bingo game {}: challenge {} has invalid biome '{}'", gameId, challengeId, s);
+                    continue;
+                }
+                keys.add(ResourceKey.create(Registries.BIOME, rl));
+            }
+            out.add(keys.isEmpty() ? new Condition(Kind.NEVER, null, 0, 0) : new Condition(Kind.BIOME, Set.copyOf(keys), 0, 0));
+        }
+
+        if (p.minTime != null || p.maxTime != null) {
+            int min = p.minTime == null ? 0 : Math.floorMod(p.minTime, DAY_LENGTH);
+            int max = p.maxTime == null ? DAY_LENGTH - 1 : Math.floorMod(p.maxTime, DAY_LENGTH);
+            out.add(new Condition(Kind.TIME, null, min, max));
+        }
+        if (p.minY != null || p.maxY != null) {
+            out.add(new Condition(Kind.Y, null,
+                    p.minY == null ? Integer.MIN_VALUE : p.minY,
+                    p.maxY == null ? Integer.MAX_VALUE : p.maxY));
+        }
+        if (p.minLight != null || p.maxLight != null) {
+            out.add(new Condition(Kind.LIGHT, null,
+                    p.minLight == null ? 0 : p.minLight,
+                    p.maxLight == null ? 15 : p.maxLight));
+        }
+        return out;
+    }
+
+    /** Assigns bits to distinct conditions as challenges are compiled. */
+    static final class Builder {
+        private final Map<Condition, Integer> bits = new LinkedHashMap<>();
+        private boolean warned;
+
+        /** Bit index for this condition, or -1 if the table is full. */
+        int bit(Condition c, String gameId) {
+            Integer existing = bits.get(c);
+            if (existing != null) return existing;
+            if (bits.size() >= MAX_CONDITIONS) {
+                if (!warned) {
+                    Cobblemonbingo.LOGGER.warn("Bingo game {}: more than {} distinct environment filters; the rest are checked per square",
+                            gameId, MAX_CONDITIONS);
+                    warned = true;
+                }
+                return -1;
+            }
+            int b = bits.size();
+            bits.put(c, b);
+            return b;
+        }
+
+        CompiledEnvironment build() {
+            return bits.isEmpty() ? EMPTY : new CompiledEnvironment(bits.keySet().toArray(new Condition[0]));
+        }
+    }
+}
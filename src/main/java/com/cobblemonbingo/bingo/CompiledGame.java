@@ -0,0 +1,348 @@
+package com.cobblemonbingo.bingo;
+
+import com.cobblemonbingo.Cobblemonbingo;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+
+import java.util.*;
+
+/**
+ * Immutable, pre-resolved view of a {@link BingoConfig}, built by {@link BingoConfigManager#compile}.
+ *
+ * Event handlers and the GUI read only from this: challenge types are enums, dimensions are
+ * resolved keys, items and species are resolved once, and goals are precomputed.
+ * The only live field is {@link #isActive()}, which still follows the config so enable/disable
+ * and disableOnCompletion keep working without a recompile.
+ */
+public final class CompiledGame {
+
+    public enum ChallengeType {
+        CATCH, COLLECT, ENTERAREA, CUSTOM, PLACEHOLDER;
+
+        static ChallengeType parse(String raw) {
+            if (raw == null) return PLACEHOLDER;
+            return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+                case "catch" -> CATCH;
+                case "collect" -> COLLECT;
+                case "enterarea" -> ENTERAREA;
+                case "custom" -> CUSTOM;
+                default -> PLACEHOLDER;
+            };
+        }
+    }
+
+    /** A team from the config. Progress, board and claims are stored under {@link #uuid}. */
+    public static final class Team {
+        public final String id;
+        public final String name;
+        public final UUID uuid;
+        public final List<UUID> members;
+
+        private Team(String gameId, String id, String name, List<UUID> members) {
+            this.id = id;
+            this.name = name;
+            this.uuid = uuidOf(gameId, id);
+            this.members = List.copyOf(members);
+        }
+
+        /** Synthetic and stable: same game + team id => same record across restarts. */
+        static UUID uuidOf(String gameId, String id) {
+            return UUID.nameUUIDFromBytes(("cobblemon-bingo:team:" + gameId + ":" + id)
+                    .getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        }
+    }
+
+    public static final class Challenge {
+        public final int index;
+        public final String id;
+        public final ChallengeType type;
+        public final int goal;
+        /** Original definition; used for name/lore/icon only. */
+        public final BingoConfig.BingoChallenge source;
+
+        // Environment filters (ignored for custom): bits of the game's CompiledEnvironment, plus
+        // any conditions that didn't fit in its table.
+        private final long envMask;
+        private final CompiledEnvironment.Condition[] envUnindexed;
+
+        // catch: all must pass, cheapest-most-selective first
+        private final CatchFilter.Check[] catchChecks;
+
+        // collect
+        public final Item item;
+
+        // enterarea
+        public final boolean hasArea;
+        public final int x;
+        public final int y;
+        public final int z;
+
+        private Challenge(String gameId, int index, BingoConfig.BingoChallenge ch, CompiledEnvironment.Builder env) {
+            this.index = index;
+            // Trimmed, matching the challenge ids stored in BingoState.
+            this.id = ch.id.trim();
+            this.type = ChallengeType.parse(ch.type);
+            this.goal = BingoService.goalFor(ch);
+            this.source = ch;
+
+            BingoConfig.BingoChallenge.Properties p = ch.properties;
+
+            long mask = 0L;
+            List<CompiledEnvironment.Condition> unindexed = new ArrayList<>();
+            if (type != ChallengeType.CUSTOM) {
+                for (CompiledEnvironment.Condition c : CompiledEnvironment.conditionsOf(gameId, id, p)) {
+                    int bit = env.bit(c, gameId);
+                    if (bit < 0) unindexed.add(c);
+                    else mask |= 1L << bit;
+                }
+            }
+            this.envMask = mask;
+            this.envUnindexed = unindexed.toArray(new CompiledEnvironment.Condition[0]);
+
+            this.catchChecks = type == ChallengeType.CATCH ? CatchFilter.compile(gameId, id, p) : CatchFilter.NONE;
+
+            Item it = Items.AIR;
+            if (type == ChallengeType.COLLECT && p != null && p.item != null && !p.item.isBlank()) {
+                ResourceLocation rl = ResourceLocation.tryParse(p.item.trim());
+                if (rl != null) it = BuiltInRegistries.ITEM.get(rl);
+                if (it == null) it = Items.AIR;
+            }
+            this.item = it;
+
+            this.hasArea = type == ChallengeType.ENTERAREA && p != null && p.x != null && p.y != null && p.z != null;
+            this.x = hasArea ? p.x : 0;
+            this.y = hasArea ? p.y : 0;
+            this.z = hasArea ? p.z : 0;
+        }
+
+        /** env = {@link CompiledGame#environment} for the player, computed once per event. */
+        public boolean environmentMatches(long env, BingoPlayer player) {
+            if ((env & envMask) != envMask) return false;
+            for (CompiledEnvironment.Condition c : envUnindexed) {
+                if (!c.test(player)) return false;
+            }
+            return true;
+        }
+
+        /** Enter-area: exact block match. */
+        public boolean isAt(int bx, int by, int bz) {
+            return hasArea && bx == x && by == y && bz == z;
+        }
+
+        /** Empty filter (not a catch challenge, or an invalid one) matches nothing. */
+        public boolean matchesCatch(CatchAttributes caught) {
+            if (catchChecks.length == 0) return false;
+            for (CatchFilter.Check c : catchChecks) {
+                if (!c.test(caught)) return false;
+            }
+            return true;
+        }
+    }
+
+    public final String id;
+    public final BingoConfig config;
+    public final List<Challenge> challenges;
+    private final Map<String, Challenge> byId;
+
+    public final boolean allowHorizontal;
+    public final boolean allowVertical;
+    public final boolean allowDiagonal;
+
+    public final boolean lockout;
+
+    // member UUID -> team, team UUID -> team
+    private final Map<UUID, Team> teamByMember;
+    private final Map<UUID, Team> teamByUuid;
+
+    /** Allowed lines as 25-bit square masks (bit i = board slot i). */
+    public final int[] lineMasks;
+
+    public final boolean hasCatchChallenges;
+    public final boolean hasCollectChallenges;
+    public final boolean hasEnterAreaChallenges;
+
+    // Per-type pools, used to decide whether an event qualifies before a board exists.
+    public final List<Challenge> catchChallenges;
+    public final List<Challenge> collectChallenges;
+    public final List<Challenge> areaChallenges;
+
+    /** Distinct environment filters of all challenges, one bit each. */
+    private final CompiledEnvironment environment;
+
+    /** onCompletion, compiled: cumulative weights, resolved items, parsed Pokémon properties. */
+    public final BingoRewards.Table rewards;
+
+    CompiledGame(String gameId, BingoConfig cfg) {
+        this.id = gameId;
+        this.config = cfg;
+
+        List<Challenge> list = new ArrayList<>();
+        CompiledEnvironment.Builder env = new CompiledEnvironment.Builder();
+        List<Challenge> catches = new ArrayList<>();
+        List<Challenge> collects = new ArrayList<>();
+        List<Challenge> areas = new ArrayList<>();
+        Map<String, Challenge> map = new HashMap<>();
+
+        if (cfg.challenges != null) {
+            for (BingoConfig.BingoChallenge ch : cfg.challenges) {
+                if (ch == null || ch.id == null || ch.id.isBlank()) continue;
+                Challenge c = new Challenge(gameId, list.size(), ch, env);
+                list.add(c);
+                // Boards store the raw id; lookups from commands are trimmed.
+                map.put(ch.id, c);
+                map.put(ch.id.trim(), c);
+
+                if (c.catchChecks.length > 0) catches.add(c);
+                if (c.type == ChallengeType.COLLECT && c.item != Items.AIR) collects.add(c);
+                if (c.hasArea) areas.add(c);
+            }
+        }
+
+        this.challenges = List.copyOf(list);
+        this.environment = env.build();
+        this.byId = Map.copyOf(map);
+        this.catchChallenges = List.copyOf(catches);
+        this.collectChallenges = List.copyOf(collects);
+        this.areaChallenges = List.copyOf(areas);
+        this.hasCatchChallenges = !catches.isEmpty();
+        this.hasCollectChallenges = !collects.isEmpty();
+        this.hasEnterAreaChallenges = !areas.isEmpty();
+
+        boolean h = false, v = false, d = false;
+        if (cfg.completion == null || cfg.completion.isEmpty()) {
+            h = v = d = true;
+        } else {
+            for (String s : cfg.completion) {
+                if (s == null) continue;
+                String t = s.trim().toLowerCase(Locale.ROOT);
+                if (t.equals("horizontal")) h = true;
+                if (t.equals("vertical")) v = true;
+                if (t.equals("diagonal")) d = true;
+            }
+        }
+        this.allowHorizontal = h;
+        this.allowVertical = v;
+        this.allowDiagonal = d;
+        this.lineMasks = lineMasks(h, v, d);
+        this.lockout = cfg.isLockout;
+
+        Map<UUID, Team> byMember = new HashMap<>();
+        Map<UUID, Team> byUuid = new HashMap<>();
+        if (cfg.teams != null) {
+            for (BingoConfig.TeamDef def : cfg.teams) {
+                if (def == null || def.id == null || def.id.isBlank()) continue;
+                String tid = def.id.trim();
+                // Same id => same storage UUID: two definitions would silently share one board.
+                if (byUuid.containsKey(Team.uuidOf(gameId, tid))) {
+                    Cobblemonbingo.LOGGER.warn("Bingo game {}: team id {} is defined more than once; ignoring the later definition", gameId, tid);
+                    continue;
+                }
+                List<UUID> members = new ArrayList<>();
+                if (def.members != null) {
+                    for (String m : def.members) {
+                        UUID u = parseUuid(m);
+                        if (u == null) {
+                            Cobblemonbingo.LOGGER.warn("Bingo game {}: team {} has invalid member UUID '{}'", gameId, def.id, m);
+                        } else if (byMember.containsKey(u)) {
+                            Cobblemonbingo.LOGGER.warn("Bingo game {}: {} is in more than one team; keeping {}", gameId, u, byMember.get(u).id);
+                        } else {
+                            members.add(u);
+                        }
+                    }
+                }
+                Team team = new Team(gameId, tid, (def.name == null || def.name.isBlank()) ? tid : def.name, members);
+                byUuid.put(team.uuid, team);
+                for (UUID u : team.members) byMember.put(u, team);
+            }
+        }
+        this.teamByMember = Map.copyOf(byMember);
+        this.teamByUuid = Map.copyOf(byUuid);
+
+        this.rewards = BingoRewards.compile(gameId, cfg.onCompletion);
+    }
+
+    public boolean isActive() {
+        return config.isActive;
+    }
+
+    /** Whose record a player's progress goes to: their team's UUID, or their own. O(1). */
+    public UUID progressOwner(UUID playerId) {
+        if (teamByMember.isEmpty()) return playerId;
+        Team t = teamByMember.get(playerId);
+        return t == null ? playerId : t.uuid;
+    }
+
+    /** Team by team UUID (a progress owner), or null for a solo player. */
+    public Team team(UUID ownerId) {
+        return teamByUuid.isEmpty() ? null : teamByUuid.get(ownerId);
+    }
+
+    public boolean hasTeams() {
+        return !teamByUuid.isEmpty();
+    }
+
+    private static UUID parseUuid(String s) {
+        if (s == null) return null;
+        try {
+            return UUID.fromString(s.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Which of this game's environment conditions hold for the player right now. Evaluate once per
+     * event and pass to {@link Challenge#environmentMatches} for every square.
+     */
+    public long environment(BingoPlayer player) {
+        return environment.isEmpty() ? 0L : environment.evaluate(player);
+    }
+
+    public Challenge challenge(String challengeId) {
+        if (challengeId == null) return null;
+        return byId.get(challengeId);
+    }
+
+    static final int[] ALL_LINES = lineMasks(true, true, true);
+
+    static int[] lineMasks(boolean horizontal, boolean vertical, boolean diagonal) {
+        List<Integer> out = new ArrayList<>(12);
+        for (int i = 0; i < 5; i++) {
+            int row = 0, col = 0;
+            for (int j = 0; j < 5; j++) {
+                row |= 1 << (i * 5 + j);
+                col |= 1 << (j * 5 + i);
+            }
+            if (horizontal) out.add(row);
+            if (vertical) out.add(col);
+        }
+        if (diagonal) {
+            int d1 = 0, d2 = 0;
+            for (int i = 0; i < 5; i++) {
+                d1 |= 1 << (i * 5 + i);
+                d2 |= 1 << (i * 5 + (4 - i));
+            }
+            out.add(d1);
+            out.add(d2);
+        }
+        int[] arr = new int[out.size()];
+        for (int i = 0; i < arr.length; i++) arr[i] = out.get(i);
+        return arr;
+    }
+
+    static String normalizeSpecies(String raw) {
+        if (raw == null) return null;
+        String s = raw.trim().toLowerCase(Locale.ROOT);
+        if (s.isEmpty()) return null;
+        if (s.contains(":")) return s;
+        return "cobblemon:" + s;
+    }
+
+    static String normalizeType(String s) {
+        if (s == null) return null;
+        String t = s.trim().toLowerCase(Locale.ROOT);
+        return t.isEmpty() ? null : t;
+    }
+}
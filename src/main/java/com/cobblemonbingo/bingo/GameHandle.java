@@ -0,0 +1,44 @@
+package com.cobblemonbingo.bingo;
+
+/**
+ * Interned reference to a loaded game: canonical id, config, compiled snapshot and the
+ * game's {@link BingoState.GamePartition}.
+ *
+ * Handed out by {@link BingoRegistry}; raw ids are sanitized once (command parse / load) and
+ * hot paths pass handles around instead of strings.
+ */
+public final class GameHandle {
+    public final String id;
+    public final BingoConfig config;
+    public final CompiledGame game;
+
+    // Last partition looked up, keyed by the state instance it came from (server thread only).
+    private BingoState boundState;
+    private BingoState.GamePartition boundPartition;
+
+    GameHandle(String id, BingoConfig config, CompiledGame game) {
+        this.id = id;
+        this.config = config;
+        this.game = game;
+    }
+
+    public boolean isActive() {
+        return config.isActive;
+    }
+
+    /** This game's slice of the given state. */
+    public BingoState.GamePartition partition(BingoState state) {
+        if (state != boundState) {
+            boundPartition = state.partition(id);
+            boundPartition.bind(game);
+            boundState = state;
+        }
+        return boundPartition;
+    }
+
+    /** Server stopping: forget the partition so the stopped world's state can be collected. */
+    void unbind() {
+        boundState = null;
+        boundPartition = null;
+    }
+}
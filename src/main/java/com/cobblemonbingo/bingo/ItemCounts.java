@@ -0,0 +1,46 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+
+import java.util.Arrays;
+
+/**
+ * Total count per item over one inventory, for collect challenges.
+ *
+ * Reused from player to player so a scan allocates nothing once warm: counts are indexed by the
+ * item's registry id, and only the entries the last inventory touched are cleared on refill.
+ * Not thread-safe; each caller (server tick, simulator, replay) owns one.
+ */
+public final class ItemCounts {
+
+    private int[] counts = new int[2048];
+    private int[] touched = new int[64];
+    private int touchedCount;
+
+    /** Replaces the current totals with the given inventory's. */
+    public void fill(BingoInventory inv) {
+        for (int i = 0; i < touchedCount; i++) counts[touched[i]] = 0;
+        touchedCount = 0;
+
+        for (int slot = 0, n = inv.size(); slot < n; slot++) {
+            int count = inv.count(slot);
+            if (count <= 0) continue;
+            int id = BuiltInRegistries.ITEM.getId(inv.item(slot));
+            if (id < 0) continue;
+
+            if (id >= counts.length) counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+            if (counts[id] == 0) {
+                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touched.length * 2);
+                touched[touchedCount++] = id;
+            }
+            counts[id] += count;
+        }
+    }
+
+    /** Total of this item in the last filled inventory; 0 if none. */
+    public int get(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return (id >= 0 && id < counts.length) ? counts[id] : 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.cobblemonbingo.bingo;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.NonNullList;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.UUID;
+
+/**
+ * {@link BingoEngine} bound to a live ServerPlayer: reads through to the player and reacts to
+ * progress with menu refreshes and win handling.
+ *
+ * One instance is rebound per event instead of allocating a wrapper each time (server thread only).
+ */
+final class ServerBingoPlayer implements BingoPlayer, BingoWorld, BingoInventory, BingoEngine.Effects {
+
+    private ServerPlayer player;
+    private NonNullList<ItemStack> items;
+
+    // Position lookups, done at most once per bind (several games may filter on them).
+    private ResourceKey<Biome> biome;
+    private boolean biomeKnown;
+    private int light = -1;
+
+    ServerBingoPlayer bind(ServerPlayer player) {
+        this.player = player;
+        this.items = player.getInventory().items;
+        this.biome = null;
+        this.biomeKnown = false;
+        this.light = -1;
+        return this;
+    }
+
+    /** Drops the reference so a disconnected player isn't kept alive until the next event. */
+    void unbind() {
+        this.player = null;
+        this.items = null;
+        this.biome = null;
+    }
+
+    // -----------------
+    // BingoPlayer
+    // -----------------
+
+    @Override
+    public UUID id() {
+        return player.getUUID();
+    }
+
+    @Override
+    public RandomSource random() {
+        return player.getRandom();
+    }
+
+    @Override
+    public int blockX() {
+        return player.getBlockX();
+    }
+
+    @Override
+    public int blockY() {
+        return player.getBlockY();
+    }
+
+    @Override
+    public int blockZ() {
+        return player.getBlockZ();
+    }
+
+    @Override
+    public ResourceKey<Biome> biome() {
+        if (!biomeKnown) {
+            Holder<Biome> holder = player.serverLevel().getBiome(player.blockPosition());
+            biome = (holder instanceof Holder.Reference<Biome> ref) ? ref.key() : null;
+            biomeKnown = true;
+        }
+        return biome;
+    }
+
+    @Override
+    public int light() {
+        if (light < 0) light = player.serverLevel().getMaxLocalRawBrightness(player.blockPosition());
+        return light;
+    }
+
+    @Override
+    public BingoWorld world() {
+        return this;
+    }
+
+    @Override
+    public BingoInventory inventory() {
+        return this;
+    }
+
+    // -----------------
+    // BingoWorld
+    // -----------------
+
+    @Override
+    public ResourceKey<Level> dimension() {
+        return player.level().dimension();
+    }
+
+    @Override
+    public boolean isRaining() {
+        return player.serverLevel().isRaining();
+    }
+
+    @Override
+    public boolean isThundering() {
+        return player.serverLevel().isThundering();
+    }
+
+    @Override
+    public long dayTime() {
+        return player.serverLevel().getDayTime();
+    }
+
+    // -----------------
+    // BingoInventory
+    // -----------------
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public Item item(int slot) {
+        return items.get(slot).getItem();
+    }
+
+    @Override
+    public int count(int slot) {
+        ItemStack stack = items.get(slot);
+        return stack.isEmpty() ? 0 : stack.getCount();
+    }
+
+    // -----------------
+    // Effects
+    // -----------------
+
+    @Override
+    public void progressed(GameHandle game, BingoState state, UUID ownerId, boolean completedAny) {
+        if (completedAny && game.game.lockout) {
+            BingoService.refreshViewers(player.getServer(), game);
+        } else {
+            BingoService.refreshOwner(player, game, ownerId);
+        }
+        if (completedAny) {
+            BingoService.checkAndHandleWin(player.getServer(), player, game, state);
+        }
+    }
+}